@@ -0,0 +1,189 @@
+package com.echonymous.benchmark;
+
+import com.echonymous.EchonymousApplication;
+import com.echonymous.util.HotScore;
+import com.echonymous.util.JwtUtils;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against in-memory H2 (the test profile) and seeds a dataset once per trial.
+ *
+ * posts sets the dataset size (e.g. 10000 or 1000000). skew is the Zipf exponent of the like distribution:
+ * the post ranked r gets about users / r^skew likes, so a few posts are hot and the long tail has none.
+ * The post with id 1 is the hottest one and also carries the comment thread. Users, posts and comments are
+ * inserted with explicit ids (their sequences hand out blocks of 50, one per plain insert), and the sequences
+ * are restarted after the seeded rows.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+    private static final String[] CATEGORIES = {"General", "Tech", "Music", "Sports", "Confessions"};
+    private static final int BATCH_SIZE = 5_000;
+
+    @Param({"10000"})
+    public int posts;
+
+    @Param({"1.0"})
+    public double skew;
+
+    @Param({"200"})
+    public int comments;
+
+    // hibernate.jdbc.batch_size; 0 turns JDBC batching off
+    @Param({"50"})
+    public int jdbcBatchSize;
+
+    // Serves the H2 database over TCP on localhost, so every statement pays a round trip as with a database server
+    @Param({"false"})
+    public boolean tcp;
+
+    private Server h2Server;
+
+    public ConfigurableApplicationContext context;
+    public Long userId;
+    public Long hotPostId;
+    public String validToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        start("test");
+    }
+
+    /**
+     * Boots the application with the given profiles (the first one should be "test") and seeds the dataset.
+     */
+    public void start(String... profiles) {
+        List<String> args = new ArrayList<>(List.of(
+                // The security config needs the MVC infrastructure, so start the web layer on a random port
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.echonymous=WARN",
+                "--logging.file.name=",
+                // Measure the database path rather than the shared page cache
+                "--echonymous.feed-cache.enabled=false",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                "--jwt.secret=88cd2108b5347d973cf39cdf9053d7dd42704876d8c9a9bd8e2d168259d3ddf7",
+                "--jwt.expiration=3600000"));
+        if (tcp) {
+            try {
+                h2Server = Server.createTcpServer("-tcpPort", String.valueOf(freePort()), "-ifNotExists").start();
+            } catch (SQLException | IOException e) {
+                throw new IllegalStateException("Could not start the H2 TCP server", e);
+            }
+            args.add("--spring.datasource.url=jdbc:h2:tcp://localhost:" + h2Server.getPort() + "/mem:benchmark;DB_CLOSE_DELAY=-1");
+        }
+        // Passed as arguments rather than default properties, so they override application.properties
+        context = new SpringApplicationBuilder(EchonymousApplication.class)
+                .profiles(profiles)
+                .run(args.toArray(String[]::new));
+        seed(context.getBean(JdbcTemplate.class));
+        validToken = context.getBean(JwtUtils.class).generateToken(userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        if (h2Server != null) {
+            h2Server.stop();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        int users = Math.max(100, Math.min(posts / 100, 10_000));
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= users; i++) {
+            rows.add(new Object[]{i, "bench" + i + "@example.com", "bench" + i, "benchPassword"});
+        }
+        jdbc.batchUpdate("INSERT INTO users (user_id, email, username, password) VALUES (?, ?, ?, ?)", rows);
+        restartSequence(jdbc, "users_seq", users);
+        userId = 1L;
+
+        // Post ids are assigned in insert order, so id 1 is the newest and the most liked
+        LocalDateTime now = LocalDateTime.now();
+        rows.clear();
+        for (int i = 0; i < posts; i++) {
+            rows.add(new Object[]{i + 1, CATEGORIES[i % CATEGORIES.length], CATEGORIES[i % CATEGORIES.length], "Benchmark post " + i, userId + (i % users),
+                    Timestamp.valueOf(now.minusSeconds(i)), likesForRank(i + 1, users),
+                    HotScore.of(likesForRank(i + 1, users), 0, 0, now.minusSeconds(i))});
+            if (rows.size() == BATCH_SIZE) {
+                insertPosts(jdbc, rows);
+            }
+        }
+        insertPosts(jdbc, rows);
+        restartSequence(jdbc, "post_seq", posts);
+        hotPostId = 1L;
+
+        for (int rank = 1; rank <= posts; rank++) {
+            int likes = likesForRank(rank, users);
+            if (likes == 0) {
+                break;
+            }
+            long postId = hotPostId + rank - 1;
+            for (int u = 0; u < likes; u++) {
+                rows.add(new Object[]{postId, userId + u, Timestamp.valueOf(now)});
+            }
+            if (rows.size() >= BATCH_SIZE) {
+                jdbc.batchUpdate("INSERT INTO post_like (post_id, user_id, liked_at) VALUES (?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO post_like (post_id, user_id, liked_at) VALUES (?, ?, ?)", rows);
+        rows.clear();
+
+        // The benchmark user has echoed every tenth post
+        for (int i = 0; i < Math.min(posts, 5_000); i += 10) {
+            rows.add(new Object[]{hotPostId + i, userId, Timestamp.valueOf(now.minusSeconds(i))});
+        }
+        jdbc.batchUpdate("INSERT INTO post_echo (post_id, user_id, echoed_at) VALUES (?, ?, ?)", rows);
+        jdbc.update("UPDATE post SET echo_count = 1 WHERE post_id IN (SELECT post_id FROM post_echo)");
+        rows.clear();
+
+        for (int i = 0; i < comments; i++) {
+            rows.add(new Object[]{i + 1, hotPostId, userId + (i % users), "Benchmark comment " + i, Timestamp.valueOf(now.minusSeconds(i))});
+        }
+        jdbc.batchUpdate("INSERT INTO post_comment (post_comment_id, post_id, user_id, comment, created_at) VALUES (?, ?, ?, ?, ?)", rows);
+        restartSequence(jdbc, "post_comment_seq", comments);
+        jdbc.update("UPDATE post SET comment_count = ? WHERE post_id = ?", comments, hotPostId);
+    }
+
+    private void insertPosts(JdbcTemplate jdbc, List<Object[]> rows) {
+        jdbc.batchUpdate("INSERT INTO post (post_id, post_type, category, category_key, content, author_id, created_at, like_count, comment_count, echo_count, hot_score) " +
+                "VALUES (?, 'TEXT', ?, lower(?), ?, ?, ?, ?, 0, 0, ?)", rows);
+        rows.clear();
+    }
+
+    // The next block Hibernate allocates starts after the last seeded id
+    private void restartSequence(JdbcTemplate jdbc, String sequence, long lastId) {
+        jdbc.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (lastId + 1));
+    }
+
+    private int likesForRank(int rank, int users) {
+        return (int) Math.min(users, Math.floor(users / Math.pow(rank, skew)));
+    }
+}
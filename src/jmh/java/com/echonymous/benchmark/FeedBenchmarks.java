@@ -0,0 +1,72 @@
+package com.echonymous.benchmark;
+
+import com.echonymous.dto.CommentDTO;
+import com.echonymous.dto.FeedResponseDTO;
+import com.echonymous.dto.TextPostDTO;
+import com.echonymous.dto.ToggleLikeResultDTO;
+import com.echonymous.service.CommentService;
+import com.echonymous.service.PostService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Service-layer hot paths against the seeded dataset in BenchmarkContext
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeedBenchmarks {
+
+    @Param({"20"})
+    public int pageSize;
+
+    private PostService postService;
+    private CommentService commentService;
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        postService = context.bean(PostService.class);
+        commentService = context.bean(CommentService.class);
+
+        // Cursor pointing a few pages into the feed, so cursor queries are measured too
+        String cursor = null;
+        for (int i = 0; i < 5; i++) {
+            cursor = postService.getTextFeed(cursor, pageSize, context.userId, "All").getNextCursor();
+        }
+        deepCursor = cursor;
+    }
+
+    @Benchmark
+    public FeedResponseDTO<TextPostDTO> getTextFeedFirstPage(BenchmarkContext context) {
+        return postService.getTextFeed(null, pageSize, context.userId, "All");
+    }
+
+    @Benchmark
+    public FeedResponseDTO<TextPostDTO> getTextFeedWithCursor(BenchmarkContext context) {
+        return postService.getTextFeed(deepCursor, pageSize, context.userId, "All");
+    }
+
+    @Benchmark
+    public FeedResponseDTO<TextPostDTO> getTextFeedByCategory(BenchmarkContext context) {
+        return postService.getTextFeed(null, pageSize, context.userId, "tech");
+    }
+
+    @Benchmark
+    public FeedResponseDTO<TextPostDTO> getEchoedTextPosts(BenchmarkContext context) {
+        return postService.getEchoedTextPosts(context.userId, pageSize, null);
+    }
+
+    // Toggles the most liked post, so it also measures contention on the hottest counter row
+    @Benchmark
+    public ToggleLikeResultDTO toggleLikeOnHotPost(BenchmarkContext context) {
+        return postService.toggleLike(context.hotPostId, context.userId);
+    }
+
+    @Benchmark
+    public FeedResponseDTO<CommentDTO> getCommentsForPost(BenchmarkContext context) {
+        return commentService.getCommentsForPost(context.hotPostId, null, pageSize, context.userId);
+    }
+}
@@ -0,0 +1,108 @@
+package com.echonymous.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires bursts of concurrent text-feed requests at the seeded application and reports the latency
+ * percentiles, to compare the Tomcat thread pool with the virtual-threads profile.
+ *
+ * Options: --concurrency=5000 (requests in flight per round), --rounds=5 (measured rounds, after one warmup
+ * round), --posts=10000 (dataset size) and --virtual-threads (adds the virtual-threads profile, Java 21+).
+ * The client runs in the same JVM, so compare the two modes on the same machine rather than reading the
+ * absolute numbers.
+ */
+public class FeedLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = intOption(args, "--concurrency=", 5_000);
+        int rounds = intOption(args, "--rounds=", 5);
+        boolean virtualThreads = Arrays.asList(args).contains("--virtual-threads");
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            System.err.println("Virtual threads need Java 21+; spring.threads.virtual.enabled is ignored on "
+                    + Runtime.version());
+        }
+
+        // Same pool in both modes, so the comparison isolates the request threading
+        System.setProperty("spring.datasource.hikari.maximum-pool-size", "20");
+        System.setProperty("spring.datasource.hikari.minimum-idle", "20");
+
+        BenchmarkContext benchmark = new BenchmarkContext();
+        benchmark.posts = intOption(args, "--posts=", 10_000);
+        benchmark.skew = 1.0;
+        benchmark.comments = 0;
+        if (virtualThreads) {
+            benchmark.start("test", "virtual-threads");
+        } else {
+            benchmark.start("test");
+        }
+
+        try {
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + benchmark.port() + "/api/posts/text-feed?limit=10"))
+                    .header("Authorization", "Bearer " + benchmark.validToken)
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+
+            runRound(client, request, concurrency, new AtomicInteger());
+
+            AtomicInteger errors = new AtomicInteger();
+            List<Long> latencies = new ArrayList<>(concurrency * rounds);
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                latencies.addAll(runRound(client, request, concurrency, errors));
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("mode=%s java=%s concurrency=%d requests=%d errors=%d throughput=%.0f req/s%n",
+                    virtualThreads ? "virtual-threads" : "platform-threads", Runtime.version(), concurrency,
+                    sorted.length, errors.get(), sorted.length / seconds);
+            System.out.printf("p50=%.1f ms p90=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                    sorted[sorted.length - 1] / 1e6);
+        } finally {
+            benchmark.tearDown();
+        }
+    }
+
+    // Sends concurrency requests at once and returns their latencies in nanoseconds
+    private static List<Long> runRound(HttpClient client, HttpRequest request, int concurrency, AtomicInteger errors) {
+        List<CompletableFuture<Long>> inFlight = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            long sentAt = System.nanoTime();
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        return System.nanoTime() - sentAt;
+                    }));
+        }
+        return inFlight.stream().map(CompletableFuture::join).toList();
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static int intOption(String[] args, String prefix, int defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return Integer.parseInt(arg.substring(prefix.length()));
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,49 @@
+package com.echonymous.benchmark;
+
+import com.echonymous.dto.ImportPostDTO;
+import com.echonymous.service.PostImportService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// A 100k-row bulk import: 10 requests of 1,000 posts with 9 comments each. Compare JDBC batching on and off
+// (one insert per round trip, as with IDENTITY ids) with -p jdbcBatchSize=0,50; -p tcp=true adds the network
+// round trips that batching saves
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImportBenchmarks {
+    private static final int REQUESTS = 10;
+    private static final int POSTS_PER_REQUEST = 1_000;
+    private static final int COMMENTS_PER_POST = 9;
+
+    private PostImportService postImportService;
+    private List<ImportPostDTO> request;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        postImportService = context.bean(PostImportService.class);
+        List<String> comments = new ArrayList<>();
+        for (int i = 0; i < COMMENTS_PER_POST; i++) {
+            comments.add("Imported comment " + i);
+        }
+        request = new ArrayList<>();
+        for (int i = 0; i < POSTS_PER_REQUEST; i++) {
+            request.add(new ImportPostDTO("Imported", "Imported post " + i, comments));
+        }
+    }
+
+    @Benchmark
+    public int import100kRows(BenchmarkContext context) {
+        int rows = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            rows += POSTS_PER_REQUEST + postImportService.importPosts(request, context.userId).getCommentCount();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,45 @@
+package com.echonymous.benchmark;
+
+import com.echonymous.util.DateTimeUtils;
+import com.echonymous.util.JwtUtils;
+import com.echonymous.util.KeysetCursor;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Per-request parsing work: token validation and cursor decoding
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestParsingBenchmarks {
+
+    private JwtUtils jwtUtils;
+    private String token;
+    private final String legacyCursor = LocalDateTime.of(2025, 3, 1, 12, 30, 15).toString();
+    private final String keysetCursor = KeysetCursor.encode(LocalDateTime.of(2025, 3, 1, 12, 30, 15), 123456L);
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        jwtUtils = context.bean(JwtUtils.class);
+        token = context.validToken;
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateToken(token);
+    }
+
+    @Benchmark
+    public LocalDateTime parseCursor() {
+        return DateTimeUtils.parseCursor(legacyCursor);
+    }
+
+    @Benchmark
+    public KeysetCursor decodeKeysetCursor() {
+        return KeysetCursor.decode(keysetCursor);
+    }
+}
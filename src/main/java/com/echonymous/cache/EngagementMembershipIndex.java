@@ -0,0 +1,290 @@
+package com.echonymous.cache;
+
+import com.echonymous.dto.PostReactorDTO;
+import com.echonymous.event.PostDeletedEvent;
+import com.echonymous.event.PostReactionChangedEvent;
+import com.echonymous.repository.PostEchoRepository;
+import com.echonymous.repository.PostLikeRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the ids of the users who liked and echoed a post in two compressed bitmaps per post, so a page of
+ * posts gets its "did I like/echo it" flags and exact like/echo counts without touching the database.
+ *
+ * Posts are loaded lazily: a page lookup returns what is indexed, and the posts it missed are loaded in the
+ * background from the primary. Committed like/echo changes are applied from PostReactionChangedEvent; an
+ * event older than the last one applied to the same row is ignored, since events of concurrent toggles can
+ * arrive out of order. The bitmaps are bounded by max-bytes and evicted least recently used first.
+ *
+ * The index holds persisted state only; callers overlay the write-behind buffer, and inside a read-write
+ * transaction (whose own changes are not committed yet) it is bypassed.
+ */
+@Component
+@Slf4j
+public class EngagementMembershipIndex {
+
+    /**
+     * The engagement of one post as seen by one viewer.
+     */
+    public record Membership(int likeCount, int echoCount, boolean liked, boolean echoed) {
+    }
+
+    private record Row(Long postId, Long userId, PostReactionChangedEvent.Reaction reaction) {
+    }
+
+    // Roaring bitmaps are not thread-safe, so readers and writers of one post synchronize on its Members
+    private static final class Members {
+        private final Roaring64Bitmap likers;
+        private final Roaring64Bitmap echoers;
+
+        private Members(Roaring64Bitmap likers, Roaring64Bitmap echoers) {
+            this.likers = likers;
+            this.echoers = echoers;
+        }
+
+        synchronized Membership of(Long userId) {
+            return new Membership(likers.getIntCardinality(), echoers.getIntCardinality(),
+                    userId != null && likers.contains(userId), userId != null && echoers.contains(userId));
+        }
+
+        synchronized void set(PostReactionChangedEvent.Reaction reaction, long userId, boolean active) {
+            Roaring64Bitmap bitmap = reaction == PostReactionChangedEvent.Reaction.LIKE ? likers : echoers;
+            if (active) {
+                bitmap.addLong(userId);
+            } else {
+                bitmap.removeLong(userId);
+            }
+        }
+
+        // Approximate heap footprint, including the cache entry itself
+        synchronized int weight() {
+            return (int) Math.min(Integer.MAX_VALUE, 64 + likers.getLongSizeInBytes() + echoers.getLongSizeInBytes());
+        }
+    }
+
+    private final PostLikeRepository postLikeRepository;
+    private final PostEchoRepository postEchoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int loadBatchSize;
+    private final Cache<Long, Members> members;
+    // Posts changed since a given point in the change sequence; a load that started earlier is discarded for them
+    private final Cache<Long, Long> recentChanges;
+    private final AtomicLong changeSequence = new AtomicLong();
+    // Version of the last event applied per row; out-of-order events arrive within milliseconds of each other
+    private final Cache<Row, Long> appliedVersions;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor loader;
+    private final Timer loadTimer;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter dropped;
+
+    public EngagementMembershipIndex(PostLikeRepository postLikeRepository,
+                                     PostEchoRepository postEchoRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${echonymous.engagement.membership.enabled:true}") boolean enabled,
+                                     @Value("${echonymous.engagement.membership.max-bytes:67108864}") long maxBytes,
+                                     @Value("${echonymous.engagement.membership.load-batch-size:100}") int loadBatchSize,
+                                     @Value("${echonymous.engagement.membership.load-queue-capacity:64}") int loadQueueCapacity) {
+        this.postLikeRepository = postLikeRepository;
+        this.postEchoRepository = postEchoRepository;
+        // Read-write so that replica routing sends loads to the primary: a lagging replica could miss a change
+        // whose event has already been applied, and the index would keep the stale state until eviction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.members = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long postId, Members value) -> value.weight())
+                .build();
+        // Generous compared to how long a load takes
+        this.recentChanges = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .build();
+        this.appliedVersions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .build();
+        this.loadBatchSize = loadBatchSize;
+        this.loader = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(loadQueueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "engagement-membership-load");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.loader.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("echonymous.engagement.membership.posts", members, Cache::estimatedSize)
+                .description("Posts whose likers and echoers are held in memory")
+                .register(meterRegistry);
+        Gauge.builder("echonymous.engagement.membership.bytes", members,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("Approximate memory held by the liker and echoer bitmaps")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder("echonymous.engagement.membership.load")
+                .description("Time taken to load the likers and echoers of a batch of posts")
+                .register(meterRegistry);
+        this.hits = lookups(meterRegistry, "hit");
+        this.misses = lookups(meterRegistry, "miss");
+        this.dropped = lookups(meterRegistry, "dropped");
+    }
+
+    /**
+     * Returns the engagement of every given post that is indexed, keyed by post id, and queues the others for
+     * loading. Returns nothing when the index is disabled or the caller is inside a read-write transaction.
+     */
+    public Map<Long, Membership> lookup(Collection<Long> postIds, Long userId) {
+        if (!usable()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Membership> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long postId : postIds) {
+            Members postMembers = members.getIfPresent(postId);
+            if (postMembers != null) {
+                found.put(postId, postMembers.of(userId));
+            } else {
+                missing.add(postId);
+            }
+        }
+        hits.increment(found.size());
+        misses.increment(missing.size());
+        if (!missing.isEmpty()) {
+            loadLater(missing);
+        }
+        return found;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostReactionChanged(PostReactionChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        recentChanges.put(event.getPostId(), changeSequence.incrementAndGet());
+        // Versions are checked and recorded under the post's entry; compute also re-weighs it
+        members.asMap().computeIfPresent(event.getPostId(), (postId, postMembers) -> {
+            Row row = new Row(postId, event.getUserId(), event.getReaction());
+            Long applied = appliedVersions.getIfPresent(row);
+            if (applied == null || applied < event.getVersion()) {
+                appliedVersions.put(row, event.getVersion());
+                postMembers.set(event.getReaction(), event.getUserId(), event.isActive());
+            }
+            return postMembers;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostDeleted(PostDeletedEvent event) {
+        recentChanges.put(event.getPostId(), changeSequence.incrementAndGet());
+        members.invalidate(event.getPostId());
+    }
+
+    /**
+     * Loads the likers and echoers of the given posts now, on the caller's thread.
+     */
+    public void load(Collection<Long> postIds) {
+        if (!enabled || postIds.isEmpty()) {
+            return;
+        }
+        long startedAt = changeSequence.get();
+        Map<Long, Roaring64Bitmap> likers = new HashMap<>();
+        Map<Long, Roaring64Bitmap> echoers = new HashMap<>();
+        loadTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+            collect(postLikeRepository.streamReactorsByPostIds(postIds), likers);
+            collect(postEchoRepository.streamReactorsByPostIds(postIds), echoers);
+        }));
+        for (Long postId : postIds) {
+            Long changedAt = recentChanges.getIfPresent(postId);
+            if (changedAt != null && changedAt > startedAt) {
+                // Changed while loading; the next lookup queues it again
+                continue;
+            }
+            Roaring64Bitmap postLikers = likers.getOrDefault(postId, new Roaring64Bitmap());
+            Roaring64Bitmap postEchoers = echoers.getOrDefault(postId, new Roaring64Bitmap());
+            postLikers.runOptimize();
+            postEchoers.runOptimize();
+            members.asMap().putIfAbsent(postId, new Members(postLikers, postEchoers));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    // Package-private for tests
+    boolean isIndexed(Long postId) {
+        return members.getIfPresent(postId) != null;
+    }
+
+    private boolean usable() {
+        return enabled && !(TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    private void loadLater(List<Long> postIds) {
+        List<Long> batch = new ArrayList<>();
+        for (Long postId : postIds) {
+            if (queued.add(postId)) {
+                batch.add(postId);
+            }
+        }
+        for (int from = 0; from < batch.size(); from += loadBatchSize) {
+            List<Long> chunk = batch.subList(from, Math.min(from + loadBatchSize, batch.size()));
+            try {
+                loader.execute(() -> {
+                    try {
+                        load(chunk);
+                    } catch (RuntimeException e) {
+                        log.warn("Could not load the likers and echoers of {} posts: {}", chunk.size(), e.getMessage());
+                    } finally {
+                        chunk.forEach(queued::remove);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Loader is behind; these posts are queued again on a later lookup
+                chunk.forEach(queued::remove);
+                dropped.increment(chunk.size());
+            }
+        }
+    }
+
+    private static void collect(Stream<PostReactorDTO> reactors, Map<Long, Roaring64Bitmap> bitmaps) {
+        try (reactors) {
+            reactors.forEach(reactor -> bitmaps.computeIfAbsent(reactor.getPostId(), postId -> new Roaring64Bitmap())
+                    .addLong(reactor.getUserId()));
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("echonymous.engagement.membership.lookups")
+                .description("Posts looked up in the membership index by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
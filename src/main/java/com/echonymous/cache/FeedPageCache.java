@@ -0,0 +1,115 @@
+package com.echonymous.cache;
+
+import com.echonymous.dto.FeedResponseDTO;
+import com.echonymous.dto.TextPostSummaryDTO;
+import com.echonymous.event.PostCreatedEvent;
+import com.echonymous.event.PostDeletedEvent;
+import com.echonymous.event.PostEngagementChangedEvent;
+import com.echonymous.event.PostUpdatedEvent;
+import com.echonymous.util.CategoryUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Shared layer of the text feed: caches the viewer-independent part of a feed page (post bodies and counts)
+ * per (category, cursor, limit). Personal flags are overlaid per request by the caller.
+ *
+ * Entries are bounded by size and TTL and are invalidated by the post events published from PostService,
+ * CommentService and the engagement write buffer once their changes commit. Hit, miss and eviction counts are
+ * exported as cache.* metrics with cache=feedPages.
+ */
+@Component
+@Slf4j
+public class FeedPageCache {
+    private record Key(String category, String cursor, int limit) {
+    }
+
+    private final Cache<Key, FeedResponseDTO<TextPostSummaryDTO>> cache;
+    private final boolean enabled;
+
+    public FeedPageCache(MeterRegistry meterRegistry,
+                         @Value("${echonymous.feed-cache.enabled:true}") boolean enabled,
+                         @Value("${echonymous.feed-cache.max-size:1000}") long maxSize,
+                         @Value("${echonymous.feed-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "feedPages");
+    }
+
+    /**
+     * Returns the cached page, loading it with the given loader on a miss.
+     */
+    public FeedResponseDTO<TextPostSummaryDTO> get(String category, String cursor, int limit,
+                                                   Supplier<FeedResponseDTO<TextPostSummaryDTO>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(normalize(category), cursor == null || cursor.isEmpty() ? null : cursor, limit);
+        return cache.get(key, ignored -> {
+            FeedResponseDTO<TextPostSummaryDTO> page = loader.get();
+            return new FeedResponseDTO<>(List.copyOf(page.getContent()), page.getNextCursor(), page.isHasNext());
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        // A new post is newer than every cursor, so only first pages of its category and "All" change
+        String category = normalize(event.getCategory());
+        invalidateIf(key -> key.cursor() == null && (key.category().equals(CategoryUtils.ALL) || key.category().equals(category)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostUpdated(PostUpdatedEvent event) {
+        String oldCategory = normalize(event.getOldCategory());
+        String newCategory = normalize(event.getNewCategory());
+        if (oldCategory.equals(newCategory)) {
+            invalidatePagesContaining(event.getPostId());
+        } else {
+            // The post may now belong anywhere in the new category's pages
+            invalidateIf(key -> key.category().equals(newCategory));
+            invalidatePagesContaining(event.getPostId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostDeleted(PostDeletedEvent event) {
+        invalidatePagesContaining(event.getPostId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostEngagementChanged(PostEngagementChangedEvent event) {
+        invalidatePagesContaining(event.getPostId());
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private void invalidatePagesContaining(Long postId) {
+        cache.asMap().entrySet().removeIf(entry -> entry.getValue().getContent().stream()
+                .anyMatch(post -> post.getPostId().equals(postId)));
+    }
+
+    private void invalidateIf(Predicate<Key> predicate) {
+        cache.asMap().keySet().removeIf(predicate);
+    }
+
+    private static String normalize(String category) {
+        return category == null ? CategoryUtils.ALL : CategoryUtils.normalize(category);
+    }
+}
@@ -0,0 +1,303 @@
+package com.echonymous.cache;
+
+import com.echonymous.dto.TimelineEntryDTO;
+import com.echonymous.event.PostCreatedEvent;
+import com.echonymous.event.PostDeletedEvent;
+import com.echonymous.event.PostUpdatedEvent;
+import com.echonymous.repository.TextPostRepository;
+import com.echonymous.util.CategoryUtils;
+import com.echonymous.util.KeysetCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of the newest text post ids: one bounded timeline of the most recent window-size posts per
+ * normalized category, plus one for "All". Feed pages that fall inside a window are answered from memory and
+ * only their rows are read by primary key; deeper pages, and every page until the index has been built, go
+ * to the repository.
+ *
+ * The timelines are rebuilt from the database once the application is ready and kept current from the post
+ * events, before FeedPageCache drops the pages those events affect.
+ */
+@Component
+@Slf4j
+public class FeedTimelineIndex {
+    private final TextPostRepository textPostRepository;
+    private final boolean enabled;
+    private final int windowSize;
+    private final int maxCategories;
+    private final Timeline all;
+    private final Map<String, Timeline> categories = new ConcurrentHashMap<>();
+    private final Counter memoryReads;
+    private final Counter repositoryReads;
+    private volatile boolean ready;
+
+    public FeedTimelineIndex(TextPostRepository textPostRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${echonymous.feed-timeline.enabled:true}") boolean enabled,
+                             @Value("${echonymous.feed-timeline.window-size:1000}") int windowSize,
+                             @Value("${echonymous.feed-timeline.max-categories:500}") int maxCategories) {
+        this.textPostRepository = textPostRepository;
+        this.enabled = enabled;
+        this.windowSize = windowSize;
+        this.maxCategories = maxCategories;
+        this.all = new Timeline(windowSize);
+        this.memoryReads = Counter.builder("echonymous.feed-timeline.reads")
+                .description("Feed pages answered by the in-memory timelines")
+                .tag("source", "memory")
+                .register(meterRegistry);
+        this.repositoryReads = Counter.builder("echonymous.feed-timeline.reads")
+                .description("Feed pages that fell back to the repository")
+                .tag("source", "repository")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the ids of up to count posts following the cursor in the given feed, newest first, or null if
+     * the page is not fully covered by the index and has to be read from the repository.
+     *
+     * @param categoryKey normalized category, or CategoryUtils.ALL
+     * @param after       cursor of the previous page, or null for the first page
+     */
+    public List<Long> page(String categoryKey, KeysetCursor after, int count) {
+        Timeline timeline = ready ? timelineFor(categoryKey) : null;
+        List<Long> postIds = timeline == null ? null : timeline.page(after, count);
+        (postIds == null ? repositoryReads : memoryReads).increment();
+        return postIds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Each timeline is reloaded under its write lock, so an event that commits meanwhile is either in
+            // the query result or applied afterwards
+            all.reload(() -> textPostRepository.findLatestTimelineEntries(PageRequest.of(0, windowSize)));
+            for (String categoryKey : textPostRepository.findDistinctCategoryKeys()) {
+                Timeline timeline = timelineOrCreate(categoryKey);
+                if (timeline != null) {
+                    timeline.reload(() -> textPostRepository.findTimelineEntriesByCategoryKey(categoryKey,
+                            PageRequest.of(0, windowSize)));
+                }
+            }
+            ready = true;
+            log.info("Built feed timelines for {} categories", categories.size());
+        } catch (RuntimeException e) {
+            log.error("Could not build the feed timelines; feeds are read from the database", e);
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        all.add(event.getCreatedAt(), event.getPostId());
+        Timeline timeline = timelineOrCreate(CategoryUtils.normalize(event.getCategory()));
+        if (timeline != null) {
+            timeline.add(event.getCreatedAt(), event.getPostId());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostUpdated(PostUpdatedEvent event) {
+        String oldKey = CategoryUtils.normalize(event.getOldCategory());
+        String newKey = CategoryUtils.normalize(event.getNewCategory());
+        if (!enabled || Objects.equals(oldKey, newKey)) {
+            return;
+        }
+        Timeline oldTimeline = categoryTimeline(oldKey);
+        if (oldTimeline != null) {
+            oldTimeline.remove(event.getPostId());
+        }
+        Timeline newTimeline = timelineOrCreate(newKey);
+        if (newTimeline != null) {
+            newTimeline.add(event.getCreatedAt(), event.getPostId());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostDeleted(PostDeletedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        all.remove(event.getPostId());
+        Timeline timeline = categoryTimeline(CategoryUtils.normalize(event.getCategory()));
+        if (timeline != null) {
+            timeline.remove(event.getPostId());
+        }
+    }
+
+    private Timeline timelineFor(String categoryKey) {
+        return CategoryUtils.ALL.equals(categoryKey) ? all : categoryTimeline(categoryKey);
+    }
+
+    private Timeline categoryTimeline(String categoryKey) {
+        return categoryKey == null ? null : categories.get(categoryKey);
+    }
+
+    // Category timelines are only kept for the first max-categories keys; the rest are read from the database
+    private Timeline timelineOrCreate(String categoryKey) {
+        if (categoryKey == null || CategoryUtils.ALL.equals(categoryKey)) {
+            // "All" is maintained for every post; a category literally named "all" is served by it
+            return null;
+        }
+        Timeline timeline = categories.get(categoryKey);
+        if (timeline == null && categories.size() < maxCategories) {
+            timeline = categories.computeIfAbsent(categoryKey, key -> new Timeline(windowSize));
+        }
+        return timeline;
+    }
+
+    /**
+     * Ring buffer of the newest posts of one feed in feed order (createdAt DESC, postId DESC). New posts are
+     * prepended in O(1); an insert that overflows the ring drops the oldest entry. complete is true while the
+     * ring holds every post of the feed, so a short page at its end is final rather than a cache miss.
+     */
+    static final class Timeline {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final LocalDateTime[] createdAts;
+        private final long[] postIds;
+        private int head;
+        private int size;
+        private boolean complete = true;
+
+        Timeline(int capacity) {
+            this.createdAts = new LocalDateTime[capacity];
+            this.postIds = new long[capacity];
+        }
+
+        List<Long> page(KeysetCursor after, int count) {
+            lock.readLock().lock();
+            try {
+                int start = after == null ? 0 : positionOf(after.getTimestamp(), after.getId());
+                if (size - start < count && !complete) {
+                    return null;
+                }
+                int end = Math.min(size, start + count);
+                List<Long> page = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    page.add(postIds[slot(i)]);
+                }
+                return page;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void add(LocalDateTime createdAt, Long postId) {
+            lock.writeLock().lock();
+            try {
+                int position = positionOf(createdAt, postId);
+                if (position > 0 && createdAt.equals(createdAts[slot(position - 1)]) && postIds[slot(position - 1)] == postId) {
+                    return; // already indexed
+                }
+                int capacity = postIds.length;
+                if (size == capacity) {
+                    complete = false;
+                    if (position == size) {
+                        return; // older than the whole window
+                    }
+                    size--; // drop the oldest entry
+                }
+                if (position == 0) {
+                    head = Math.floorMod(head - 1, capacity);
+                } else {
+                    for (int i = size; i > position; i--) {
+                        move(i - 1, i);
+                    }
+                }
+                createdAts[slot(position)] = createdAt;
+                postIds[slot(position)] = postId;
+                size++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long postId) {
+            lock.writeLock().lock();
+            try {
+                for (int i = 0; i < size; i++) {
+                    if (postIds[slot(i)] == postId) {
+                        for (int j = i; j < size - 1; j++) {
+                            move(j + 1, j);
+                        }
+                        size--;
+                        createdAts[slot(size)] = null;
+                        return;
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void reload(Supplier<List<TimelineEntryDTO>> loader) {
+            lock.writeLock().lock();
+            try {
+                List<TimelineEntryDTO> entries = loader.get();
+                Arrays.fill(createdAts, null);
+                head = 0;
+                size = Math.min(entries.size(), postIds.length);
+                for (int i = 0; i < size; i++) {
+                    createdAts[i] = entries.get(i).getCreatedAt();
+                    postIds[i] = entries.get(i).getPostId();
+                }
+                complete = entries.size() < postIds.length;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Index of the first entry that sorts after (createdAt, postId) in feed order, found by binary search
+        private int positionOf(LocalDateTime createdAt, long postId) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int slot = slot(mid);
+                int compare = createdAts[slot].compareTo(createdAt);
+                if (compare > 0 || (compare == 0 && postIds[slot] >= postId)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void move(int from, int to) {
+            createdAts[slot(to)] = createdAts[slot(from)];
+            postIds[slot(to)] = postIds[slot(from)];
+        }
+
+        private int slot(int index) {
+            return (head + index) % postIds.length;
+        }
+    }
+}
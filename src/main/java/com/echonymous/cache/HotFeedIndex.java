@@ -0,0 +1,339 @@
+package com.echonymous.cache;
+
+import com.echonymous.dto.ScoredPostDTO;
+import com.echonymous.dto.TextPostSummaryDTO;
+import com.echonymous.event.PostCreatedEvent;
+import com.echonymous.event.PostDeletedEvent;
+import com.echonymous.event.PostEngagementChangedEvent;
+import com.echonymous.event.PostUpdatedEvent;
+import com.echonymous.repository.TextPostRepository;
+import com.echonymous.util.CategoryUtils;
+import com.echonymous.util.HotScore;
+import com.echonymous.util.ScoreCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Maintains the hot scores of text posts (see HotScore) and keeps the top capacity posts by score in memory,
+ * per normalized category plus one ranking for "All". Hot feed pages inside a ranking are answered from memory;
+ * deeper pages, and every page until the rankings are built, are read from post.hot_score through its index.
+ *
+ * Engagement events only mark a post dirty. Every refresh-interval-ms the dirty posts' counters are read by
+ * primary key in one query and their scores recomputed; the new scores are written back to post.hot_score
+ * every checkpoint-interval-ms and on shutdown. Scores are maintained even when the in-memory rankings are
+ * disabled, since the repository fallback reads them too.
+ */
+@Component
+@Slf4j
+public class HotFeedIndex {
+    private static final int REFRESH_CHUNK_SIZE = 500;
+
+    private final TextPostRepository textPostRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int capacity;
+    private final int maxCategories;
+    private final String postTable;
+    private final Ranking all;
+    private final Map<String, Ranking> categories = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Double> unsaved = new ConcurrentHashMap<>();
+    private final Counter memoryReads;
+    private final Counter repositoryReads;
+    private volatile boolean ready;
+
+    public HotFeedIndex(TextPostRepository textPostRepository,
+                        JdbcTemplate jdbcTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${echonymous.hot-feed.enabled:true}") boolean enabled,
+                        @Value("${echonymous.hot-feed.capacity:1000}") int capacity,
+                        @Value("${echonymous.hot-feed.max-categories:500}") int maxCategories,
+                        @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.textPostRepository = textPostRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.maxCategories = maxCategories;
+        this.postTable = (schema.isBlank() ? "" : schema + ".") + "post";
+        this.all = new Ranking(capacity);
+        this.memoryReads = Counter.builder("echonymous.hot-feed.reads")
+                .description("Hot feed pages answered by the in-memory rankings")
+                .tag("source", "memory")
+                .register(meterRegistry);
+        this.repositoryReads = Counter.builder("echonymous.hot-feed.reads")
+                .description("Hot feed pages that fell back to the repository")
+                .tag("source", "repository")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns up to count posts following the cursor in the given hot feed, highest score first, or null if
+     * the page is not fully covered by the rankings and has to be read from the repository.
+     *
+     * @param categoryKey normalized category, or CategoryUtils.ALL
+     * @param after       cursor of the previous page, or null for the first page
+     */
+    public List<ScoredPostDTO> page(String categoryKey, ScoreCursor after, int count) {
+        Ranking ranking = ready ? rankingFor(categoryKey) : null;
+        List<ScoredPostDTO> page = ranking == null ? null : ranking.page(after, count);
+        (page == null ? repositoryReads : memoryReads).increment();
+        return page;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            all.reload(() -> textPostRepository.findHotEntries(PageRequest.of(0, capacity)));
+            for (String categoryKey : textPostRepository.findDistinctCategoryKeys()) {
+                Ranking ranking = rankingOrCreate(categoryKey);
+                if (ranking != null) {
+                    ranking.reload(() -> textPostRepository.findHotEntriesByCategoryKey(categoryKey,
+                            PageRequest.of(0, capacity)));
+                }
+            }
+            ready = true;
+            log.info("Built hot feed rankings for {} categories", categories.size());
+        } catch (RuntimeException e) {
+            log.error("Could not build the hot feed rankings; hot feeds are read from the database", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // Same score the post was inserted with
+        double score = HotScore.of(0, 0, 0, event.getCreatedAt());
+        all.update(event.getPostId(), score);
+        Ranking ranking = rankingOrCreate(CategoryUtils.normalize(event.getCategory()));
+        if (ranking != null) {
+            ranking.update(event.getPostId(), score);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostEngagementChanged(PostEngagementChangedEvent event) {
+        dirty.add(event.getPostId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostUpdated(PostUpdatedEvent event) {
+        String oldKey = CategoryUtils.normalize(event.getOldCategory());
+        if (!enabled || Objects.equals(oldKey, CategoryUtils.normalize(event.getNewCategory()))) {
+            return;
+        }
+        Ranking oldRanking = categoryRanking(oldKey);
+        if (oldRanking != null) {
+            oldRanking.remove(event.getPostId());
+        }
+        // The next refresh places the post in its new category's ranking
+        dirty.add(event.getPostId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostDeleted(PostDeletedEvent event) {
+        dirty.remove(event.getPostId());
+        unsaved.remove(event.getPostId());
+        all.remove(event.getPostId());
+        Ranking ranking = categoryRanking(CategoryUtils.normalize(event.getCategory()));
+        if (ranking != null) {
+            ranking.remove(event.getPostId());
+        }
+    }
+
+    /**
+     * Recomputes the scores of the posts whose engagement changed since the last refresh.
+     */
+    @Scheduled(fixedDelayString = "${echonymous.hot-feed.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> postIds = new ArrayList<>(dirty);
+        dirty.removeAll(postIds);
+        for (int from = 0; from < postIds.size(); from += REFRESH_CHUNK_SIZE) {
+            List<Long> chunk = postIds.subList(from, Math.min(postIds.size(), from + REFRESH_CHUNK_SIZE));
+            try {
+                // Posts deleted meanwhile are not returned and simply dropped
+                for (TextPostSummaryDTO post : textPostRepository.findSummariesByIds(chunk)) {
+                    double score = HotScore.of(post.getLikeCount(), post.getCommentCount(), post.getEchoCount(),
+                            post.getCreatedAt());
+                    unsaved.put(post.getPostId(), score);
+                    if (enabled) {
+                        all.update(post.getPostId(), score);
+                        Ranking ranking = rankingOrCreate(CategoryUtils.normalize(post.getCategory()));
+                        if (ranking != null) {
+                            ranking.update(post.getPostId(), score);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                dirty.addAll(chunk);
+                log.warn("Could not refresh {} hot scores, retrying on the next run: {}", chunk.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes the scores computed since the last checkpoint to post.hot_score in one batch.
+     */
+    @Scheduled(initialDelayString = "${echonymous.hot-feed.checkpoint-interval-ms:60000}",
+            fixedDelayString = "${echonymous.hot-feed.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        if (unsaved.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Double>> scores = new ArrayList<>(Map.copyOf(unsaved).entrySet());
+        jdbcTemplate.batchUpdate("UPDATE " + postTable + " SET hot_score = ? WHERE post_id = ?", scores, scores.size(),
+                (ps, entry) -> {
+                    ps.setDouble(1, entry.getValue());
+                    ps.setLong(2, entry.getKey());
+                });
+        // A score recomputed while the batch ran stays unsaved for the next checkpoint
+        scores.forEach(entry -> unsaved.remove(entry.getKey(), entry.getValue()));
+        log.debug("Checkpointed {} hot scores", scores.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            refresh();
+            checkpoint();
+        } catch (RuntimeException e) {
+            log.warn("Could not checkpoint hot scores before shutdown; they are recomputed on the next engagement", e);
+        }
+    }
+
+    private Ranking rankingFor(String categoryKey) {
+        return CategoryUtils.ALL.equals(categoryKey) ? all : categoryRanking(categoryKey);
+    }
+
+    private Ranking categoryRanking(String categoryKey) {
+        return categoryKey == null ? null : categories.get(categoryKey);
+    }
+
+    // Category rankings are only kept for the first max-categories keys; the rest are read from the database
+    private Ranking rankingOrCreate(String categoryKey) {
+        if (categoryKey == null || CategoryUtils.ALL.equals(categoryKey)) {
+            return null;
+        }
+        Ranking ranking = categories.get(categoryKey);
+        if (ranking == null && categories.size() < maxCategories) {
+            ranking = categories.computeIfAbsent(categoryKey, key -> new Ranking(capacity));
+        }
+        return ranking;
+    }
+
+    /**
+     * Bounded top-K of one hot feed in feed order (score DESC, postId DESC). While complete is false, every post
+     * of the feed that is not ranked scores below every ranked post: a post is only (re-)admitted when it beats
+     * the lowest ranked post, and the lowest post is evicted on overflow. Since scores do not decay with time,
+     * this stays exact without rescoring, and a short page at the end is final only while complete is true.
+     */
+    static final class Ranking {
+        private record Entry(double score, long postId) {
+        }
+
+        private static final Comparator<Entry> FEED_ORDER = Comparator.comparingDouble(Entry::score)
+                .thenComparingLong(Entry::postId)
+                .reversed();
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final int capacity;
+        private final TreeSet<Entry> entries = new TreeSet<>(FEED_ORDER);
+        private final Map<Long, Double> scores = new HashMap<>();
+        private boolean complete = true;
+
+        Ranking(int capacity) {
+            this.capacity = capacity;
+        }
+
+        List<ScoredPostDTO> page(ScoreCursor after, int count) {
+            lock.readLock().lock();
+            try {
+                SortedSet<Entry> tail = after == null ? entries
+                        : entries.tailSet(new Entry(after.getScore(), after.getId()), false);
+                List<ScoredPostDTO> page = new ArrayList<>(Math.min(count, tail.size()));
+                for (Entry entry : tail) {
+                    if (page.size() == count) {
+                        break;
+                    }
+                    page.add(new ScoredPostDTO(entry.postId(), entry.score()));
+                }
+                return page.size() < count && !complete ? null : page;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void update(Long postId, double score) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(postId);
+                Entry entry = new Entry(score, postId);
+                if (!complete && (entries.isEmpty() || FEED_ORDER.compare(entry, entries.last()) > 0)) {
+                    return; // ranks below every ranked post, so it may be below unranked ones too
+                }
+                entries.add(entry);
+                scores.put(postId, score);
+                if (entries.size() > capacity) {
+                    scores.remove(entries.pollLast().postId());
+                    complete = false;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long postId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(postId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void reload(Supplier<List<ScoredPostDTO>> loader) {
+            lock.writeLock().lock();
+            try {
+                List<ScoredPostDTO> loaded = loader.get();
+                entries.clear();
+                scores.clear();
+                for (ScoredPostDTO post : loaded.subList(0, Math.min(loaded.size(), capacity))) {
+                    entries.add(new Entry(post.getHotScore(), post.getPostId()));
+                    scores.put(post.getPostId(), post.getHotScore());
+                }
+                complete = loaded.size() < capacity;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeLocked(Long postId) {
+            Double score = scores.remove(postId);
+            if (score != null) {
+                entries.remove(new Entry(score, postId));
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.echonymous.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads: the first caller for a key (the leader) runs the load, and callers that
+ * arrive while it is in flight wait for its result instead of running the same queries again. Nothing is kept
+ * once the load completes, so this only dedupes requests that overlap in time. Results are shared between
+ * callers and must not be modified.
+ *
+ * At most max-in-flight keys are tracked; beyond that callers load on their own. A follower waits at most
+ * timeout-ms and then runs the fallback, which must not wait on the leader's load itself. Callers should not hold
+ * a database connection while they wait, i.e. call this outside a transaction. echonymous.single-flight.calls{name, role} counts leaders, followers,
+ * bypasses and followers that timed out; (followers - timeouts) / all calls is the collapse ratio.
+ */
+@Component
+@Slf4j
+public class SingleFlight {
+    private record Key(String name, Object key) {
+    }
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final long timeoutMs;
+
+    public SingleFlight(MeterRegistry meterRegistry,
+                        @Value("${echonymous.single-flight.enabled:true}") boolean enabled,
+                        @Value("${echonymous.single-flight.max-in-flight:10000}") int maxInFlight,
+                        @Value("${echonymous.single-flight.timeout-ms:2000}") long timeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Returns the result of the load in flight for (name, key), or runs loader as the leader if there is none.
+     * An exception thrown by the leader's load is rethrown to its followers.
+     *
+     * @param name names the kind of load in metrics, e.g. "post" or "feed-page"
+     */
+    public <T> T load(String name, Object key, Supplier<T> loader) {
+        return load(name, key, loader, loader);
+    }
+
+    /**
+     * Like {@link #load(String, Object, Supplier)}, but a follower that times out runs fallback instead of loader,
+     * e.g. when loader would block on the same cache entry the leader is computing.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String name, Object key, Supplier<T> loader, Supplier<T> fallback) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key flightKey = new Key(name, key);
+        CompletableFuture<Object> existing = inFlight.get(flightKey);
+        if (existing == null) {
+            // The bound only stops new keys; joining a load already in flight is always allowed
+            if (inFlight.size() >= maxInFlight) {
+                count(name, "bypass");
+                return loader.get();
+            }
+            CompletableFuture<Object> flight = new CompletableFuture<>();
+            existing = inFlight.putIfAbsent(flightKey, flight);
+            if (existing == null) {
+                count(name, "leader");
+                return (T) lead(flightKey, flight, loader);
+            }
+        }
+
+        count(name, "follower");
+        try {
+            return (T) existing.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            count(name, "timeout");
+            log.warn("Waited more than {} ms for the in-flight {} load of {}; loading it again", timeoutMs, name, key);
+            return fallback.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the in-flight " + name + " load", e);
+        }
+    }
+
+    // Leaves the map before completing, so callers arriving afterwards start a fresh load
+    private Object lead(Key flightKey, CompletableFuture<Object> flight, Supplier<?> loader) {
+        try {
+            Object result = loader.get();
+            inFlight.remove(flightKey, flight);
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(flightKey, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void count(String name, String role) {
+        counters.computeIfAbsent(name + "/" + role, ignored -> Counter.builder("echonymous.single-flight.calls")
+                        .description("Coalesced reads by role; followers share the leader's load")
+                        .tags("name", name, "role", role)
+                        .register(meterRegistry))
+                .increment();
+    }
+}
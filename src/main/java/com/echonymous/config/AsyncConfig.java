@@ -0,0 +1,11 @@
+package com.echonymous.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+// @Async methods run on Spring Boot's applicationTaskExecutor (spring.task.execution.*), on virtual threads
+// with the virtual-threads profile
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
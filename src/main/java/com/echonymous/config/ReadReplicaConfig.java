@@ -0,0 +1,68 @@
+package com.echonymous.config;
+
+import com.echonymous.datasource.ReplicaRoutingDataSource;
+import com.echonymous.util.JwtUtils;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Replaces the auto-configured DataSource with one that sends read-only transactions to the read replicas
+// (see ReplicaRoutingDataSource). The primary is still configured through spring.datasource.*.
+@Configuration
+@ConditionalOnProperty(name = "echonymous.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource, DataSourceProperties properties, JwtUtils jwtUtils,
+            MeterRegistry meterRegistry,
+            @Value("${echonymous.read-replicas.urls}") List<String> urls,
+            @Value("${echonymous.read-replicas.username:}") String username,
+            @Value("${echonymous.read-replicas.password:}") String password,
+            @Value("${echonymous.read-replicas.pool-size:10}") int poolSize,
+            @Value("${echonymous.read-replicas.lag-query:SELECT 0}") String lagQuery,
+            @Value("${echonymous.read-replicas.max-lag-ms:1000}") long maxLagMs,
+            @Value("${echonymous.read-replicas.sticky-window-ms:5000}") long stickyWindowMs) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setJdbcUrl(urls.get(i));
+            // Defaults to the primary's credentials
+            replica.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            replica.setPassword(username.isEmpty() ? properties.determinePassword() : password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, jwtUtils::getCurrentUserId, lagQuery,
+                maxLagMs, Duration.ofMillis(stickyWindowMs), meterRegistry);
+    }
+
+    // Connections are taken at the first statement, once the transaction's read-only flag is known
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -7,4 +7,7 @@ public class Constants {
     private Constants() {}; // can't instantiate this class
 
     public static final String SECRET_KEY_CONST = "secretkey";
+
+    // Rows the JDBC driver fetches per round trip while an export stream is read (a query hint, hence a string)
+    public static final String EXPORT_FETCH_SIZE = "500";
 }
@@ -30,15 +30,14 @@ public class CommentController {
                                                         @RequestParam(required = false) Long parentCommentId,
                                                         @RequestBody Map<String, String> payload,
                                                         HttpServletRequest request) {
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if (token == null || !jwtUtils.validateToken(token)) {
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
             log.error("Invalid or missing JWT token.");
             return ResponseEntity.status(401).body(
                     new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
             );
         }
 
-        Long userId = jwtUtils.getUserIdFromToken(token);
         log.debug("Authenticated user id: {}", userId);
 
         String comment = payload.get("comment");
@@ -54,12 +53,11 @@ public class CommentController {
     public ResponseEntity<ApiResponseDTO> updateComment(@PathVariable Long commentId,
                                                         @RequestBody Map<String, String> payload,
                                                         HttpServletRequest request) {
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if(token == null || !jwtUtils.validateToken(token)){
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
             return ResponseEntity.status(401)
                     .body(new ApiResponseDTO(401, false, "Invalid or missing JWT token."));
         }
-        Long userId = jwtUtils.getUserIdFromToken(token);
         String newComment = payload.get("comment");
         CommentDTO commentDTO = commentService.updateComment(commentId, userId, newComment);
 
@@ -73,13 +71,12 @@ public class CommentController {
     @DeleteMapping("/{commentId}")
     public ResponseEntity<ApiResponseDTO> deleteComment(@PathVariable Long commentId,
                                                         HttpServletRequest request) {
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if(token == null || !jwtUtils.validateToken(token)){
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
             return ResponseEntity.status(401)
                     .body(new ApiResponseDTO(401, false, "Invalid or missing JWT token."));
         }
 
-        Long userId = jwtUtils.getUserIdFromToken(token);
         commentService.deleteComment(commentId, userId);
         ApiResponseDTO response = new ApiResponseDTO(200, true, "Comment deleted successfully.");
         return ResponseEntity.ok(response);
@@ -91,13 +88,12 @@ public class CommentController {
                                                              @RequestParam(required = false) String cursor,
                                                              @RequestParam(defaultValue = "10") int limit,
                                                              HttpServletRequest request) {
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if(token == null || !jwtUtils.validateToken(token)){
+        Long currentUserId = jwtUtils.getCurrentUserId();
+        if (currentUserId == null) {
             return ResponseEntity.status(401)
                     .body(new ApiResponseDTO(401, false, "Invalid or missing JWT token."));
         }
 
-        Long currentUserId = jwtUtils.getUserIdFromToken(token);
         FeedResponseDTO<CommentDTO> comments = commentService.getCommentsForPost(postId, cursor, limit, currentUserId);
         Map<String, Object> responseData = new HashMap<>();
         responseData.put("comments", comments);
@@ -112,12 +108,11 @@ public class CommentController {
                                                                @RequestParam(required = false) String cursor,
                                                                @RequestParam(defaultValue = "10") int limit,
                                                                HttpServletRequest request) {
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if(token == null || !jwtUtils.validateToken(token)){
+        Long currentUserId = jwtUtils.getCurrentUserId();
+        if (currentUserId == null) {
             return ResponseEntity.status(401)
                     .body(new ApiResponseDTO(401, false, "Invalid or missing JWT token."));
         }
-        Long currentUserId = jwtUtils.getUserIdFromToken(token);
         FeedResponseDTO<CommentDTO> replies = commentService.getRepliesForComment(commentId, cursor, limit, currentUserId);
         Map<String, Object> responseData = new HashMap<>();
         responseData.put("replies", replies);
@@ -130,13 +125,12 @@ public class CommentController {
     @PostMapping("/{commentId}/like")
     public ResponseEntity<ApiResponseDTO> toggleCommentLike(@PathVariable Long commentId,
                                                             HttpServletRequest request) {
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if(token == null || !jwtUtils.validateToken(token)){
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
             return ResponseEntity.status(401)
                     .body(new ApiResponseDTO(401, false, "Invalid or missing JWT token."));
         }
 
-        Long userId = jwtUtils.getUserIdFromToken(token);
         CommentDTO commentDTO = commentService.toggleCommentLike(commentId, userId);
         String message = commentDTO.isCommentLiked() ? "Liked comment successfully" : "Disliked comment successfully";
         Map<String, Object> responseData = new HashMap<>();
@@ -1,16 +1,35 @@
 package com.echonymous.controller;
 
 import com.echonymous.dto.*;
+import com.echonymous.entity.AudioPost;
 import com.echonymous.entity.Post;
 import com.echonymous.entity.User;
+import com.echonymous.service.AudioPostService;
+import com.echonymous.service.PostImportService;
 import com.echonymous.service.PostService;
 import com.echonymous.util.JwtUtils;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadException;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -18,11 +37,19 @@ import java.util.Map;
 @RequestMapping("/api/posts")
 public class PostController {
 
+    // Form fields of an audio upload are short; anything longer is rejected instead of being read into memory
+    private static final int MAX_FORM_FIELD_BYTES = 1024;
+
     private final PostService postService;
+    private final AudioPostService audioPostService;
+    private final PostImportService postImportService;
     private final JwtUtils jwtUtils;
 
-    public PostController(PostService postService, JwtUtils jwtUtils) {
+    public PostController(PostService postService, AudioPostService audioPostService,
+                          PostImportService postImportService, JwtUtils jwtUtils) {
         this.postService = postService;
+        this.audioPostService = audioPostService;
+        this.postImportService = postImportService;
         this.jwtUtils = jwtUtils;
     }
 
@@ -30,15 +57,14 @@ public class PostController {
     public ResponseEntity<ApiResponseDTO> uploadTextPost(
             @RequestBody PostRequestDTO postRequestDTO, HttpServletRequest request) {
 
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if (token == null || !jwtUtils.validateToken(token)) {
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
             log.error("Invalid or missing JWT token.");
             return ResponseEntity.status(401).body(
                    new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
             );
         }
 
-        Long userId = jwtUtils.getUserIdFromToken(token);
         log.debug("Authenticated user id: {}", userId);
 
         Post post = postService.createTextPost(postRequestDTO.getCategory(), postRequestDTO.getContent(), userId);
@@ -48,27 +74,145 @@ public class PostController {
         return ResponseEntity.ok(response);
     }
 
-    // Future endpoint for uploading audio posts
+    // Imports the caller's own posts (e.g. moved from another service) in one request and one transaction
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponseDTO> importTextPosts(
+            @RequestBody List<ImportPostDTO> posts, HttpServletRequest request) {
+
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
+            log.error("Invalid or missing JWT token.");
+            return ResponseEntity.status(401).body(
+                    new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
+            );
+        }
+
+        ImportResultDTO result = postImportService.importPosts(posts, userId);
+
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("postIds", result.getPostIds());
+        responseData.put("commentCount", result.getCommentCount());
+
+        ApiResponseDTO response = new ApiResponseDTO(200, true, "Import successful.", responseData);
+        return ResponseEntity.ok(response);
+    }
+
+    // multipart/form-data with the fields "category" and "durationSeconds" followed by the "file" part. The
+    // body is parsed as a stream (spring.servlet.multipart is disabled), so the file goes straight to the blob
+    // store instead of being buffered in memory or a temporary file first.
     @PostMapping("/upload-audio")
-    public ResponseEntity<ApiResponseDTO> uploadAudioPost(
-            @RequestParam String category, @RequestParam String filePath, HttpServletRequest request) {
+    public ResponseEntity<ApiResponseDTO> uploadAudioPost(HttpServletRequest request) throws IOException {
 
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if (token == null || !jwtUtils.validateToken(token)) {
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
             log.error("Invalid or missing JWT token.");
             return ResponseEntity.status(401).body(
                     new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
             );
         }
 
-        Long userId = jwtUtils.getUserIdFromToken(token);
         log.debug("Authenticated user id: {}", userId);
 
-        Post post = postService.createAudioPost(category, filePath, userId);
-        log.info("Audio post successfully created for user: {}", userId);
+        if (!JakartaServletFileUpload.isMultipartContent(request)) {
+            throw new ValidationException("Expected a multipart/form-data request.");
+        }
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>();
+        // The blob store enforces the file limit exactly; this bounds the request as a whole
+        upload.setSizeMax(audioPostService.getMaxSizeBytes() + 64 * 1024);
+
+        String category = null;
+        Integer durationSeconds = null;
+        try {
+            FileItemInputIterator items = upload.getItemIterator(request);
+            while (items.hasNext()) {
+                FileItemInput item = items.next();
+                if (item.isFormField()) {
+                    String value = readFormField(item);
+                    switch (item.getFieldName()) {
+                        case "category" -> category = value;
+                        case "durationSeconds" -> durationSeconds = parseDuration(value);
+                        default -> log.debug("Ignoring form field {}", item.getFieldName());
+                    }
+                } else if ("file".equals(item.getFieldName())) {
+                    AudioPost post;
+                    try (InputStream audio = item.getInputStream()) {
+                        post = audioPostService.createAudioPost(category, durationSeconds, item.getContentType(), audio, userId);
+                    }
+                    log.info("Audio post {} ({} bytes) successfully created for user: {}",
+                            post.getPostId(), post.getSizeBytes(), userId);
+
+                    Map<String, Object> responseData = new HashMap<>();
+                    responseData.put("postId", post.getPostId());
+                    ApiResponseDTO response = new ApiResponseDTO(200, true, "Upload successful.", responseData);
+                    return ResponseEntity.ok(response);
+                }
+            }
+        } catch (FileUploadSizeException e) {
+            throw new ValidationException("Upload exceeds the maximum size of " + audioPostService.getMaxSizeBytes() + " bytes.");
+        } catch (FileUploadException e) {
+            throw new ValidationException("Malformed multipart request.");
+        }
+        throw new ValidationException("Missing audio file part.");
+    }
 
-        ApiResponseDTO response = new ApiResponseDTO(200, true, "Upload successful.");
-        return ResponseEntity.ok(response);
+    // Playback with HTTP Range support (a single range; players seek with "Range: bytes=start-")
+    @GetMapping("/{postId}/audio")
+    public void getAudio(@PathVariable Long postId, @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                         HttpServletResponse response) throws IOException {
+        if (jwtUtils.getCurrentUserId() == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or missing JWT token.");
+            return;
+        }
+        AudioPost post = audioPostService.getAudioPost(postId);
+        long size = post.getSizeBytes();
+
+        long start = 0;
+        long end = size - 1;
+        int status = HttpServletResponse.SC_OK;
+        if (range != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Several ranges would need a multipart/byteranges body; answering with the whole file is allowed
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                    if (start >= size || start > end) {
+                        throw new IllegalArgumentException("Range starts after the end of the file");
+                    }
+                    status = HttpServletResponse.SC_PARTIAL_CONTENT;
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        response.setStatus(status);
+        response.setContentType(post.getContentType());
+        response.setContentLengthLong(end - start + 1);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, "\"" + post.getChecksum() + "\"");
+        audioPostService.transferAudio(post, start, end - start + 1, Channels.newChannel(response.getOutputStream()));
+    }
+
+    private static String readFormField(FileItemInput item) throws IOException {
+        try (InputStream in = item.getInputStream()) {
+            byte[] value = in.readNBytes(MAX_FORM_FIELD_BYTES + 1);
+            if (value.length > MAX_FORM_FIELD_BYTES) {
+                throw new ValidationException("Form field " + item.getFieldName() + " is too long.");
+            }
+            return new String(value, StandardCharsets.UTF_8).trim();
+        }
+    }
+
+    private static Integer parseDuration(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("durationSeconds must be a whole number of seconds.");
+        }
     }
 
     @GetMapping("/text-feed")
@@ -76,18 +220,22 @@ public class PostController {
             @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int limit,
             @RequestParam(defaultValue = "All") String category,
+            @RequestParam(defaultValue = "new") String sort,
             HttpServletRequest request) {
 
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if (token == null || !jwtUtils.validateToken(token)) {
+        Long currentUserId = jwtUtils.getCurrentUserId();
+        if (currentUserId == null) {
             log.error("Invalid or missing JWT token.");
             return ResponseEntity.status(401).body(
                     new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
             );
         }
 
-        Long currentUserId = jwtUtils.getUserIdFromToken(token);
-        FeedResponseDTO<TextPostDTO> feed = postService.getTextFeed(cursor, limit, currentUserId, category);
+        FeedResponseDTO<TextPostDTO> feed = switch (sort) {
+            case "new" -> postService.getTextFeed(cursor, limit, currentUserId, category);
+            case "hot" -> postService.getHotTextFeed(cursor, limit, currentUserId, category);
+            default -> throw new ValidationException("Invalid sort, expected 'new' or 'hot'.");
+        };
 
         Map<String, Object> responseData = new HashMap<>();
         responseData.put("feed", feed);
@@ -98,19 +246,43 @@ public class PostController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponseDTO> searchTextPosts(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "All") String category,
+            HttpServletRequest request) {
+
+        Long currentUserId = jwtUtils.getCurrentUserId();
+        if (currentUserId == null) {
+            log.error("Invalid or missing JWT token.");
+            return ResponseEntity.status(401).body(
+                    new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
+            );
+        }
+
+        FeedResponseDTO<TextPostDTO> results = postService.searchTextPosts(q, category, cursor, limit, currentUserId);
+
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("results", results);
+
+        ApiResponseDTO response = new ApiResponseDTO(200, true, "Search results fetched successfully.", responseData);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/text-feed/{id}")
     public ResponseEntity<ApiResponseDTO> getTextPostById(
             @PathVariable Long id, HttpServletRequest request) {
 
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if (token == null || !jwtUtils.validateToken(token)) {
+        Long currentUserId = jwtUtils.getCurrentUserId();
+        if (currentUserId == null) {
             log.error("Invalid or missing JWT token.");
             return ResponseEntity.status(401).body(
                     new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
             );
         }
 
-        Long currentUserId = jwtUtils.getUserIdFromToken(token);
         TextPostDTO textPostDTO = postService.getTextPostById(id, currentUserId);
 
         Map<String, Object> responseData = new HashMap<>();
@@ -124,19 +296,19 @@ public class PostController {
     public ResponseEntity<ApiResponseDTO> toggleLike(
             @PathVariable Long postId, HttpServletRequest request) {
 
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if (token == null || !jwtUtils.validateToken(token)) {
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
             log.error("Invalid or missing JWT token.");
             return ResponseEntity.status(401).body(
                     new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
             );
         }
 
-        Long userId = jwtUtils.getUserIdFromToken(token);
         ToggleLikeResultDTO result = postService.toggleLike(postId, userId);
         String details = result.isLiked() ? "Liked successfully" : "Disliked successfully";
 
         Map<String, Object> responseData = new HashMap<>();
+        responseData.put("isLiked", result.isLiked());
         responseData.put("likesCount", result.getLikesCount());
 
         ApiResponseDTO response = new ApiResponseDTO(200, true, details, responseData);
@@ -144,23 +316,69 @@ public class PostController {
         return ResponseEntity.ok(response);
     }
 
+    // Idempotent like: repeating the request leaves the post liked
+    @PutMapping("/{postId}/like")
+    public ResponseEntity<ApiResponseDTO> likePost(
+            @PathVariable Long postId, HttpServletRequest request) {
+
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
+            log.error("Invalid or missing JWT token.");
+            return ResponseEntity.status(401).body(
+                    new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
+            );
+        }
+
+        ToggleLikeResultDTO result = postService.likePost(postId, userId);
+
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("isLiked", result.isLiked());
+        responseData.put("likesCount", result.getLikesCount());
+
+        ApiResponseDTO response = new ApiResponseDTO(200, true, "Liked successfully", responseData);
+        return ResponseEntity.ok(response);
+    }
+
+    // Idempotent unlike: repeating the request leaves the post unliked
+    @DeleteMapping("/{postId}/like")
+    public ResponseEntity<ApiResponseDTO> unlikePost(
+            @PathVariable Long postId, HttpServletRequest request) {
+
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
+            log.error("Invalid or missing JWT token.");
+            return ResponseEntity.status(401).body(
+                    new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
+            );
+        }
+
+        ToggleLikeResultDTO result = postService.unlikePost(postId, userId);
+
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("isLiked", result.isLiked());
+        responseData.put("likesCount", result.getLikesCount());
+
+        ApiResponseDTO response = new ApiResponseDTO(200, true, "Disliked successfully", responseData);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/{postId}/echo")
     public ResponseEntity<ApiResponseDTO> toggleEcho(
             @PathVariable Long postId, HttpServletRequest request) {
 
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if (token == null || !jwtUtils.validateToken(token)) {
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
             log.error("Invalid or missing JWT token.");
             return ResponseEntity.status(401).body(
                     new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
             );
         }
 
-        Long userId = jwtUtils.getUserIdFromToken(token);
         ToggleEchoResultDTO result = postService.toggleEcho(postId, userId);
         String details = result.isEchoed() ? "Echoed successfully" : "Unechoed successfully";
 
         Map<String, Object> responseData = new HashMap<>();
+        responseData.put("isEchoed", result.isEchoed());
         responseData.put("echoesCount", result.getEchoesCount());
 
         ApiResponseDTO response = new ApiResponseDTO(200, true, details, responseData);
@@ -168,22 +386,66 @@ public class PostController {
         return ResponseEntity.ok(response);
     }
 
+    // Idempotent echo: repeating the request leaves the post echoed
+    @PutMapping("/{postId}/echo")
+    public ResponseEntity<ApiResponseDTO> echoPost(
+            @PathVariable Long postId, HttpServletRequest request) {
+
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
+            log.error("Invalid or missing JWT token.");
+            return ResponseEntity.status(401).body(
+                    new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
+            );
+        }
+
+        ToggleEchoResultDTO result = postService.echoPost(postId, userId);
+
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("isEchoed", result.isEchoed());
+        responseData.put("echoesCount", result.getEchoesCount());
+
+        ApiResponseDTO response = new ApiResponseDTO(200, true, "Echoed successfully", responseData);
+        return ResponseEntity.ok(response);
+    }
+
+    // Idempotent unecho: repeating the request leaves the post unechoed
+    @DeleteMapping("/{postId}/echo")
+    public ResponseEntity<ApiResponseDTO> unechoPost(
+            @PathVariable Long postId, HttpServletRequest request) {
+
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
+            log.error("Invalid or missing JWT token.");
+            return ResponseEntity.status(401).body(
+                    new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
+            );
+        }
+
+        ToggleEchoResultDTO result = postService.unechoPost(postId, userId);
+
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("isEchoed", result.isEchoed());
+        responseData.put("echoesCount", result.getEchoesCount());
+
+        ApiResponseDTO response = new ApiResponseDTO(200, true, "Unechoed successfully", responseData);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/echoed")
     public ResponseEntity<ApiResponseDTO> getEchoedTextPosts(
             @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int limit,
             HttpServletRequest request) {
 
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if (token == null || !jwtUtils.validateToken(token)) {
+        Long userId = jwtUtils.getCurrentUserId();
+        if (userId == null) {
             log.error("Invalid or missing JWT token.");
             return ResponseEntity.status(401).body(
                     new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
             );
         }
 
-        Long userId = jwtUtils.getUserIdFromToken(token);
-
         FeedResponseDTO<TextPostDTO> feed = postService.getEchoedTextPosts(userId, limit, cursor);
         Map<String, Object> responseData = new HashMap<>();
         responseData.put("echoedPosts", feed);
@@ -191,6 +453,28 @@ public class PostController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/home-feed")
+    public ResponseEntity<ApiResponseDTO> getHomeFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int limit,
+            HttpServletRequest request) {
+
+        Long currentUserId = jwtUtils.getCurrentUserId();
+        if (currentUserId == null) {
+            log.error("Invalid or missing JWT token.");
+            return ResponseEntity.status(401)
+                    .body(new ApiResponseDTO(401, false, "Invalid or missing JWT token."));
+        }
+
+        FeedResponseDTO<TextPostDTO> feed = postService.getHomeFeed(cursor, limit, currentUserId);
+
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("feed", feed);
+
+        ApiResponseDTO response = new ApiResponseDTO(200, true, "Home feed fetched successfully.", responseData);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/user-feed")
     public ResponseEntity<ApiResponseDTO> getMyTextPosts(
             @RequestParam(required = false) String cursor,
@@ -198,14 +482,13 @@ public class PostController {
             @RequestParam(required = false) Long userId,
             HttpServletRequest request) {
 
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if (token == null || !jwtUtils.validateToken(token)) {
+        Long currentUserId = jwtUtils.getCurrentUserId();
+        if (currentUserId == null) {
             log.error("Invalid or missing JWT token.");
             return ResponseEntity.status(401)
                     .body(new ApiResponseDTO(401, false, "Invalid or missing JWT token."));
         }
 
-        Long currentUserId = jwtUtils.getUserIdFromToken(token);
         Long targetUserId = (userId == null) ? currentUserId : userId;
         FeedResponseDTO<TextPostDTO> feed = postService.getUserTextPosts(cursor, limit, targetUserId, currentUserId);
 
@@ -222,13 +505,12 @@ public class PostController {
             @RequestBody PostRequestDTO postRequestDTO,
             HttpServletRequest request) {
 
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if (token == null || !jwtUtils.validateToken(token)) {
+        Long currentUserId = jwtUtils.getCurrentUserId();
+        if (currentUserId == null) {
             log.error("Invalid or missing JWT token.");
             return ResponseEntity.status(401)
                     .body(new ApiResponseDTO(401, false, "Invalid or missing JWT token."));
         }
-        Long currentUserId = jwtUtils.getUserIdFromToken(token);
 
         TextPostDTO updatedPost = postService.updateTextPost(
                 postId,
@@ -247,13 +529,12 @@ public class PostController {
     @DeleteMapping("/delete-text-feed/{postId}")
     public ResponseEntity<ApiResponseDTO> deleteTextPost(@PathVariable Long postId,
                                                      HttpServletRequest request) {
-        String token = jwtUtils.extractJwtFromRequest(request);
-        if (token == null || !jwtUtils.validateToken(token)) {
+        Long currentUserId = jwtUtils.getCurrentUserId();
+        if (currentUserId == null) {
             log.error("Invalid or missing JWT token.");
             return ResponseEntity.status(401)
                     .body(new ApiResponseDTO(401, false, "Invalid or missing JWT token."));
         }
-        Long currentUserId = jwtUtils.getUserIdFromToken(token);
         postService.deletePost(postId, currentUserId);
         ApiResponseDTO response = new ApiResponseDTO(200, true, "Post deleted successfully.");
         return ResponseEntity.ok(response);
@@ -0,0 +1,120 @@
+package com.echonymous.controller;
+
+import com.echonymous.dto.ApiResponseDTO;
+import com.echonymous.dto.FollowResultDTO;
+import com.echonymous.service.DataExportService;
+import com.echonymous.service.FollowService;
+import com.echonymous.util.JwtUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@Slf4j
+@RequestMapping("/api/users")
+public class UserController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final FollowService followService;
+    private final DataExportService dataExportService;
+    private final JwtUtils jwtUtils;
+
+    public UserController(FollowService followService, DataExportService dataExportService, JwtUtils jwtUtils) {
+        this.followService = followService;
+        this.dataExportService = dataExportService;
+        this.jwtUtils = jwtUtils;
+    }
+
+    // Export of the current user's posts, comments, likes and echoes as NDJSON (format=ndjson) or gzipped NDJSON
+    // (format=gzip). The body is written on an async thread while the rows are read, so it is never held in memory.
+    @GetMapping("/me/export")
+    public ResponseEntity<?> exportUserData(
+            @RequestParam(defaultValue = "ndjson") String format, HttpServletRequest request) {
+
+        Long currentUserId = jwtUtils.getCurrentUserId();
+        if (currentUserId == null) {
+            log.error("Invalid or missing JWT token.");
+            return ResponseEntity.status(401).body(
+                    new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
+            );
+        }
+
+        boolean gzip = switch (format) {
+            case "ndjson" -> false;
+            case "gzip" -> true;
+            default -> throw new ValidationException("Unsupported export format: " + format);
+        };
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                dataExportService.exportUserData(currentUserId, gzipOut);
+                gzipOut.finish();
+            } else {
+                dataExportService.exportUserData(currentUserId, out);
+            }
+        };
+
+        String filename = "echonymous-export-" + currentUserId + (gzip ? ".ndjson.gz" : ".ndjson");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : NDJSON)
+                .body(body);
+    }
+
+    // Idempotent follow: repeating the request leaves the user followed
+    @PutMapping("/{userId}/follow")
+    public ResponseEntity<ApiResponseDTO> followUser(
+            @PathVariable Long userId, HttpServletRequest request) {
+
+        Long currentUserId = jwtUtils.getCurrentUserId();
+        if (currentUserId == null) {
+            log.error("Invalid or missing JWT token.");
+            return ResponseEntity.status(401).body(
+                    new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
+            );
+        }
+
+        FollowResultDTO result = followService.follow(currentUserId, userId);
+
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("isFollowing", result.isFollowing());
+        responseData.put("followerCount", result.getFollowerCount());
+
+        ApiResponseDTO response = new ApiResponseDTO(200, true, "Followed successfully", responseData);
+        return ResponseEntity.ok(response);
+    }
+
+    // Idempotent unfollow: repeating the request leaves the user unfollowed
+    @DeleteMapping("/{userId}/follow")
+    public ResponseEntity<ApiResponseDTO> unfollowUser(
+            @PathVariable Long userId, HttpServletRequest request) {
+
+        Long currentUserId = jwtUtils.getCurrentUserId();
+        if (currentUserId == null) {
+            log.error("Invalid or missing JWT token.");
+            return ResponseEntity.status(401).body(
+                    new ApiResponseDTO(401, false, "Invalid or missing JWT token.")
+            );
+        }
+
+        FollowResultDTO result = followService.unfollow(currentUserId, userId);
+
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("isFollowing", result.isFollowing());
+        responseData.put("followerCount", result.getFollowerCount());
+
+        ApiResponseDTO response = new ApiResponseDTO(200, true, "Unfollowed successfully", responseData);
+        return ResponseEntity.ok(response);
+    }
+}
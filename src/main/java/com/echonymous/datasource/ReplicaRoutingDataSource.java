@@ -0,0 +1,215 @@
+package com.echonymous.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for read-only transactions to a read replica (round robin over the healthy ones) and
+ * everything else to the primary. It must sit behind a LazyConnectionDataSourceProxy, so the connection is taken
+ * at the first statement, once the transaction's read-only flag is set.
+ *
+ * Reads fall back to the primary when:
+ * - the current user wrote within sticky-window, so they read their own writes (a read-write transaction of an
+ *   authenticated user starts the window);
+ * - no replica is healthy: checkReplicas() marks a replica unhealthy when its lag query fails or reports more
+ *   than max-lag, and a replica that fails to hand out a connection is marked unhealthy on the spot.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Map<String, Replica> replicasByName = new HashMap<>();
+    private final Supplier<Long> currentUserId;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final Cache<Long, Boolean> recentWriters;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter stickyReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Supplier<Long> currentUserId,
+                                    String lagQuery, long maxLagMs, Duration stickyWindow, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.currentUserId = currentUserId;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .build();
+
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            this.replicasByName.put(name, replica);
+            targets.put(name, dataSource);
+            Gauge.builder("echonymous.read-replicas.lag", replica, r -> r.lagMs)
+                    .description("Replication lag reported by the last check")
+                    .baseUnit("milliseconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+            Gauge.builder("echonymous.read-replicas.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+
+        this.writes = routed(meterRegistry, PRIMARY, "write");
+        this.stickyReads = routed(meterRegistry, PRIMARY, "sticky");
+        this.fallbackReads = routed(meterRegistry, PRIMARY, "fallback");
+        this.replicaReads = routed(meterRegistry, "replica", "read");
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("echonymous.read-replicas.routed")
+                .description("Connections handed out, by where they went and why")
+                .tags("target", target, "reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                Long userId = currentUserId.get();
+                if (userId != null) {
+                    recentWriters.put(userId, Boolean.TRUE);
+                }
+            }
+            writes.increment();
+            return PRIMARY;
+        }
+        Long userId = currentUserId.get();
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            stickyReads.increment();
+            return PRIMARY;
+        }
+        Replica replica = nextHealthyReplica();
+        if (replica == null) {
+            fallbackReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return replica.name;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = replicasByName.get((String) determineCurrentLookupKey());
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            markUnhealthy(replica, e);
+            fallbackReads.increment();
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Runs the lag query on every replica. A replica is healthy while the query succeeds and reports a lag of at
+     * most max-lag milliseconds.
+     */
+    @Scheduled(fixedDelayString = "${echonymous.read-replicas.check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                long lagMs = resultSet.next() ? resultSet.getLong(1) : 0;
+                replica.lagMs = lagMs;
+                if (lagMs > maxLagMs) {
+                    if (replica.healthy) {
+                        log.warn("Replica {} is {} ms behind the primary; reads go to the primary", replica.name, lagMs);
+                    }
+                    replica.healthy = false;
+                } else {
+                    if (!replica.healthy) {
+                        log.info("Replica {} is back in rotation ({} ms behind)", replica.name, lagMs);
+                    }
+                    replica.healthy = true;
+                }
+            } catch (SQLException e) {
+                markUnhealthy(replica, e);
+            }
+        }
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    boolean isHealthy(String replicaName) {
+        return replicasByName.get(replicaName).healthy;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), size));
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void markUnhealthy(Replica replica, SQLException e) {
+        if (replica.healthy) {
+            log.warn("Replica {} is unavailable; reads go to the primary until it recovers", replica.name, e);
+        }
+        replica.healthy = false;
+    }
+
+    // Starts healthy, so reads use the replica before the first check; a failing one is caught on first use
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long lagMs;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
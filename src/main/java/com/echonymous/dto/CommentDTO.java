@@ -23,5 +23,6 @@ public class CommentDTO {
     private Long parentCommentId; // null for top-level comments
     private int replyCount;
     private Boolean isCurrentUserComment; // flag to indicate if the authenticated user authored this comment
+    private boolean partial; // some counts or flags could not be loaded in time and are left at 0/false
 
 }
@@ -0,0 +1,20 @@
+package com.echonymous.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A comment as written to a user data export. parentCommentId is null for top-level comments.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentExportDTO {
+    private final Long postCommentId;
+    private final Long postId;
+    private final Long parentCommentId;
+    private final String comment;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.echonymous.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A text post summary together with the echo that put it on the user's echoes page; the echo's
+ * (echoedAt, postEchoId) is the page's sort key.
+ */
+@Getter
+public class EchoedTextPostSummaryDTO extends TextPostSummaryDTO {
+    private final Long postEchoId;
+    private final LocalDateTime echoedAt;
+
+    public EchoedTextPostSummaryDTO(Long postEchoId, LocalDateTime echoedAt, Long postId, String category, String content,
+                                    Long authorId, LocalDateTime createdAt, LocalDateTime updatedAt,
+                                    int likeCount, int commentCount, int echoCount) {
+        super(postId, category, content, authorId, createdAt, updatedAt, likeCount, commentCount, echoCount);
+        this.postEchoId = postEchoId;
+        this.echoedAt = echoedAt;
+    }
+}
@@ -15,5 +15,6 @@ public class EngagementDTO {
     private int echoesCount;
     private boolean isLiked;
     private boolean isEchoed;
+    private boolean partial; // the viewer's flags could not be loaded in time, so isLiked/isEchoed are unknown
 
 }
@@ -0,0 +1,16 @@
+package com.echonymous.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A like or echo as written to a user data export: the post it was given to and when.
+ */
+@Getter
+@AllArgsConstructor
+public class EngagementExportDTO {
+    private final Long postId;
+    private final LocalDateTime createdAt;
+}
@@ -0,0 +1,14 @@
+package com.echonymous.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One line of a user data export: the kind of row ("post", "comment", "like" or "echo") and the row itself.
+ */
+@Getter
+@AllArgsConstructor
+public class ExportRecordDTO {
+    private final String type;
+    private final Object data;
+}
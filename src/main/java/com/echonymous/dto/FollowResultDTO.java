@@ -0,0 +1,15 @@
+package com.echonymous.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FollowResultDTO {
+    private boolean isFollowing;
+    private int followerCount;
+}
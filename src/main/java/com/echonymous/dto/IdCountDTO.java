@@ -0,0 +1,18 @@
+package com.echonymous.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Row of a grouped count query, e.g. the number of likes per post id.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdCountDTO {
+    private Long id;
+    private Long count;
+}
@@ -0,0 +1,22 @@
+package com.echonymous.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One text post of a bulk import, with the text of its comments. Imported posts are dated at the time of the
+ * import; a client-supplied date is not accepted, so posts cannot be backdated.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportPostDTO {
+    private String category;
+    private String content;
+    private List<String> comments;
+}
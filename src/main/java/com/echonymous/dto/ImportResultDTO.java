@@ -0,0 +1,16 @@
+package com.echonymous.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Ids of the imported posts, in request order, and the number of comments imported with them.
+ */
+@Getter
+@AllArgsConstructor
+public class ImportResultDTO {
+    private final List<Long> postIds;
+    private final int commentCount;
+}
@@ -0,0 +1,14 @@
+package com.echonymous.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Text of one comment with the id of its post, as indexed for search.
+ */
+@Getter
+@AllArgsConstructor
+public class PostCommentTextDTO {
+    private final Long postId;
+    private final String comment;
+}
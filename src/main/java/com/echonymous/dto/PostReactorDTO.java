@@ -0,0 +1,14 @@
+package com.echonymous.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A user who liked or echoed a post, as loaded into the engagement membership index.
+ */
+@Getter
+@AllArgsConstructor
+public class PostReactorDTO {
+    private final Long postId;
+    private final Long userId;
+}
@@ -0,0 +1,14 @@
+package com.echonymous.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Position of a post in the hot feed: its id and hot score (see HotScore).
+ */
+@Getter
+@AllArgsConstructor
+public class ScoredPostDTO {
+    private final Long postId;
+    private final double hotScore;
+}
@@ -0,0 +1,15 @@
+package com.echonymous.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of writing a blob: its key, size and SHA-256 checksum (hex), computed while it was streamed in.
+ */
+@Getter
+@AllArgsConstructor
+public class StoredBlobDTO {
+    private final String key;
+    private final long sizeBytes;
+    private final String checksum;
+}
@@ -0,0 +1,24 @@
+package com.echonymous.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * The part of a text post that is the same for every viewer: body, timestamps and engagement counts.
+ * Immutable so it can be shared between requests through the feed page cache.
+ */
+@Getter
+@AllArgsConstructor
+public class TextPostSummaryDTO {
+    private final Long postId;
+    private final String category;
+    private final String content;
+    private final Long authorId;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final int likeCount;
+    private final int commentCount;
+    private final int echoCount;
+}
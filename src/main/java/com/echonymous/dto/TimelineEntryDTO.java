@@ -0,0 +1,16 @@
+package com.echonymous.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sort key of a post in a feed timeline: its creation time, with the id as a tie-breaker.
+ */
+@Getter
+@AllArgsConstructor
+public class TimelineEntryDTO {
+    private final Long postId;
+    private final LocalDateTime createdAt;
+}
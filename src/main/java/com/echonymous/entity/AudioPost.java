@@ -10,5 +10,12 @@ import lombok.Setter;
 @Setter
 @DiscriminatorValue("AUDIO")
 public class AudioPost extends Post{
+    // Key of the audio file in the BlobStore
     private String filePath;
+
+    // Metadata recorded at upload; the checksum is the SHA-256 (hex) of the stored file
+    private String contentType;
+    private Long sizeBytes;
+    private Integer durationSeconds;
+    private String checksum;
 }
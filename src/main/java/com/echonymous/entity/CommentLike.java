@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_comment_like_comment_user", columnNames = {"post_comment_id", "user_id"}))
 public class CommentLike {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
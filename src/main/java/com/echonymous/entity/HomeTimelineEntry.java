@@ -0,0 +1,42 @@
+package com.echonymous.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One post pushed into a user's home timeline. Only the ids and the sort key are stored; the post itself is
+ * hydrated when the page is read.
+ */
+@Entity
+@Getter
+@Setter
+@IdClass(HomeTimelineEntry.Key.class)
+// The primary key (post_id, user_id) also serves the removal of a deleted post from every timeline
+@Table(name = "home_timeline",
+        indexes = @Index(name = "idx_home_timeline_user_created_at_post", columnList = "user_id, created_at desc, post_id desc"))
+public class HomeTimelineEntry {
+    @Id
+    private Long userId;
+
+    @Id
+    private Long postId;
+
+    private LocalDateTime createdAt;
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long postId;
+    }
+}
@@ -1,8 +1,13 @@
 package com.echonymous.entity;
 
 import jakarta.persistence.*;
+import com.echonymous.util.CategoryUtils;
+import com.echonymous.util.HotScore;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -10,17 +15,62 @@ import java.util.List;
 @Entity
 @Getter
 @Setter
+@Table(indexes = {
+        @Index(name = "idx_post_type_created_at_id", columnList = "post_type, created_at desc, post_id desc"),
+        @Index(name = "idx_post_type_category_key_created_at_id", columnList = "post_type, category_key, created_at desc, post_id desc"),
+        @Index(name = "idx_post_author_created_at_id", columnList = "author_id, created_at desc, post_id desc"),
+        @Index(name = "idx_post_type_hot_score_id", columnList = "post_type, hot_score desc, post_id desc"),
+        @Index(name = "idx_post_type_category_key_hot_score_id", columnList = "post_type, category_key, hot_score desc, post_id desc")
+})
+// Soft-deleted posts are invisible to every entity query; PostPurgeJob removes their rows later with native SQL
+@SQLRestriction("deleted_at is null")
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "post_type", discriminatorType = DiscriminatorType.STRING)
 public abstract class Post {
+    // Ids come from a sequence in blocks of 50 (pooled-lo), so inserts can be batched: with IDENTITY Hibernate
+    // has to execute each insert on its own to read the generated key back
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
     private Long postId;
     private String category;
+
+    // Normalized category (see CategoryUtils) that category feeds filter on; derived from category on write
+    @Setter(AccessLevel.NONE)
+    private String categoryKey;
     private Long authorId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Denormalized engagement counters, only ever changed through atomic increments in PostRepository
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int likeCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int commentCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int echoCount;
+
+    // Hot feed score (see HotScore), set on insert and afterwards only written by HotFeedIndex checkpoints
+    @Setter(AccessLevel.NONE)
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private double hotScore;
+
+    // Set by a delete; only written through PostRepository.markDeleted
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime deletedAt;
+
+    // Failed purges of the deleted post, which is retried until echonymous.post-purge.max-attempts
+    @Setter(AccessLevel.NONE)
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int purgeAttempts;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<PostLike> likes;
 
@@ -30,4 +80,16 @@ public abstract class Post {
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<PostEcho> echoes;
 
+    @PrePersist
+    void prePersist() {
+        normalizeCategory();
+        if (createdAt != null) {
+            hotScore = HotScore.of(likeCount, commentCount, echoCount, createdAt);
+        }
+    }
+
+    @PreUpdate
+    void normalizeCategory() {
+        categoryKey = CategoryUtils.normalize(category);
+    }
 }
@@ -10,9 +10,18 @@ import java.util.List;
 @Entity
 @Getter
 @Setter
+// Fetch plan for checks against the commented post (e.g. whether the deleting user wrote it)
+@NamedEntityGraph(name = "PostComment.post", attributeNodes = @NamedAttributeNode("post"))
+@Table(indexes = {
+        @Index(name = "idx_post_comment_post_parent_created_at_id", columnList = "post_id, parent_comment_id, created_at desc, post_comment_id desc"),
+        @Index(name = "idx_post_comment_parent_created_at_id", columnList = "parent_comment_id, created_at desc, post_comment_id desc"),
+        @Index(name = "idx_post_comment_user_created_at_id", columnList = "user_id, created_at desc, post_comment_id desc")
+})
 public class PostComment {
+    // Sequence ids in blocks of 50, like Post, so comment inserts are batched too
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_comment_seq")
+    @SequenceGenerator(name = "post_comment_seq", sequenceName = "post_comment_seq", allocationSize = 50)
     private Long postCommentId;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -9,12 +9,14 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_post_echo_post_user", columnNames = {"post_id", "user_id"}),
+        indexes = @Index(name = "idx_post_echo_user_echoed_at_id", columnList = "user_id, echoed_at desc, post_echo_id desc"))
 public class PostEcho {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long postEchoId;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id")   // FK post_id point to the PK of Post
     private Post post;
 
@@ -9,6 +9,8 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_post_like_post_user", columnNames = {"post_id", "user_id"}),
+        indexes = @Index(name = "idx_post_like_user_liked_at_id", columnList = "user_id, liked_at desc, post_like_id desc"))
 public class PostLike {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -9,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.Set;
 
@@ -19,8 +20,10 @@ import java.util.Set;
 @Setter
 @Table(name = "users")
 public class User {
+    // Sequence ids in blocks of 50, like Post
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long userId;
 
     @Email(message = "Email should be valid.")
@@ -45,5 +48,10 @@ public class User {
     )
     private Set<Role> roles;
 
+    // Denormalized, only ever changed through atomic increments in UserRepository
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int followerCount;
+
     // Prolly add fields for createdAt, updatedAt
 }
@@ -0,0 +1,29 @@
+package com.echonymous.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_user_follow_follower_followee", columnNames = {"follower_id", "followee_id"}),
+        indexes = @Index(name = "idx_user_follow_followee_follower", columnList = "followee_id, follower_id"))
+public class UserFollow {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long userFollowId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "follower_id", nullable = false) // the user who follows
+    private User follower;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "followee_id", nullable = false) // the user being followed
+    private User followee;
+
+    private LocalDateTime followedAt;
+
+}
@@ -0,0 +1,13 @@
+package com.echonymous.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a comment on a post is created, edited or deleted.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentChangedEvent {
+    private final Long postId;
+}
@@ -0,0 +1,15 @@
+package com.echonymous.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class PostCreatedEvent {
+    private final Long postId;
+    private final String category;
+    private final LocalDateTime createdAt;
+    private final Long authorId;
+}
@@ -0,0 +1,13 @@
+package com.echonymous.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a post's like, echo or comment count changes.
+ */
+@Getter
+@AllArgsConstructor
+public class PostEngagementChangedEvent {
+    private final Long postId;
+}
@@ -0,0 +1,36 @@
+package com.echonymous.event;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Published when a user's like or echo row of a post is written or removed in the database, with the state
+ * the row was left in.
+ *
+ * Events are delivered after commit and can arrive out of order for concurrent toggles. Create the event right
+ * after the row was written: a later toggle of the same row waits for this transaction to commit before its own
+ * write returns, so its version is higher.
+ */
+@Getter
+public class PostReactionChangedEvent {
+    public enum Reaction {
+        LIKE, ECHO
+    }
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final Long postId;
+    private final Long userId;
+    private final Reaction reaction;
+    private final boolean active;
+    private final long version;
+
+    public PostReactionChangedEvent(Long postId, Long userId, Reaction reaction, boolean active) {
+        this.postId = postId;
+        this.userId = userId;
+        this.reaction = reaction;
+        this.active = active;
+        this.version = VERSIONS.incrementAndGet();
+    }
+}
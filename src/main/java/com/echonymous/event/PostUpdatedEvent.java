@@ -0,0 +1,16 @@
+package com.echonymous.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class PostUpdatedEvent {
+    private final Long postId;
+    private final String oldCategory;
+    private final String newCategory;
+    // Sort key of the post, so listeners can place it in the new category's timeline
+    private final LocalDateTime createdAt;
+}
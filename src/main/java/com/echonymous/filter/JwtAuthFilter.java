@@ -1,6 +1,7 @@
 package com.echonymous.filter;
 
 import com.echonymous.util.JwtUtils;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -33,10 +34,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             log.debug("No JWT Token found.");
         }
 
-        if (token != null && jwtUtils.validateToken(token)) {
-            Long userId = jwtUtils.getUserIdFromToken(token);
-            log.debug("Extracted userId from token: {}", userId);
+        Long userId = null;
+        if (token != null) {
+            // The only verification of the token for this request; controllers read the userId from the SecurityContext
+            try {
+                userId = jwtUtils.getUserIdFromToken(token);
+                log.debug("Extracted userId from token: {}", userId);
+            } catch (JwtException | IllegalArgumentException e) {
+                log.error("JWT token validation failed: {}", e.getMessage());
+            }
+        }
 
+        if (userId != null) {
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(userId, null, new ArrayList<>());
             SecurityContextHolder.getContext().setAuthentication(authentication);
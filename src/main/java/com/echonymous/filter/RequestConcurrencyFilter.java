@@ -0,0 +1,71 @@
+package com.echonymous.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests being handled at once (echonymous.request-limit.max-concurrent, 0 = off). With
+ * virtual threads every accepted connection gets its own thread, so a burst would otherwise park thousands of
+ * requests on the Hikari pool; here a request waits at most wait-ms for a slot and is then answered with 503.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class RequestConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long waitMs;
+    private final Counter rejected;
+
+    public RequestConcurrencyFilter(MeterRegistry meterRegistry,
+                                    @Value("${echonymous.request-limit.max-concurrent:0}") int maxConcurrent,
+                                    @Value("${echonymous.request-limit.wait-ms:1000}") long waitMs) {
+        this.permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+        this.waitMs = waitMs;
+        this.rejected = Counter.builder("echonymous.request-limit.rejected")
+                .description("Requests answered with 503 because max-concurrent requests were already in flight")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (permits == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            log.debug("Rejected {} {}: too many requests in flight", request.getMethod(), request.getRequestURI());
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Service is busy, please retry.");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
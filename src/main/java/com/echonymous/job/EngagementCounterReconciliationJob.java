@@ -0,0 +1,63 @@
+package com.echonymous.job;
+
+import com.echonymous.repository.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Repairs drift between the denormalized engagement counters on Post and the actual like, comment
+ * and echo rows. Posts are walked in id order in bounded chunks, each chunk in its own transaction,
+ * so a run never holds locks on more than one chunk at a time.
+ */
+@Component
+@Slf4j
+public class EngagementCounterReconciliationJob {
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${echonymous.engagement.reconcile.chunk-size:500}")
+    private int chunkSize;
+
+    public EngagementCounterReconciliationJob(PostRepository postRepository, TransactionTemplate transactionTemplate) {
+        this.postRepository = postRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(initialDelayString = "${echonymous.engagement.reconcile.initial-delay-ms:600000}",
+            fixedDelayString = "${echonymous.engagement.reconcile.interval-ms:3600000}")
+    public void reconcile() {
+        long afterId = 0L;
+        int repaired = 0;
+        while (true) {
+            List<Long> postIds = postRepository.findPostIdsAfter(afterId, PageRequest.of(0, chunkSize));
+            if (postIds.isEmpty()) {
+                break;
+            }
+            repaired += reconcileChunk(postIds);
+            afterId = postIds.get(postIds.size() - 1);
+        }
+        log.info("Engagement counter reconciliation finished, repaired {} posts", repaired);
+    }
+
+    /**
+     * Recomputes the counters of the posts in the chunk that have drifted. Returns the number of
+     * repaired posts.
+     */
+    public int reconcileChunk(List<Long> postIds) {
+        Integer repaired = transactionTemplate.execute(status -> {
+            List<Long> driftedIds = postRepository.findPostIdsWithCounterDrift(postIds);
+            if (driftedIds.isEmpty()) {
+                return 0;
+            }
+            log.warn("Engagement counters drifted for posts {}", driftedIds);
+            return postRepository.recomputeCounters(driftedIds);
+        });
+        return repaired != null ? repaired : 0;
+    }
+}
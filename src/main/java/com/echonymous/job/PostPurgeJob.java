@@ -0,0 +1,117 @@
+package com.echonymous.job;
+
+import com.echonymous.repository.CommentLikeRepository;
+import com.echonymous.repository.PostCommentRepository;
+import com.echonymous.repository.PostEchoRepository;
+import com.echonymous.repository.PostLikeRepository;
+import com.echonymous.repository.PostRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Removes soft-deleted posts. Instead of cascading through the entity graph (which loads every like, comment
+ * and reply and deletes them one by one in a single transaction), the dependent rows are deleted with bulk
+ * statements in batches of batch-size, each batch in its own transaction, and the post row goes last.
+ * Progress is whatever has been committed, so a failed purge is retried on a later run from where it stopped,
+ * up to max-attempts times.
+ */
+@Component
+@Slf4j
+public class PostPurgeJob {
+    private final PostRepository postRepository;
+    private final CommentLikeRepository commentLikeRepository;
+    private final PostCommentRepository postCommentRepository;
+    private final PostLikeRepository postLikeRepository;
+    private final PostEchoRepository postEchoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter purged;
+    private final Counter failed;
+    private final Counter deletedRows;
+
+    @Value("${echonymous.post-purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${echonymous.post-purge.posts-per-run:100}")
+    private int postsPerRun;
+
+    @Value("${echonymous.post-purge.max-attempts:5}")
+    private int maxAttempts;
+
+    public PostPurgeJob(PostRepository postRepository, CommentLikeRepository commentLikeRepository,
+                        PostCommentRepository postCommentRepository, PostLikeRepository postLikeRepository,
+                        PostEchoRepository postEchoRepository, TransactionTemplate transactionTemplate,
+                        MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.commentLikeRepository = commentLikeRepository;
+        this.postCommentRepository = postCommentRepository;
+        this.postLikeRepository = postLikeRepository;
+        this.postEchoRepository = postEchoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.purged = Counter.builder("echonymous.post-purge.posts")
+                .tag("result", "purged")
+                .register(meterRegistry);
+        this.failed = Counter.builder("echonymous.post-purge.posts")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.deletedRows = Counter.builder("echonymous.post-purge.rows")
+                .description("Likes, comments and echoes deleted with purged posts")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${echonymous.post-purge.initial-delay-ms:60000}",
+            fixedDelayString = "${echonymous.post-purge.interval-ms:60000}")
+    public void purge() {
+        List<Long> postIds = postRepository.findPostIdsToPurge(maxAttempts, postsPerRun);
+        for (Long postId : postIds) {
+            try {
+                purgePost(postId);
+                purged.increment();
+            } catch (RuntimeException e) {
+                // e.g. a like inserted after the likes were purged; the next run deletes it and retries
+                transactionTemplate.executeWithoutResult(status -> postRepository.incrementPurgeAttempts(postId));
+                failed.increment();
+                log.warn("Purge of deleted post {} failed, will retry", postId, e);
+            }
+        }
+    }
+
+    /**
+     * Deletes everything that references the post, children before parents, then the post row itself.
+     * Returns the number of dependent rows deleted.
+     */
+    public long purgePost(Long postId) {
+        long rows = purgeInBatches(page -> commentLikeRepository.findIdsByPostId(postId, page), commentLikeRepository::deleteByIds)
+                + purgeInBatches(page -> postCommentRepository.findLeafIdsByPostId(postId, page), postCommentRepository::deleteByIds)
+                + purgeInBatches(page -> postLikeRepository.findIdsByPostId(postId, page), postLikeRepository::deleteByIds)
+                + purgeInBatches(page -> postEchoRepository.findIdsByPostId(postId, page), postEchoRepository::deleteByIds);
+        transactionTemplate.executeWithoutResult(status -> postRepository.deleteSoftDeleted(postId));
+        log.info("Purged deleted post {} with {} dependent rows", postId, rows);
+        return rows;
+    }
+
+    private long purgeInBatches(Function<Pageable, List<Long>> findIds, Function<Collection<Long>, Integer> deleteByIds) {
+        long total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = findIds.apply(PageRequest.of(0, batchSize));
+                return ids.isEmpty() ? 0 : deleteByIds.apply(ids);
+            });
+            if (deleted == null || deleted == 0) {
+                return total;
+            }
+            total += deleted;
+            deletedRows.increment(deleted);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.echonymous.job;
+
+import com.echonymous.service.PostSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the search index from the database when the application is started with --reindex-search, e.g.
+ * after changing how posts are indexed. The application keeps serving the old documents meanwhile.
+ */
+@Component
+@Slf4j
+public class SearchReindexCommand implements ApplicationRunner {
+    static final String OPTION = "reindex-search";
+
+    private final PostSearchService postSearchService;
+
+    public SearchReindexCommand(PostSearchService postSearchService) {
+        this.postSearchService = postSearchService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(OPTION)) {
+            log.info("Rebuilding the search index (--{})", OPTION);
+            postSearchService.reindexAll();
+        }
+    }
+}
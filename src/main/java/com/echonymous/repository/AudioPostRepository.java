@@ -0,0 +1,9 @@
+package com.echonymous.repository;
+
+import com.echonymous.entity.AudioPost;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AudioPostRepository extends JpaRepository<AudioPost, Long> {
+}
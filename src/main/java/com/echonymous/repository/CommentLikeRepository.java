@@ -1,13 +1,53 @@
 package com.echonymous.repository;
 
+import com.echonymous.dto.IdCountDTO;
 import com.echonymous.entity.*;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CommentLikeRepository extends JpaRepository<CommentLike, Long> {
-    Optional<CommentLike> findByCommentAndUser(PostComment comment, User user);
     Optional<CommentLike> findByCommentAndUser_UserId(PostComment comment, Long userId);
 
     int countByComment(PostComment comment);
+
+    // Number of likes per comment, for a whole page of comments at once
+    @Query("SELECT new com.echonymous.dto.IdCountDTO(cl.comment.postCommentId, COUNT(cl)) FROM CommentLike cl " +
+            "WHERE cl.comment.postCommentId IN :commentIds GROUP BY cl.comment.postCommentId")
+    List<IdCountDTO> countByCommentIds(@Param("commentIds") Collection<Long> commentIds);
+
+    // Which of the given comments the user has liked
+    @Query("SELECT cl.comment.postCommentId FROM CommentLike cl WHERE cl.user.userId = :userId AND cl.comment.postCommentId IN :commentIds")
+    List<Long> findLikedCommentIds(@Param("userId") Long userId, @Param("commentIds") Collection<Long> commentIds);
+
+    boolean existsByComment_PostCommentIdAndUser_UserId(Long commentId, Long userId);
+
+    // Idempotent like: relies on the (post_comment_id, user_id) unique constraint
+    @Modifying
+    @Query("INSERT INTO CommentLike (comment.postCommentId, user.userId, likedAt) VALUES (:commentId, :userId, :likedAt) " +
+            "ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("commentId") Long commentId, @Param("userId") Long userId, @Param("likedAt") LocalDateTime likedAt);
+
+    @Modifying
+    @Query("DELETE FROM CommentLike cl WHERE cl.comment.postCommentId = :commentId AND cl.user.userId = :userId")
+    int deleteByCommentIdAndUserId(@Param("commentId") Long commentId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM CommentLike cl WHERE cl.comment.postCommentId IN :commentIds")
+    int deleteByCommentIds(@Param("commentIds") Collection<Long> commentIds);
+
+    // Post purge: one batch of likes on the post's comments at a time
+    @Query("SELECT cl.commentId FROM CommentLike cl WHERE cl.comment.post.postId = :postId")
+    List<Long> findIdsByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM CommentLike cl WHERE cl.commentId IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
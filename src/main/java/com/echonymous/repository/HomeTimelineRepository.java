@@ -0,0 +1,72 @@
+package com.echonymous.repository;
+
+import com.echonymous.dto.TimelineEntryDTO;
+import com.echonymous.entity.HomeTimelineEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface HomeTimelineRepository extends JpaRepository<HomeTimelineEntry, HomeTimelineEntry.Key> {
+    // Insert-selects skip entries that already exist, so a repeated fan-out or backfill is a no-op. (ON CONFLICT
+    // cannot be used here: Hibernate only emulates it for single-row inserts on dialects without native support.)
+    String NOT_IN_TIMELINE = "AND NOT EXISTS (SELECT 1 FROM HomeTimelineEntry h " +
+            "WHERE h.userId = f.follower.userId AND h.postId = p.postId)";
+
+    // Pushes a post into the timelines of the author's followers with ids in (afterId, upToId], in one statement
+    @Modifying
+    @Query("INSERT INTO HomeTimelineEntry (userId, postId, createdAt) " +
+            "SELECT f.follower.userId, p.postId, p.createdAt FROM UserFollow f, TextPost p " +
+            "WHERE p.postId = :postId AND f.followee.userId = p.authorId " +
+            "AND f.follower.userId > :afterId AND f.follower.userId <= :upToId " + NOT_IN_TIMELINE)
+    int insertForFollowers(@Param("postId") Long postId, @Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    // Pushes posts into the timeline of their author
+    @Modifying
+    @Query("INSERT INTO HomeTimelineEntry (userId, postId, createdAt) " +
+            "SELECT p.authorId, p.postId, p.createdAt FROM TextPost p WHERE p.postId IN :postIds " +
+            "AND NOT EXISTS (SELECT 1 FROM HomeTimelineEntry h WHERE h.userId = p.authorId AND h.postId = p.postId)")
+    int insertForAuthor(@Param("postIds") Collection<Long> postIds);
+
+    // Backfills the given posts into the timeline of a new follower
+    @Modifying
+    @Query("INSERT INTO HomeTimelineEntry (userId, postId, createdAt) " +
+            "SELECT f.follower.userId, p.postId, p.createdAt FROM UserFollow f, TextPost p " +
+            "WHERE f.follower.userId = :followerId AND f.followee.userId = p.authorId AND p.postId IN :postIds " +
+            NOT_IN_TIMELINE)
+    int insertForFollower(@Param("followerId") Long followerId, @Param("postIds") Collection<Long> postIds);
+
+    @Modifying
+    @Query("DELETE FROM HomeTimelineEntry h WHERE h.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    // Drops an unfollowed author's posts from the follower's timeline
+    @Modifying
+    @Query("DELETE FROM HomeTimelineEntry h WHERE h.userId = :userId AND h.postId IN " +
+            "(SELECT p.postId FROM Post p WHERE p.authorId = :authorId)")
+    int deleteByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+
+    @Query("SELECT new com.echonymous.dto.TimelineEntryDTO(h.postId, h.createdAt) FROM HomeTimelineEntry h " +
+            "WHERE h.userId = :userId ORDER BY h.createdAt DESC, h.postId DESC")
+    List<TimelineEntryDTO> findEntries(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.echonymous.dto.TimelineEntryDTO(h.postId, h.createdAt) FROM HomeTimelineEntry h " +
+            "WHERE h.userId = :userId AND (h.createdAt, h.postId) < (:createdAt, :postId) " +
+            "ORDER BY h.createdAt DESC, h.postId DESC")
+    List<TimelineEntryDTO> findEntriesAfterCursor(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("postId") Long postId, Pageable pageable);
+
+    // Users whose timeline has grown past the cap, for the trim job
+    @Query("SELECT h.userId FROM HomeTimelineEntry h GROUP BY h.userId HAVING COUNT(h) > :maxEntries")
+    List<Long> findUserIdsWithMoreEntriesThan(@Param("maxEntries") long maxEntries);
+
+    // Drops the entry at (createdAt, postId) and everything older
+    @Modifying
+    @Query("DELETE FROM HomeTimelineEntry h WHERE h.userId = :userId AND (h.createdAt, h.postId) <= (:createdAt, :postId)")
+    int deleteFrom(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt, @Param("postId") Long postId);
+}
@@ -1,27 +1,100 @@
 package com.echonymous.repository;
 
+import com.echonymous.constants.Constants;
+import com.echonymous.dto.CommentExportDTO;
+import com.echonymous.dto.IdCountDTO;
+import com.echonymous.dto.PostCommentTextDTO;
 import com.echonymous.entity.Post;
 import com.echonymous.entity.PostComment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PostCommentRepository extends JpaRepository<PostComment, Long> {
+    // Comments are ordered by (createdAt, postCommentId); cursor queries continue strictly after the last pair seen
+
+    // Comment pages load only the PostComment rows: post, user and parent are read by id (their foreign keys),
+    // which leaves the lazy proxies uninitialized, so no page triggers further loads
+
     // For top-level comments (no parent), with cursor filtering
-    List<PostComment> findByPostAndParentCommentIsNullAndCreatedAtBeforeOrderByCreatedAtDesc(Post post, LocalDateTime cursor, Pageable pageable);
+    @Query("SELECT c FROM PostComment c WHERE c.post.postId = :postId AND c.parentComment IS NULL AND " +
+            "(c.createdAt, c.postCommentId) < (:createdAt, :commentId) ORDER BY c.createdAt DESC, c.postCommentId DESC")
+    List<PostComment> findTopLevelAfterCursor(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("commentId") Long commentId, Pageable pageable);
 
     // Without a cursor (first page)
-    List<PostComment> findByPostAndParentCommentIsNullOrderByCreatedAtDesc(Post post, Pageable pageable);
+    @Query("SELECT c FROM PostComment c WHERE c.post.postId = :postId AND c.parentComment IS NULL " +
+            "ORDER BY c.createdAt DESC, c.postCommentId DESC")
+    List<PostComment> findTopLevel(@Param("postId") Long postId, Pageable pageable);
 
     // For replies with cursor filtering
-    List<PostComment> findByParentCommentAndCreatedAtBeforeOrderByCreatedAtDesc(PostComment parentComment, LocalDateTime cursor, Pageable pageable);
+    @Query("SELECT c FROM PostComment c WHERE c.parentComment.postCommentId = :parentId AND " +
+            "(c.createdAt, c.postCommentId) < (:createdAt, :commentId) ORDER BY c.createdAt DESC, c.postCommentId DESC")
+    List<PostComment> findRepliesAfterCursor(@Param("parentId") Long parentCommentId, @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("commentId") Long commentId, Pageable pageable);
 
     // For replies without a cursor
-    List<PostComment> findByParentCommentOrderByCreatedAtDesc(PostComment parentComment, Pageable pageable);
+    @Query("SELECT c FROM PostComment c WHERE c.parentComment.postCommentId = :parentId " +
+            "ORDER BY c.createdAt DESC, c.postCommentId DESC")
+    List<PostComment> findReplies(@Param("parentId") Long parentCommentId, Pageable pageable);
+
+    // Comment together with its post, in one query
+    @EntityGraph("PostComment.post")
+    Optional<PostComment> findWithPostByPostCommentId(Long postCommentId);
 
     int countByPost(Post post);
+
+    // Number of direct replies per comment, for a whole page of comments at once
+    @Query("SELECT new com.echonymous.dto.IdCountDTO(c.parentComment.postCommentId, COUNT(c)) FROM PostComment c " +
+            "WHERE c.parentComment.postCommentId IN :commentIds GROUP BY c.parentComment.postCommentId")
+    List<IdCountDTO> countRepliesByParentIds(@Param("commentIds") Collection<Long> commentIds);
+
+    // Comment texts of several posts at once, newest first, for the search index
+    @Query("SELECT new com.echonymous.dto.PostCommentTextDTO(c.post.postId, c.comment) FROM PostComment c " +
+            "WHERE c.post.postId IN :postIds ORDER BY c.createdAt DESC, c.postCommentId DESC")
+    List<PostCommentTextDTO> findTextsByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // Data export: every comment the user wrote, streamed in fetch-size batches (newest first)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constants.EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.echonymous.dto.CommentExportDTO(c.postCommentId, c.post.postId, parent.postCommentId, " +
+            "c.comment, c.createdAt, c.updatedAt) FROM PostComment c LEFT JOIN c.parentComment parent " +
+            "WHERE c.user.userId = :userId ORDER BY c.createdAt DESC, c.postCommentId DESC")
+    Stream<CommentExportDTO> streamExportByUserId(@Param("userId") Long userId);
+
+    // Comment deletion: the comment and all of its nested replies, in one recursive query
+    @Query(value = "WITH RECURSIVE thread(post_comment_id) AS (" +
+            "SELECT post_comment_id FROM post_comment WHERE post_comment_id = :commentId " +
+            "UNION ALL SELECT c.post_comment_id FROM post_comment c JOIN thread t ON c.parent_comment_id = t.post_comment_id) " +
+            "SELECT post_comment_id FROM thread", nativeQuery = true)
+    List<Long> findThreadIds(@Param("commentId") Long commentId);
+
+    // Unlinks the thread's replies from their parents, so the whole thread goes in one DELETE without tripping the
+    // parent_comment_id foreign key on databases that check it row by row
+    @Modifying
+    @Query("UPDATE PostComment c SET c.parentComment = NULL WHERE c.postCommentId IN :ids")
+    int detachFromParents(@Param("ids") Collection<Long> ids);
+
+    // Post purge: a batch of the post's comments without replies. Deleting leaves first never violates the
+    // parent_comment_id foreign key, and each batch exposes the next level of the tree.
+    @Query("SELECT c.postCommentId FROM PostComment c WHERE c.post.postId = :postId AND " +
+            "NOT EXISTS (SELECT 1 FROM PostComment r WHERE r.parentComment = c)")
+    List<Long> findLeafIdsByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM PostComment c WHERE c.postCommentId IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,33 +1,82 @@
 package com.echonymous.repository;
 
+import com.echonymous.constants.Constants;
+import com.echonymous.dto.EchoedTextPostSummaryDTO;
+import com.echonymous.dto.EngagementExportDTO;
+import com.echonymous.dto.PostReactorDTO;
 import com.echonymous.entity.Post;
 import com.echonymous.entity.PostEcho;
-import com.echonymous.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PostEchoRepository extends JpaRepository<PostEcho, Long> {
-    Optional<PostEcho> findByPostAndUser(Post post, User user);
-    Optional<PostEcho> findByPostAndUser_UserId(Post post, Long userId);
-
     int countByPost(Post post);
 
-    @Query("SELECT pe FROM PostEcho pe WHERE pe.user.userId = :userId AND TYPE(pe.post) = TextPost ORDER BY " +
-            "pe.echoedAt DESC")
-    List<PostEcho> findTextPostEchoedByUser(@Param("userId") Long userId, Pageable pageable);
+    boolean existsByPost_PostIdAndUser_UserId(Long postId, Long userId);
+
+    // Idempotent echo: relies on the (post_id, user_id) unique constraint, returns 0 if the echo already exists
+    @Modifying
+    @Query("INSERT INTO PostEcho (post.postId, user.userId, echoedAt) VALUES (:postId, :userId, :echoedAt) " +
+            "ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("postId") Long postId, @Param("userId") Long userId, @Param("echoedAt") LocalDateTime echoedAt);
+
+    // Idempotent unecho, returns 0 if there was nothing to delete
+    @Modifying
+    @Query("DELETE FROM PostEcho pe WHERE pe.post.postId = :postId AND pe.user.userId = :userId")
+    int deleteByPostIdAndUserId(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    // Which of the given posts the user has echoed
+    @Query("SELECT pe.post.postId FROM PostEcho pe WHERE pe.user.userId = :userId AND pe.post.postId IN :postIds")
+    List<Long> findEchoedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    // Echoed text posts are projected together with the echo's sort key; the entity join on TextPost also
+    // restricts the page to text posts
+    String ECHOED_SUMMARY = "new com.echonymous.dto.EchoedTextPostSummaryDTO(pe.postEchoId, pe.echoedAt, p.postId, " +
+            "p.category, p.content, p.authorId, p.createdAt, p.updatedAt, p.likeCount, p.commentCount, p.echoCount)";
+
+    @Query("SELECT " + ECHOED_SUMMARY + " FROM PostEcho pe JOIN TextPost p ON p.postId = pe.post.postId " +
+            "WHERE pe.user.userId = :userId ORDER BY pe.echoedAt DESC, pe.postEchoId DESC")
+    List<EchoedTextPostSummaryDTO> findTextPostEchoedByUser(@Param("userId") Long userId, Pageable pageable);
+
+    // With pagination using a cursor (fetch echoes sorting after the last (echoedAt, postEchoId) seen)
+    @Query("SELECT " + ECHOED_SUMMARY + " FROM PostEcho pe JOIN TextPost p ON p.postId = pe.post.postId " +
+            "WHERE pe.user.userId = :userId AND (pe.echoedAt, pe.postEchoId) < (:echoedAt, :echoId) " +
+            "ORDER BY pe.echoedAt DESC, pe.postEchoId DESC")
+    List<EchoedTextPostSummaryDTO> findTextPostEchoedByUserAfterCursor(@Param("userId") Long userId,
+                                                                       @Param("echoedAt") LocalDateTime echoedAt,
+                                                                       @Param("echoId") Long echoId,
+                                                                       Pageable pageable);
+
+    // Membership index: every user who echoed one of the given posts, streamed in fetch-size batches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constants.EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.echonymous.dto.PostReactorDTO(pe.post.postId, pe.user.userId) FROM PostEcho pe " +
+            "WHERE pe.post.postId IN :postIds")
+    Stream<PostReactorDTO> streamReactorsByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // Data export: every echo the user made (of any post type), streamed in fetch-size batches (newest first)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constants.EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.echonymous.dto.EngagementExportDTO(pe.post.postId, pe.echoedAt) FROM PostEcho pe " +
+            "WHERE pe.user.userId = :userId ORDER BY pe.echoedAt DESC, pe.postEchoId DESC")
+    Stream<EngagementExportDTO> streamExportByUserId(@Param("userId") Long userId);
+
+    // Post purge: one batch of the post's echoes at a time
+    @Query("SELECT pe.postEchoId FROM PostEcho pe WHERE pe.post.postId = :postId")
+    List<Long> findIdsByPostId(@Param("postId") Long postId, Pageable pageable);
 
-    // With pagination using a cursor (fetch echoed with echoedAt before the given timestamp)
-    @Query("SELECT pe FROM PostEcho pe WHERE pe.user.userId = :userId AND TYPE(pe.post) = TextPost AND " +
-            "pe.echoedAt < :cursor ORDER BY pe.echoedAt DESC")
-    List<PostEcho> findTextPostEchoedByUserBefore(@Param("userId") Long userId,
-                                                  @Param("cursor") LocalDateTime cursor,
-                                                  Pageable pageable);
+    @Modifying
+    @Query("DELETE FROM PostEcho pe WHERE pe.postEchoId IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,16 +1,62 @@
 package com.echonymous.repository;
 
+import com.echonymous.constants.Constants;
+import com.echonymous.dto.EngagementExportDTO;
+import com.echonymous.dto.PostReactorDTO;
 import com.echonymous.entity.Post;
 import com.echonymous.entity.PostLike;
-import com.echonymous.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
-    Optional<PostLike> findByPostAndUser(Post post, User user);
-    Optional<PostLike> findByPostAndUser_UserId(Post post, Long userId);
-
     // Counts the number of likes for a given post
     int countByPost(Post post);
+
+    boolean existsByPost_PostIdAndUser_UserId(Long postId, Long userId);
+
+    // Idempotent like: relies on the (post_id, user_id) unique constraint, returns 0 if the like already exists
+    @Modifying
+    @Query("INSERT INTO PostLike (post.postId, user.userId, likedAt) VALUES (:postId, :userId, :likedAt) " +
+            "ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("postId") Long postId, @Param("userId") Long userId, @Param("likedAt") LocalDateTime likedAt);
+
+    // Idempotent unlike, returns 0 if there was nothing to delete
+    @Modifying
+    @Query("DELETE FROM PostLike pl WHERE pl.post.postId = :postId AND pl.user.userId = :userId")
+    int deleteByPostIdAndUserId(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    // Which of the given posts the user has liked
+    @Query("SELECT pl.post.postId FROM PostLike pl WHERE pl.user.userId = :userId AND pl.post.postId IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    // Membership index: every user who liked one of the given posts, streamed in fetch-size batches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constants.EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.echonymous.dto.PostReactorDTO(pl.post.postId, pl.user.userId) FROM PostLike pl " +
+            "WHERE pl.post.postId IN :postIds")
+    Stream<PostReactorDTO> streamReactorsByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // Data export: every like the user gave, streamed in fetch-size batches (newest first)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constants.EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.echonymous.dto.EngagementExportDTO(pl.post.postId, pl.likedAt) FROM PostLike pl " +
+            "WHERE pl.user.userId = :userId ORDER BY pl.likedAt DESC, pl.postLikeId DESC")
+    Stream<EngagementExportDTO> streamExportByUserId(@Param("userId") Long userId);
+
+    // Post purge: one batch of the post's likes at a time
+    @Query("SELECT pl.postLikeId FROM PostLike pl WHERE pl.post.postId = :postId")
+    List<Long> findIdsByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM PostLike pl WHERE pl.postLikeId IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,9 +1,75 @@
 package com.echonymous.repository;
 
 import com.echonymous.entity.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+    // Atomic counter updates (UPDATE ... SET x = x + :delta), never read-modify-write
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount + :delta WHERE p.postId = :postId")
+    int incrementLikeCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta WHERE p.postId = :postId")
+    int incrementCommentCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.echoCount = p.echoCount + :delta WHERE p.postId = :postId")
+    int incrementEchoCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+    @Query("SELECT p.likeCount FROM Post p WHERE p.postId = :postId")
+    Optional<Integer> findLikeCount(@Param("postId") Long postId);
+
+    @Query("SELECT p.echoCount FROM Post p WHERE p.postId = :postId")
+    Optional<Integer> findEchoCount(@Param("postId") Long postId);
+
+    // Chunked walk over all post ids for the counter reconciliation job
+    @Query("SELECT p.postId FROM Post p WHERE p.postId > :afterId ORDER BY p.postId")
+    List<Long> findPostIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Ids among the given posts whose stored counters no longer match the engagement rows
+    @Query("SELECT p.postId FROM Post p WHERE p.postId IN :postIds AND (" +
+            "p.likeCount <> (SELECT COUNT(pl) FROM PostLike pl WHERE pl.post = p) OR " +
+            "p.commentCount <> (SELECT COUNT(pc) FROM PostComment pc WHERE pc.post = p) OR " +
+            "p.echoCount <> (SELECT COUNT(pe) FROM PostEcho pe WHERE pe.post = p))")
+    List<Long> findPostIdsWithCounterDrift(@Param("postIds") Collection<Long> postIds);
+
+    // Recomputes the counters of the given posts from the engagement rows in a single statement
+    @Modifying
+    @Query("UPDATE Post p SET " +
+            "p.likeCount = (SELECT COUNT(pl) FROM PostLike pl WHERE pl.post = p), " +
+            "p.commentCount = (SELECT COUNT(pc) FROM PostComment pc WHERE pc.post = p), " +
+            "p.echoCount = (SELECT COUNT(pe) FROM PostEcho pe WHERE pe.post = p) " +
+            "WHERE p.postId IN :postIds")
+    int recomputeCounters(@Param("postIds") Collection<Long> postIds);
+
+    // Soft delete: from now on @SQLRestriction hides the post from every entity query
+    @Modifying
+    @Query("UPDATE Post p SET p.deletedAt = :deletedAt WHERE p.postId = :postId")
+    int markDeleted(@Param("postId") Long postId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Purge queries are native, since soft-deleted posts are invisible to HQL
+    @Query(value = "SELECT post_id FROM post WHERE deleted_at IS NOT NULL AND purge_attempts < :maxAttempts " +
+            "ORDER BY deleted_at, post_id LIMIT :limit", nativeQuery = true)
+    List<Long> findPostIdsToPurge(@Param("maxAttempts") int maxAttempts, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE post SET purge_attempts = purge_attempts + 1 WHERE post_id = :postId", nativeQuery = true)
+    int incrementPurgeAttempts(@Param("postId") Long postId);
+
+    // Removes the row itself once the purge has deleted everything that references it
+    @Modifying
+    @Query(value = "DELETE FROM post WHERE post_id = :postId AND deleted_at IS NOT NULL", nativeQuery = true)
+    int deleteSoftDeleted(@Param("postId") Long postId);
 }
@@ -1,30 +1,126 @@
 package com.echonymous.repository;
 
+import com.echonymous.constants.Constants;
+import com.echonymous.dto.ScoredPostDTO;
+import com.echonymous.dto.TextPostSummaryDTO;
+import com.echonymous.dto.TimelineEntryDTO;
 import com.echonymous.entity.TextPost;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TextPostRepository extends JpaRepository<TextPost, Long> {
+    // Feed reads project straight into TextPostSummaryDTO, so no TextPost entity (or its @Lob content) is
+    // materialized in the persistence context. Feeds are ordered by (createdAt, postId) so posts sharing a
+    // timestamp have a stable order; cursor queries continue strictly after the last (createdAt, postId) seen
+    // with a row-value predicate.
+    String SUMMARY = "new com.echonymous.dto.TextPostSummaryDTO(p.postId, p.category, p.content, p.authorId, " +
+            "p.createdAt, p.updatedAt, p.likeCount, p.commentCount, p.echoCount)";
+
     // Initial query: fetch the latest text posts
-    List<TextPost> findAllByOrderByCreatedAtDesc(Pageable pageable);
+    @Query("SELECT " + SUMMARY + " FROM TextPost p ORDER BY p.createdAt DESC, p.postId DESC")
+    List<TextPostSummaryDTO> findLatestSummaries(Pageable pageable);
 
-    // When a cursor is provided, fetch text posts whose createdAt is before the cursor
-    List<TextPost> findByCreatedAtBeforeOrderByCreatedAtDesc(LocalDateTime cursor, Pageable pageable);
+    // When a cursor is provided, fetch text posts that sort after the cursor
+    @Query("SELECT " + SUMMARY + " FROM TextPost p WHERE (p.createdAt, p.postId) < (:createdAt, :postId) " +
+            "ORDER BY p.createdAt DESC, p.postId DESC")
+    List<TextPostSummaryDTO> findSummariesAfterCursor(@Param("createdAt") LocalDateTime createdAt, @Param("postId") Long postId,
+                                                      Pageable pageable);
 
-    // Fetch text posts filtered by category without cursor
-    List<TextPost> findByCategoryIgnoreCaseOrderByCreatedAtDesc(String category, Pageable pageable);
+    // Fetch text posts filtered by normalized category without cursor (idx_post_type_category_key_created_at_id)
+    @Query("SELECT " + SUMMARY + " FROM TextPost p WHERE p.categoryKey = :categoryKey " +
+            "ORDER BY p.createdAt DESC, p.postId DESC")
+    List<TextPostSummaryDTO> findSummariesByCategoryKey(@Param("categoryKey") String categoryKey, Pageable pageable);
 
-    // Fetch text posts filtered by category with a cursor for pagination
-    List<TextPost> findByCategoryIgnoreCaseAndCreatedAtBeforeOrderByCreatedAtDesc(String category, LocalDateTime cursor, Pageable pageable);
+    // Fetch text posts filtered by normalized category with a cursor for pagination
+    @Query("SELECT " + SUMMARY + " FROM TextPost p WHERE p.categoryKey = :categoryKey AND " +
+            "(p.createdAt, p.postId) < (:createdAt, :postId) ORDER BY p.createdAt DESC, p.postId DESC")
+    List<TextPostSummaryDTO> findSummariesByCategoryKeyAfterCursor(@Param("categoryKey") String categoryKey,
+                                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                                   @Param("postId") Long postId, Pageable pageable);
 
     // Get the posts for the given author sorted by createdAt descending
-    List<TextPost> findByAuthorIdOrderByCreatedAtDesc(Long authorId, Pageable pageable);
+    @Query("SELECT " + SUMMARY + " FROM TextPost p WHERE p.authorId = :authorId ORDER BY p.createdAt DESC, p.postId DESC")
+    List<TextPostSummaryDTO> findSummariesByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    // When a cursor is provided, get the author's posts that sort after the cursor
+    @Query("SELECT " + SUMMARY + " FROM TextPost p WHERE p.authorId = :authorId AND " +
+            "(p.createdAt, p.postId) < (:createdAt, :postId) ORDER BY p.createdAt DESC, p.postId DESC")
+    List<TextPostSummaryDTO> findSummariesByAuthorIdAfterCursor(@Param("authorId") Long authorId,
+                                                                @Param("createdAt") LocalDateTime createdAt,
+                                                                @Param("postId") Long postId, Pageable pageable);
+
+    @Query("SELECT " + SUMMARY + " FROM TextPost p WHERE p.postId = :postId")
+    Optional<TextPostSummaryDTO> findSummaryById(@Param("postId") Long postId);
+
+    // Primary key lookup of a page whose ids come from the in-memory timelines; the caller restores the order
+    @Query("SELECT " + SUMMARY + " FROM TextPost p WHERE p.postId IN :postIds")
+    List<TextPostSummaryDTO> findSummariesByIds(@Param("postIds") Collection<Long> postIds);
+
+    // Bulk reindex: every text post in primary key order, one chunk at a time
+    @Query("SELECT " + SUMMARY + " FROM TextPost p WHERE p.postId > :afterId ORDER BY p.postId")
+    List<TextPostSummaryDTO> findSummariesAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Timeline rebuild: sort keys of the newest text posts, overall and per normalized category
+    @Query("SELECT new com.echonymous.dto.TimelineEntryDTO(p.postId, p.createdAt) FROM TextPost p " +
+            "ORDER BY p.createdAt DESC, p.postId DESC")
+    List<TimelineEntryDTO> findLatestTimelineEntries(Pageable pageable);
+
+    @Query("SELECT new com.echonymous.dto.TimelineEntryDTO(p.postId, p.createdAt) FROM TextPost p " +
+            "WHERE p.categoryKey = :categoryKey ORDER BY p.createdAt DESC, p.postId DESC")
+    List<TimelineEntryDTO> findTimelineEntriesByCategoryKey(@Param("categoryKey") String categoryKey, Pageable pageable);
+
+    // Home feed pull side: sort keys of the newest posts by the given authors
+    @Query("SELECT new com.echonymous.dto.TimelineEntryDTO(p.postId, p.createdAt) FROM TextPost p " +
+            "WHERE p.authorId IN :authorIds ORDER BY p.createdAt DESC, p.postId DESC")
+    List<TimelineEntryDTO> findTimelineEntriesByAuthorIds(@Param("authorIds") Collection<Long> authorIds, Pageable pageable);
+
+    @Query("SELECT new com.echonymous.dto.TimelineEntryDTO(p.postId, p.createdAt) FROM TextPost p " +
+            "WHERE p.authorId IN :authorIds AND (p.createdAt, p.postId) < (:createdAt, :postId) " +
+            "ORDER BY p.createdAt DESC, p.postId DESC")
+    List<TimelineEntryDTO> findTimelineEntriesByAuthorIdsAfterCursor(@Param("authorIds") Collection<Long> authorIds,
+                                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                                     @Param("postId") Long postId, Pageable pageable);
+
+    // Hot feed: (hotScore, postId) positions in score order, served by idx_post_type_hot_score_id and
+    // idx_post_type_category_key_hot_score_id; the page rows are then read by primary key
+    @Query("SELECT new com.echonymous.dto.ScoredPostDTO(p.postId, p.hotScore) FROM TextPost p " +
+            "ORDER BY p.hotScore DESC, p.postId DESC")
+    List<ScoredPostDTO> findHotEntries(Pageable pageable);
+
+    @Query("SELECT new com.echonymous.dto.ScoredPostDTO(p.postId, p.hotScore) FROM TextPost p " +
+            "WHERE (p.hotScore, p.postId) < (:hotScore, :postId) ORDER BY p.hotScore DESC, p.postId DESC")
+    List<ScoredPostDTO> findHotEntriesAfterCursor(@Param("hotScore") double hotScore, @Param("postId") Long postId,
+                                                  Pageable pageable);
+
+    @Query("SELECT new com.echonymous.dto.ScoredPostDTO(p.postId, p.hotScore) FROM TextPost p " +
+            "WHERE p.categoryKey = :categoryKey ORDER BY p.hotScore DESC, p.postId DESC")
+    List<ScoredPostDTO> findHotEntriesByCategoryKey(@Param("categoryKey") String categoryKey, Pageable pageable);
+
+    @Query("SELECT new com.echonymous.dto.ScoredPostDTO(p.postId, p.hotScore) FROM TextPost p " +
+            "WHERE p.categoryKey = :categoryKey AND (p.hotScore, p.postId) < (:hotScore, :postId) " +
+            "ORDER BY p.hotScore DESC, p.postId DESC")
+    List<ScoredPostDTO> findHotEntriesByCategoryKeyAfterCursor(@Param("categoryKey") String categoryKey,
+                                                               @Param("hotScore") double hotScore,
+                                                               @Param("postId") Long postId, Pageable pageable);
+
+    @Query("SELECT DISTINCT p.categoryKey FROM TextPost p WHERE p.categoryKey IS NOT NULL")
+    List<String> findDistinctCategoryKeys();
 
-    // When a cursor is provided (createdAt timestamp), get posts with createdAt before this value
-    List<TextPost> findByAuthorIdAndCreatedAtBeforeOrderByCreatedAtDesc(Long authorId, LocalDateTime createdAt, Pageable pageable);
+    // Data export: every text post of the author, streamed in fetch-size batches (newest first, via the profile index)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constants.EXPORT_FETCH_SIZE))
+    @Query("SELECT " + SUMMARY + " FROM TextPost p WHERE p.authorId = :authorId ORDER BY p.createdAt DESC, p.postId DESC")
+    Stream<TextPostSummaryDTO> streamSummariesByAuthorId(@Param("authorId") Long authorId);
 }
@@ -0,0 +1,37 @@
+package com.echonymous.repository;
+
+import com.echonymous.entity.UserFollow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UserFollowRepository extends JpaRepository<UserFollow, Long> {
+    // Idempotent follow: relies on the (follower_id, followee_id) unique constraint, returns 0 if already following
+    @Modifying
+    @Query("INSERT INTO UserFollow (follower.userId, followee.userId, followedAt) VALUES (:followerId, :followeeId, :followedAt) " +
+            "ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId,
+                       @Param("followedAt") LocalDateTime followedAt);
+
+    // Idempotent unfollow, returns 0 if there was nothing to delete
+    @Modifying
+    @Query("DELETE FROM UserFollow f WHERE f.follower.userId = :followerId AND f.followee.userId = :followeeId")
+    int deleteByFollowerIdAndFolloweeId(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    boolean existsByFollower_UserIdAndFollowee_UserId(Long followerId, Long followeeId);
+
+    // Chunked walk over an author's followers in id order, for the fan-out on write
+    @Query("SELECT f.follower.userId FROM UserFollow f WHERE f.followee.userId = :followeeId AND f.follower.userId > :afterId " +
+            "ORDER BY f.follower.userId")
+    List<Long> findFollowerIdsAfter(@Param("followeeId") Long followeeId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Followed authors with too many followers to push to; their posts are pulled when the home feed is read
+    @Query("SELECT f.followee.userId FROM UserFollow f WHERE f.follower.userId = :followerId " +
+            "AND f.followee.followerCount > :maxPushFollowers")
+    List<Long> findPulledFolloweeIds(@Param("followerId") Long followerId, @Param("maxPushFollowers") int maxPushFollowers);
+}
@@ -2,6 +2,9 @@ package com.echonymous.repository;
 
 import com.echonymous.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +14,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
+
+    // Atomic counter update (UPDATE ... SET x = x + :delta), never read-modify-write
+    @Modifying
+    @Query("UPDATE User u SET u.followerCount = u.followerCount + :delta WHERE u.userId = :userId")
+    int incrementFollowerCount(@Param("userId") Long userId, @Param("delta") int delta);
+
+    @Query("SELECT u.followerCount FROM User u WHERE u.userId = :userId")
+    Optional<Integer> findFollowerCount(@Param("userId") Long userId);
 }
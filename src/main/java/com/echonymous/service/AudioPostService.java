@@ -0,0 +1,99 @@
+package com.echonymous.service;
+
+import com.echonymous.dto.StoredBlobDTO;
+import com.echonymous.entity.AudioPost;
+import com.echonymous.exception.NotFoundException;
+import com.echonymous.repository.AudioPostRepository;
+import com.echonymous.storage.BlobStore;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Audio posts: the upload is streamed into the BlobStore before the post row is written, so no database
+ * connection is held while the client sends the file, and playback reads byte ranges back out of the store.
+ */
+@Service
+@Slf4j
+public class AudioPostService {
+    private final AudioPostRepository audioPostRepository;
+    private final BlobStore blobStore;
+    private final long maxSizeBytes;
+    private final int maxDurationSeconds;
+    private final Set<String> allowedContentTypes;
+
+    public AudioPostService(AudioPostRepository audioPostRepository, BlobStore blobStore,
+                            @Value("${echonymous.audio.max-size-bytes:20971520}") long maxSizeBytes,
+                            @Value("${echonymous.audio.max-duration-seconds:600}") int maxDurationSeconds,
+                            @Value("${echonymous.audio.allowed-content-types:audio/mpeg,audio/mp4,audio/ogg,audio/webm,audio/wav}")
+                            Set<String> allowedContentTypes) {
+        this.audioPostRepository = audioPostRepository;
+        this.blobStore = blobStore;
+        this.maxSizeBytes = maxSizeBytes;
+        this.maxDurationSeconds = maxDurationSeconds;
+        this.allowedContentTypes = allowedContentTypes;
+    }
+
+    public long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    // The duration is declared by the client (measuring it would mean decoding every supported format)
+    public AudioPost createAudioPost(String category, Integer durationSeconds, String contentType, InputStream audio,
+                                     Long userId) throws IOException {
+        if (category == null || category.isBlank()) {
+            throw new ValidationException("Category is required.");
+        }
+        if (durationSeconds == null || durationSeconds <= 0 || durationSeconds > maxDurationSeconds) {
+            throw new ValidationException("Duration must be between 1 and " + maxDurationSeconds + " seconds.");
+        }
+        // Parameters such as "; codecs=opus" don't change what is stored
+        String mediaType = contentType == null ? null : contentType.split(";")[0].trim().toLowerCase();
+        if (mediaType == null || !allowedContentTypes.contains(mediaType)) {
+            throw new ValidationException("Unsupported audio type: " + contentType);
+        }
+
+        StoredBlobDTO blob = blobStore.write("audio/" + UUID.randomUUID(), audio, maxSizeBytes);
+        AudioPost post = new AudioPost();
+        post.setCategory(category);
+        post.setFilePath(blob.getKey());
+        post.setContentType(mediaType);
+        post.setSizeBytes(blob.getSizeBytes());
+        post.setDurationSeconds(durationSeconds);
+        post.setChecksum(blob.getChecksum());
+        post.setAuthorId(userId);
+        post.setCreatedAt(LocalDateTime.now());
+        try {
+            return audioPostRepository.save(post);
+        } catch (RuntimeException e) {
+            // Don't leave an unreferenced file behind
+            blobStore.delete(blob.getKey());
+            throw e;
+        }
+    }
+
+    /**
+     * Returns an audio post whose file can be played. Posts uploaded before the blob store have no recorded
+     * size, and their files were never moved into it, so they are reported as not found.
+     */
+    public AudioPost getAudioPost(Long postId) {
+        AudioPost post = audioPostRepository.findById(postId)
+                .orElseThrow(() -> new NotFoundException("Audio post not found with id: " + postId));
+        if (post.getSizeBytes() == null || post.getFilePath() == null || !blobStore.exists(post.getFilePath())) {
+            throw new NotFoundException("Audio file not available for post with id: " + postId);
+        }
+        return post;
+    }
+
+    public void transferAudio(AudioPost post, long position, long count, WritableByteChannel target) throws IOException {
+        blobStore.transferTo(post.getFilePath(), position, count, target);
+    }
+}
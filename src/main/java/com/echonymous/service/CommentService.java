@@ -2,24 +2,27 @@ package com.echonymous.service;
 
 import com.echonymous.dto.CommentDTO;
 import com.echonymous.dto.FeedResponseDTO;
-import com.echonymous.entity.CommentLike;
+import com.echonymous.dto.IdCountDTO;
 import com.echonymous.entity.Post;
 import com.echonymous.entity.PostComment;
 import com.echonymous.entity.User;
+import com.echonymous.event.CommentChangedEvent;
+import com.echonymous.event.PostEngagementChangedEvent;
 import com.echonymous.repository.CommentLikeRepository;
 import com.echonymous.repository.PostCommentRepository;
 import com.echonymous.repository.PostRepository;
 import com.echonymous.repository.UserRepository;
-import com.echonymous.util.DateTimeUtils;
-import jakarta.transaction.Transactional;
+import com.echonymous.util.KeysetCursor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,12 +32,18 @@ public class CommentService {
     private final PostCommentRepository postCommentRepository;
     private final CommentLikeRepository commentLikeRepository;
     private final UserRepository userRepository;
+    private final EngagementWriteBuffer engagementWriteBuffer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HydrationFanOut hydrationFanOut;
 
-    public CommentService(PostRepository postRepository, PostCommentRepository postCommentRepository, CommentLikeRepository commentLikeRepository, UserRepository userRepository) {
+    public CommentService(PostRepository postRepository, PostCommentRepository postCommentRepository, CommentLikeRepository commentLikeRepository, UserRepository userRepository, EngagementWriteBuffer engagementWriteBuffer, ApplicationEventPublisher eventPublisher, HydrationFanOut hydrationFanOut) {
         this.postRepository = postRepository;
         this.postCommentRepository = postCommentRepository;
         this.commentLikeRepository = commentLikeRepository;
         this.userRepository = userRepository;
+        this.engagementWriteBuffer = engagementWriteBuffer;
+        this.eventPublisher = eventPublisher;
+        this.hydrationFanOut = hydrationFanOut;
     }
 
     @Transactional
@@ -59,6 +68,9 @@ public class CommentService {
         }
 
         PostComment saved = postCommentRepository.save(postComment);
+        postRepository.incrementCommentCount(postId, 1);
+        eventPublisher.publishEvent(new PostEngagementChangedEvent(postId));
+        eventPublisher.publishEvent(new CommentChangedEvent(postId));
 
         return mapToCommentDTO(saved, userId);
     }
@@ -76,13 +88,14 @@ public class CommentService {
         comment.setComment(newComment);
         comment.setUpdatedAt(LocalDateTime.now());
         PostComment updatedComm = postCommentRepository.save(comment);
+        eventPublisher.publishEvent(new CommentChangedEvent(comment.getPost().getPostId()));
 
         return mapToCommentDTO(updatedComm, userId);
     }
 
     @Transactional
     public void deleteComment(Long commentId, Long userId) {
-        PostComment comment = postCommentRepository.findById(commentId)
+        PostComment comment = postCommentRepository.findWithPostByPostCommentId(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found."));
 
         // Allow deletion if the user is the comment author or the post author
@@ -90,20 +103,32 @@ public class CommentService {
                 && !comment.getPost().getAuthorId().equals(userId)) {
             throw new RuntimeException("User not authorized to delete this comment.");
         }
-        postCommentRepository.delete(comment);
+        // Replies are removed along with the comment, so they leave the post's comment count too. The thread is
+        // found with one recursive query and removed with bulk deletes rather than through the entity cascade.
+        List<Long> threadIds = postCommentRepository.findThreadIds(commentId);
+        Long postId = comment.getPost().getPostId();
+        commentLikeRepository.deleteByCommentIds(threadIds);
+        postCommentRepository.detachFromParents(threadIds);
+        postCommentRepository.deleteByIds(threadIds);
+        postRepository.incrementCommentCount(postId, -threadIds.size());
+        eventPublisher.publishEvent(new PostEngagementChangedEvent(postId));
+        eventPublisher.publishEvent(new CommentChangedEvent(postId));
     }
 
+    @Transactional(readOnly = true)
     public FeedResponseDTO<CommentDTO> getCommentsForPost(Long postId, String cursor, int limit,  Long currentUserId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found."));
+        // Only existence matters here, so the post (and its @Lob content) is not loaded
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found.");
+        }
 
         Pageable pageable = PageRequest.of(0, limit + 1);
         List<PostComment> comments;
-        LocalDateTime cursorDate = DateTimeUtils.parseCursor(cursor);
-        if (cursorDate != null) {
-            comments = postCommentRepository.findByPostAndParentCommentIsNullAndCreatedAtBeforeOrderByCreatedAtDesc(post, cursorDate, pageable);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (after != null) {
+            comments = postCommentRepository.findTopLevelAfterCursor(postId, after.getTimestamp(), after.getId(), pageable);
         } else {
-            comments = postCommentRepository.findByPostAndParentCommentIsNullOrderByCreatedAtDesc(post, pageable);
+            comments = postCommentRepository.findTopLevel(postId, pageable);
         }
 
         // Determine if there's a next cursor
@@ -111,31 +136,26 @@ public class CommentService {
         if (hasNext) {
             comments = comments.subList(0, limit);
         }
-        // Next cursor is the createdAt of the last post in the list
-        String nextCursor = null;
-        if (!comments.isEmpty()) {
-            LocalDateTime lastCreatedAt = comments.get(comments.size() - 1).getCreatedAt();
-            nextCursor = lastCreatedAt.toString();
-        }
+        String nextCursor = nextCursor(comments);
 
-        List<CommentDTO> commentDTOs = comments.stream()
-                .map(comment -> mapToCommentDTO(comment, currentUserId))
-                .collect(Collectors.toList());
+        List<CommentDTO> commentDTOs = mapToCommentDTOs(comments, currentUserId);
 
         return new FeedResponseDTO<>(commentDTOs, nextCursor, hasNext);
     }
 
+    @Transactional(readOnly = true)
     public FeedResponseDTO<CommentDTO> getRepliesForComment(Long commentId, String cursor, int limit, Long currentUserId) {
-        PostComment parent = postCommentRepository.findById(commentId)
-                .orElseThrow(() -> new RuntimeException("Comment not found."));
+        if (!postCommentRepository.existsById(commentId)) {
+            throw new RuntimeException("Comment not found.");
+        }
 
         Pageable pageable = PageRequest.of(0, limit + 1);
         List<PostComment> replies;
-        LocalDateTime cursorDate = DateTimeUtils.parseCursor(cursor);
-        if (cursorDate != null) {
-            replies = postCommentRepository.findByParentCommentAndCreatedAtBeforeOrderByCreatedAtDesc(parent, cursorDate, pageable);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (after != null) {
+            replies = postCommentRepository.findRepliesAfterCursor(commentId, after.getTimestamp(), after.getId(), pageable);
         } else {
-            replies = postCommentRepository.findByParentCommentOrderByCreatedAtDesc(parent, pageable);
+            replies = postCommentRepository.findReplies(commentId, pageable);
         }
 
         boolean hasNext = replies.size() > limit;
@@ -143,15 +163,9 @@ public class CommentService {
             replies = replies.subList(0, limit);
         }
 
-        String nextCursor = null;
-        if (!replies.isEmpty()) {
-            LocalDateTime lastCreatedAt = replies.get(replies.size() - 1).getCreatedAt();
-            nextCursor = lastCreatedAt.toString();
-        }
+        String nextCursor = nextCursor(replies);
 
-        List<CommentDTO> repliesDTOs = replies.stream()
-                .map(reply -> mapToCommentDTO(reply, currentUserId))
-                .collect(Collectors.toList());
+        List<CommentDTO> repliesDTOs = mapToCommentDTOs(replies, currentUserId);
 
         return new FeedResponseDTO<>(repliesDTOs, nextCursor, hasNext);
     }
@@ -160,45 +174,102 @@ public class CommentService {
     public CommentDTO toggleCommentLike(Long commentId, Long userId) {
         PostComment comment = postCommentRepository.findById(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found."));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found."));
 
-        Optional<CommentLike> existingCommentLike = commentLikeRepository.findByCommentAndUser(comment, user);
-        if(existingCommentLike.isPresent()){
-            commentLikeRepository.delete(existingCommentLike.get());
-        } else {
-            CommentLike like = new CommentLike();
-            like.setComment(comment);
-            like.setUser(user);
-            like.setLikedAt(LocalDateTime.now());
-            commentLikeRepository.save(like);
+        if (engagementWriteBuffer.isEnabled()) {
+            engagementWriteBuffer.apply(EngagementWriteBuffer.Type.COMMENT_LIKE, commentId, userId, null,
+                    () -> commentLikeRepository.existsByComment_PostCommentIdAndUser_UserId(commentId, userId));
+        } else if (commentLikeRepository.deleteByCommentIdAndUserId(commentId, userId) == 0) {
+            // Nothing to unlike, so insert the like (the unique constraint absorbs double taps)
+            commentLikeRepository.insertIfAbsent(commentId, userId, LocalDateTime.now());
         }
         return mapToCommentDTO(comment, userId);
     }
 
+    // Next cursor is the (createdAt, postCommentId) of the last comment in the list
+    private String nextCursor(List<PostComment> comments) {
+        if (comments.isEmpty()) {
+            return null;
+        }
+        PostComment last = comments.get(comments.size() - 1);
+        return KeysetCursor.encode(last.getCreatedAt(), last.getPostCommentId());
+    }
+
+    private CommentDTO mapToCommentDTO(PostComment comment, Long currentUserId) {
+        return mapToCommentDTOs(List.of(comment), currentUserId).get(0);
+    }
+
     /**
-     * Maps PostComment (reply as well) entity to CommentDTO.
+     * Maps a page of PostComment (reply as well) entities to CommentDTOs. Reply counts, like counts and the
+     * viewer's likes are loaded with one grouped query each, so the cost does not depend on the page size or
+     * on how many replies and likes each comment has. Post, user and parent are only read by id, which does not
+     * initialize their lazy proxies.
      */
-    private CommentDTO mapToCommentDTO(PostComment comment, Long currentUserId) {
-        int commentLikesCount = commentLikeRepository.countByComment(comment);
-        boolean isCommentLiked = commentLikeRepository.findByCommentAndUser_UserId(comment, currentUserId).isPresent();
-        int replyCount = (comment.getReplies() != null) ? comment.getReplies().size() : 0;
-        Long parentCommentId = (comment.getParentComment() != null) ? comment.getParentComment().getPostCommentId() : null;
-
-        CommentDTO commentDTO = new CommentDTO();
-        commentDTO.setCommentId(comment.getPostCommentId());
-        commentDTO.setPostId(comment.getPost().getPostId());
-        commentDTO.setUserId(comment.getUser().getUserId());
-        commentDTO.setComment(comment.getComment());
-        commentDTO.setCreatedAt(comment.getCreatedAt());
-        commentDTO.setUpdatedAt(comment.getUpdatedAt());
-        commentDTO.setCommentLikesCount(commentLikesCount);
-        commentDTO.setCommentLiked(isCommentLiked);
-        commentDTO.setParentCommentId(parentCommentId);
-        commentDTO.setReplyCount(replyCount);
-        // Determine if this comment was authored by the current user.
-        commentDTO.setIsCurrentUserComment(comment.getUser().getUserId().equals(currentUserId));
-
-        return commentDTO;
+    private List<CommentDTO> mapToCommentDTOs(List<PostComment> comments, Long currentUserId) {
+        if (comments.isEmpty()) {
+            return List.of();
+        }
+        List<Long> commentIds = comments.stream()
+                .map(PostComment::getPostCommentId)
+                .collect(Collectors.toList());
+        // The three lookups are independent; one that misses the deadline yields null and marks the page partial
+        Map<Long, Long> replyCounts;
+        Map<Long, Long> likeCounts;
+        Set<Long> likedIds = Set.of();
+        try (HydrationFanOut.Batch batch = hydrationFanOut.begin("comment")) {
+            Future<Map<Long, Long>> replies = batch.fork("reply_counts", () -> toCountMap(postCommentRepository.countRepliesByParentIds(commentIds)));
+            Future<Map<Long, Long>> likes = batch.fork("like_counts", () -> toCountMap(commentLikeRepository.countByCommentIds(commentIds)));
+            Future<Set<Long>> liked = currentUserId == null ? null
+                    : batch.fork("liked", () -> new HashSet<>(commentLikeRepository.findLikedCommentIds(currentUserId, commentIds)));
+            replyCounts = batch.join(replies, "reply_counts", null);
+            likeCounts = batch.join(likes, "like_counts", null);
+            if (liked != null) {
+                likedIds = batch.join(liked, "liked", null);
+            }
+        }
+        boolean partial = replyCounts == null || likeCounts == null || likedIds == null;
+        if (replyCounts == null) {
+            replyCounts = Map.of();
+        }
+        if (likeCounts == null) {
+            likeCounts = Map.of();
+        }
+        if (likedIds == null) {
+            likedIds = Set.of();
+        }
+
+        List<CommentDTO> commentDTOs = new ArrayList<>(comments.size());
+        for (PostComment comment : comments) {
+            Long commentId = comment.getPostCommentId();
+            int commentLikesCount = likeCounts.getOrDefault(commentId, 0L).intValue()
+                    + engagementWriteBuffer.pendingDelta(EngagementWriteBuffer.Type.COMMENT_LIKE, commentId);
+            boolean isCommentLiked = engagementWriteBuffer.pendingState(EngagementWriteBuffer.Type.COMMENT_LIKE, commentId, currentUserId)
+                    .orElse(likedIds.contains(commentId));
+            Long parentCommentId = (comment.getParentComment() != null) ? comment.getParentComment().getPostCommentId() : null;
+
+            CommentDTO commentDTO = new CommentDTO();
+            commentDTO.setCommentId(commentId);
+            commentDTO.setPostId(comment.getPost().getPostId());
+            commentDTO.setUserId(comment.getUser().getUserId());
+            commentDTO.setComment(comment.getComment());
+            commentDTO.setCreatedAt(comment.getCreatedAt());
+            commentDTO.setUpdatedAt(comment.getUpdatedAt());
+            commentDTO.setCommentLikesCount(commentLikesCount);
+            commentDTO.setCommentLiked(isCommentLiked);
+            commentDTO.setParentCommentId(parentCommentId);
+            commentDTO.setReplyCount(replyCounts.getOrDefault(commentId, 0L).intValue());
+            // Determine if this comment was authored by the current user.
+            commentDTO.setIsCurrentUserComment(comment.getUser().getUserId().equals(currentUserId));
+            commentDTO.setPartial(partial);
+            commentDTOs.add(commentDTO);
+        }
+        return commentDTOs;
+    }
+
+    private static Map<Long, Long> toCountMap(List<IdCountDTO> counts) {
+        Map<Long, Long> countMap = new HashMap<>();
+        for (IdCountDTO count : counts) {
+            countMap.put(count.getId(), count.getCount());
+        }
+        return countMap;
     }
 }
@@ -0,0 +1,92 @@
+package com.echonymous.service;
+
+import com.echonymous.dto.ExportRecordDTO;
+import com.echonymous.repository.PostCommentRepository;
+import com.echonymous.repository.PostEchoRepository;
+import com.echonymous.repository.PostLikeRepository;
+import com.echonymous.repository.TextPostRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes everything a user created (text posts, comments, likes and echoes) as newline-delimited JSON, one
+ * {"type": ..., "data": ...} object per line. Rows are read through streaming queries and projected into DTOs,
+ * which never enter the persistence context, so memory use does not grow with the size of the export.
+ */
+@Service
+@Slf4j
+public class DataExportService {
+    private final TextPostRepository textPostRepository;
+    private final PostCommentRepository postCommentRepository;
+    private final PostLikeRepository postLikeRepository;
+    private final PostEchoRepository postEchoRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final int flushInterval;
+
+    public DataExportService(TextPostRepository textPostRepository, PostCommentRepository postCommentRepository,
+                             PostLikeRepository postLikeRepository, PostEchoRepository postEchoRepository,
+                             ObjectMapper objectMapper,
+                             @Value("${echonymous.export.flush-interval:1000}") int flushInterval) {
+        this.textPostRepository = textPostRepository;
+        this.postCommentRepository = postCommentRepository;
+        this.postLikeRepository = postLikeRepository;
+        this.postEchoRepository = postEchoRepository;
+        this.objectMapper = objectMapper;
+        // Flushing is batched below instead of after every row
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushInterval = flushInterval;
+    }
+
+    // The streams hold an open cursor, so they are read inside one read-only transaction (which also lets the
+    // Postgres driver honour the fetch size instead of buffering the whole result). Returns the number of rows.
+    @Transactional(readOnly = true)
+    public long exportUserData(Long userId, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        // The caller owns the stream; lines are separated explicitly below
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        long rows = 0;
+        try (Stream<?> posts = textPostRepository.streamSummariesByAuthorId(userId)) {
+            rows += write(generator, "post", posts, rows);
+        }
+        try (Stream<?> comments = postCommentRepository.streamExportByUserId(userId)) {
+            rows += write(generator, "comment", comments, rows);
+        }
+        try (Stream<?> likes = postLikeRepository.streamExportByUserId(userId)) {
+            rows += write(generator, "like", likes, rows);
+        }
+        try (Stream<?> echoes = postEchoRepository.streamExportByUserId(userId)) {
+            rows += write(generator, "echo", echoes, rows);
+        }
+        generator.flush();
+
+        log.info("Exported {} rows for user {}", rows, userId);
+        return rows;
+    }
+
+    // Flushes every flushInterval rows, so the client receives the export while it is still being read
+    private long write(JsonGenerator generator, String type, Stream<?> rows, long written) throws IOException {
+        long count = 0;
+        for (Iterator<?> it = rows.iterator(); it.hasNext(); ) {
+            writer.writeValue(generator, new ExportRecordDTO(type, it.next()));
+            generator.writeRaw('\n');
+            if ((written + ++count) % flushInterval == 0) {
+                generator.flush();
+            }
+        }
+        return count;
+    }
+}
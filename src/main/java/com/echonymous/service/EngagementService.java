@@ -0,0 +1,85 @@
+package com.echonymous.service;
+
+import com.echonymous.cache.EngagementMembershipIndex;
+import com.echonymous.dto.EngagementDTO;
+import com.echonymous.dto.TextPostSummaryDTO;
+import com.echonymous.repository.PostEchoRepository;
+import com.echonymous.repository.PostLikeRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Hydrates engagement metrics for a page of posts with a fixed number of queries. Posts held by the
+ * membership index get their flags and exact counts from memory. For the rest, counts come from the
+ * denormalized counters on Post, and the "did I like/echo it" flags take one lookup per type.
+ * Changes still sitting in the write-behind buffer are overlaid on top. The two flag lookups are independent
+ * and fan out in parallel; if one misses the deadline the posts it covers are marked partial.
+ */
+@Service
+public class EngagementService {
+    private final PostLikeRepository postLikeRepository;
+    private final PostEchoRepository postEchoRepository;
+    private final EngagementWriteBuffer engagementWriteBuffer;
+    private final HydrationFanOut hydrationFanOut;
+    private final EngagementMembershipIndex membershipIndex;
+
+    public EngagementService(PostLikeRepository postLikeRepository, PostEchoRepository postEchoRepository, EngagementWriteBuffer engagementWriteBuffer, HydrationFanOut hydrationFanOut, EngagementMembershipIndex membershipIndex) {
+        this.postLikeRepository = postLikeRepository;
+        this.postEchoRepository = postEchoRepository;
+        this.engagementWriteBuffer = engagementWriteBuffer;
+        this.hydrationFanOut = hydrationFanOut;
+        this.membershipIndex = membershipIndex;
+    }
+
+    /**
+     * Returns the engagement of every given post keyed by post id.
+     */
+    public Map<Long, EngagementDTO> getPostEngagements(List<? extends TextPostSummaryDTO> posts, Long currentUserId) {
+        if (posts.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Long> postIds = posts.stream()
+                .map(TextPostSummaryDTO::getPostId)
+                .collect(Collectors.toList());
+        Map<Long, EngagementMembershipIndex.Membership> indexed = membershipIndex.lookup(postIds, currentUserId);
+        List<Long> missing = postIds.stream()
+                .filter(postId -> !indexed.containsKey(postId))
+                .collect(Collectors.toList());
+        // null: the lookup missed its deadline and the flags are unknown
+        Set<Long> likedPostIds = Set.of();
+        Set<Long> echoedPostIds = Set.of();
+        if (!missing.isEmpty()) {
+            try (HydrationFanOut.Batch batch = hydrationFanOut.begin("post")) {
+                Future<Set<Long>> liked = batch.fork("liked", () -> new HashSet<>(postLikeRepository.findLikedPostIds(currentUserId, missing)));
+                Future<Set<Long>> echoed = batch.fork("echoed", () -> new HashSet<>(postEchoRepository.findEchoedPostIds(currentUserId, missing)));
+                likedPostIds = batch.join(liked, "liked", null);
+                echoedPostIds = batch.join(echoed, "echoed", null);
+            }
+        }
+
+        Map<Long, EngagementDTO> engagements = new HashMap<>();
+        for (TextPostSummaryDTO post : posts) {
+            Long postId = post.getPostId();
+            EngagementMembershipIndex.Membership membership = indexed.get(postId);
+            int likeCount = membership != null ? membership.likeCount() : post.getLikeCount();
+            int echoCount = membership != null ? membership.echoCount() : post.getEchoCount();
+            boolean partial = membership == null && (likedPostIds == null || echoedPostIds == null);
+            boolean liked = membership != null ? membership.liked() : likedPostIds != null && likedPostIds.contains(postId);
+            boolean echoed = membership != null ? membership.echoed() : echoedPostIds != null && echoedPostIds.contains(postId);
+            engagements.put(postId, new EngagementDTO(
+                    likeCount + engagementWriteBuffer.pendingDelta(EngagementWriteBuffer.Type.POST_LIKE, postId),
+                    post.getCommentCount(),
+                    echoCount + engagementWriteBuffer.pendingDelta(EngagementWriteBuffer.Type.POST_ECHO, postId),
+                    engagementWriteBuffer.pendingState(EngagementWriteBuffer.Type.POST_LIKE, postId, currentUserId)
+                            .orElse(liked),
+                    engagementWriteBuffer.pendingState(EngagementWriteBuffer.Type.POST_ECHO, postId, currentUserId)
+                            .orElse(echoed),
+                    partial));
+        }
+        return engagements;
+    }
+}
@@ -0,0 +1,489 @@
+package com.echonymous.service;
+
+import com.echonymous.event.PostEngagementChangedEvent;
+import com.echonymous.event.PostReactionChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Opt-in write-behind buffer for like/echo toggles (echonymous.engagement.write-behind.enabled).
+ *
+ * Toggles land in per-target lock stripes instead of hitting the database. Repeated toggles by the same user
+ * collapse into a single pending row change, and a toggle that returns to the persisted state cancels out.
+ * The buffer is flushed with batched JDBC statements every flush-interval-ms, as soon as flush-threshold
+ * toggles have been buffered, and on shutdown. Reads overlay the pending state so users see their own
+ * toggles immediately.
+ */
+@Component
+@Slf4j
+public class EngagementWriteBuffer {
+
+    public enum Type {
+        POST_LIKE, POST_ECHO, COMMENT_LIKE
+    }
+
+    private record Key(Type type, Long targetId, Long userId) {
+    }
+
+    private record TargetKey(Type type, Long targetId) {
+    }
+
+    // persisted: row state in the database (once in-flight changes land); desired: state requested by the user
+    private record Pending(boolean persisted, boolean desired, LocalDateTime toggledAt) {
+        int delta() {
+            return Boolean.compare(desired, persisted);
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<Key, Pending> pending = new HashMap<>();
+        private Map<Key, Pending> inFlight = new HashMap<>();
+        private final Map<TargetKey, Integer> pendingDeltas = new HashMap<>();
+        private final Map<TargetKey, Integer> inFlightDeltas = new HashMap<>();
+        // Bumped whenever in-flight changes are settled, so a persisted state read outside the lock can be checked
+        private long settled;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int flushThreshold;
+    private final Stripe[] stripes;
+    private final String postTable;
+    private final String postLikeTable;
+    private final String postEchoTable;
+    private final String commentLikeTable;
+
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicInteger eventsSinceFlush = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "engagement-buffer-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Timer flushTimer;
+    private final Counter dropped;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EngagementWriteBuffer(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${echonymous.engagement.write-behind.enabled:false}") boolean enabled,
+                                 @Value("${echonymous.engagement.write-behind.stripes:64}") int stripeCount,
+                                 @Value("${echonymous.engagement.write-behind.flush-threshold:1000}") int flushThreshold,
+                                 @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.flushThreshold = flushThreshold;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        String prefix = schema.isBlank() ? "" : schema + ".";
+        this.postTable = prefix + "post";
+        this.postLikeTable = prefix + "post_like";
+        this.postEchoTable = prefix + "post_echo";
+        this.commentLikeTable = prefix + "comment_like";
+
+        Gauge.builder("echonymous.engagement.buffer.depth", depth, AtomicInteger::get)
+                .description("Pending engagement changes not yet flushed to the database")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("echonymous.engagement.buffer.flush")
+                .description("Time taken to flush the engagement write buffer")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("echonymous.engagement.buffer.dropped")
+                .description("Buffered engagement changes that could not be written and were discarded")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers a like/echo change and returns the resulting state for the user.
+     *
+     * @param desired        the requested state, or null to toggle the current state
+     * @param persistedState looks up the row state in the database; only called when nothing is buffered yet
+     */
+    public boolean apply(Type type, Long targetId, Long userId, Boolean desired, BooleanSupplier persistedState) {
+        Key key = new Key(type, targetId, userId);
+        Stripe stripe = stripeFor(type, targetId);
+        // The database lookup runs outside the stripe lock; it is only used if, under the lock, nothing has been
+        // buffered for the key and no flush has settled in between. Otherwise it is looked up again.
+        Boolean persistedLookup = null;
+        long lookedUpAt = -1;
+        boolean newState;
+        while (true) {
+            stripe.lock.lock();
+            boolean buffered = stripe.pending.containsKey(key) || stripe.inFlight.containsKey(key);
+            if (buffered || (persistedLookup != null && lookedUpAt == stripe.settled)) {
+                break;
+            }
+            lookedUpAt = stripe.settled;
+            stripe.lock.unlock();
+            persistedLookup = persistedState.getAsBoolean();
+        }
+        try {
+            Pending current = stripe.pending.get(key);
+            if (current == null) {
+                Pending inFlight = stripe.inFlight.get(key);
+                boolean persisted = inFlight != null ? inFlight.desired() : persistedLookup;
+                current = new Pending(persisted, persisted, null);
+            } else {
+                depth.decrementAndGet();
+            }
+            newState = desired != null ? desired : !current.desired();
+            Pending updated = new Pending(current.persisted(), newState, LocalDateTime.now());
+
+            TargetKey targetKey = new TargetKey(type, targetId);
+            stripe.pendingDeltas.merge(targetKey, updated.delta() - current.delta(), Integer::sum);
+            if (updated.delta() == 0) {
+                // Toggled back to the persisted state, nothing left to write
+                stripe.pending.remove(key);
+            } else {
+                stripe.pending.put(key, updated);
+                depth.incrementAndGet();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (eventsSinceFlush.incrementAndGet() >= flushThreshold && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+        return newState;
+    }
+
+    /**
+     * Net count change of the target that is buffered but not yet visible in the database counters.
+     */
+    public int pendingDelta(Type type, Long targetId) {
+        if (!enabled) {
+            return 0;
+        }
+        TargetKey targetKey = new TargetKey(type, targetId);
+        Stripe stripe = stripeFor(type, targetId);
+        stripe.lock.lock();
+        try {
+            return stripe.pendingDeltas.getOrDefault(targetKey, 0) + stripe.inFlightDeltas.getOrDefault(targetKey, 0);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * The user's buffered state for the target, or empty if the database state is current.
+     */
+    public Optional<Boolean> pendingState(Type type, Long targetId, Long userId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Key key = new Key(type, targetId, userId);
+        Stripe stripe = stripeFor(type, targetId);
+        stripe.lock.lock();
+        try {
+            Pending pending = stripe.pending.get(key);
+            if (pending == null) {
+                pending = stripe.inFlight.get(key);
+            }
+            return pending == null ? Optional.empty() : Optional.of(pending.desired());
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int getDepth() {
+        return depth.get();
+    }
+
+    @Scheduled(fixedDelayString = "${echonymous.engagement.write-behind.flush-interval-ms:200}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        if (enabled) {
+            log.info("Flushing {} buffered engagement changes before shutdown", depth.get());
+            flush();
+        }
+    }
+
+    /**
+     * Moves every stripe's pending changes in flight and writes them in one transaction with batched statements.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            eventsSinceFlush.set(0);
+            Map<Key, Pending> batch = new HashMap<>();
+            for (Stripe stripe : stripes) {
+                stripe.lock.lock();
+                try {
+                    if (stripe.pending.isEmpty()) {
+                        continue;
+                    }
+                    stripe.inFlight = stripe.pending;
+                    stripe.inFlightDeltas.putAll(stripe.pendingDeltas);
+                    stripe.pending = new HashMap<>();
+                    stripe.pendingDeltas.clear();
+                    batch.putAll(stripe.inFlight);
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            depth.addAndGet(-batch.size());
+
+            flushTimer.record(() -> write(batch));
+            log.debug("Flushed {} buffered engagement changes", batch.size());
+
+            // Cached feed pages carry the persisted counters, so evict the pages showing these posts
+            batch.keySet().stream()
+                    .filter(key -> key.type() != Type.COMMENT_LIKE)
+                    .map(Key::targetId)
+                    .distinct()
+                    .forEach(postId -> eventPublisher.publishEvent(new PostEngagementChangedEvent(postId)));
+            // and the membership index applies the rows as written
+            batch.forEach((key, pending) -> {
+                if (key.type() != Type.COMMENT_LIKE) {
+                    eventPublisher.publishEvent(new PostReactionChangedEvent(key.targetId(), key.userId(),
+                            key.type() == Type.POST_LIKE ? PostReactionChangedEvent.Reaction.LIKE
+                                    : PostReactionChangedEvent.Reaction.ECHO, pending.desired()));
+                }
+            });
+        } finally {
+            // Whatever is still in flight was dropped and never became visible
+            int lost = 0;
+            for (Stripe stripe : stripes) {
+                stripe.lock.lock();
+                try {
+                    if (!stripe.inFlight.isEmpty()) {
+                        lost += stripe.inFlight.size();
+                        stripe.inFlight = new HashMap<>();
+                        stripe.inFlightDeltas.clear();
+                        stripe.settled++;
+                    }
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+            if (lost > 0) {
+                dropped.increment(lost);
+                log.warn("Discarded {} buffered engagement changes that could not be written", lost);
+            }
+            flushLock.unlock();
+        }
+    }
+
+    private void write(Map<Key, Pending> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeAndSettle(batch));
+        } catch (RuntimeException e) {
+            // One bad row (e.g. a post deleted meanwhile) fails the whole batch, so retry row by row
+            log.warn("Batched engagement flush failed, retrying changes individually: {}", e.getMessage());
+            batch.forEach((key, pending) -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writeAndSettle(Map.of(key, pending)));
+                } catch (RuntimeException rowFailure) {
+                    log.error("Dropping buffered {} of target {} by user {}: {}",
+                            key.type(), key.targetId(), key.userId(), rowFailure.getMessage());
+                }
+            });
+        }
+    }
+
+    // Drops the changes from the overlay as soon as their transaction commits, so readers do not count them
+    // both in the committed counters and in pendingDelta
+    private void writeAndSettle(Map<Key, Pending> batch) {
+        writeBatch(batch);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                settle(batch);
+            }
+        });
+    }
+
+    private void settle(Map<Key, Pending> committed) {
+        for (Key key : committed.keySet()) {
+            Stripe stripe = stripeFor(key.type(), key.targetId());
+            stripe.lock.lock();
+            try {
+                Pending pending = stripe.inFlight.remove(key);
+                if (pending != null) {
+                    TargetKey targetKey = new TargetKey(key.type(), key.targetId());
+                    int remaining = stripe.inFlightDeltas.getOrDefault(targetKey, 0) - pending.delta();
+                    if (remaining == 0) {
+                        stripe.inFlightDeltas.remove(targetKey);
+                    } else {
+                        stripe.inFlightDeltas.put(targetKey, remaining);
+                    }
+                }
+                stripe.settled++;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private void writeBatch(Map<Key, Pending> batch) {
+        Map<Long, Integer> likeDeltas = new HashMap<>();
+        Map<Long, Integer> echoDeltas = new HashMap<>();
+        Set<Long> likeRecounts = new HashSet<>();
+        Set<Long> echoRecounts = new HashSet<>();
+        for (Type type : Type.values()) {
+            List<Map.Entry<Key, Pending>> inserts = new ArrayList<>();
+            List<Map.Entry<Key, Pending>> deletes = new ArrayList<>();
+            for (Map.Entry<Key, Pending> entry : batch.entrySet()) {
+                if (entry.getKey().type() == type) {
+                    (entry.getValue().desired() ? inserts : deletes).add(entry);
+                }
+            }
+            Map<Long, Integer> counterDeltas = type == Type.POST_LIKE ? likeDeltas
+                    : type == Type.POST_ECHO ? echoDeltas : null;
+            Set<Long> recounts = type == Type.POST_LIKE ? likeRecounts : echoRecounts;
+            batchInsert(type, inserts, counterDeltas, recounts);
+            batchDelete(type, deletes, counterDeltas, recounts);
+        }
+        likeDeltas.keySet().removeAll(likeRecounts);
+        echoDeltas.keySet().removeAll(echoRecounts);
+        batchUpdateCounters("like_count", likeDeltas);
+        batchUpdateCounters("echo_count", echoDeltas);
+        batchRecountCounters("like_count", postLikeTable, likeRecounts);
+        batchRecountCounters("echo_count", postEchoTable, echoRecounts);
+    }
+
+    private void batchInsert(Type type, List<Map.Entry<Key, Pending>> inserts, Map<Long, Integer> counterDeltas,
+                             Set<Long> recounts) {
+        if (inserts.isEmpty()) {
+            return;
+        }
+        String table = tableFor(type);
+        String targetColumn = targetColumnFor(type);
+        String timeColumn = type == Type.POST_ECHO ? "echoed_at" : "liked_at";
+        // Guarded insert so a row written meanwhile by the synchronous path does not fail the batch
+        String sql = "INSERT INTO " + table + " (" + targetColumn + ", user_id, " + timeColumn + ") " +
+                "SELECT ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM " + table + " WHERE " + targetColumn + " = ? AND user_id = ?)";
+        int[] counts = jdbcTemplate.batchUpdate(sql, inserts, inserts.size(), (ps, entry) -> {
+            Key key = entry.getKey();
+            ps.setLong(1, key.targetId());
+            ps.setLong(2, key.userId());
+            ps.setTimestamp(3, Timestamp.valueOf(entry.getValue().toggledAt()));
+            ps.setLong(4, key.targetId());
+            ps.setLong(5, key.userId());
+        })[0];
+        collectDeltas(inserts, counts, 1, counterDeltas, recounts);
+    }
+
+    private void batchDelete(Type type, List<Map.Entry<Key, Pending>> deletes, Map<Long, Integer> counterDeltas,
+                             Set<Long> recounts) {
+        if (deletes.isEmpty()) {
+            return;
+        }
+        String sql = "DELETE FROM " + tableFor(type) + " WHERE " + targetColumnFor(type) + " = ? AND user_id = ?";
+        int[] counts = jdbcTemplate.batchUpdate(sql, deletes, deletes.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getKey().targetId());
+            ps.setLong(2, entry.getKey().userId());
+        })[0];
+        collectDeltas(deletes, counts, -1, counterDeltas, recounts);
+    }
+
+    // Counters move by the rows that actually changed, not by what the buffer assumed. A driver may answer
+    // SUCCESS_NO_INFO (or fewer counts than rows) for a batch; those targets are recounted from the table instead.
+    private void collectDeltas(List<Map.Entry<Key, Pending>> entries, int[] counts, int sign,
+                               Map<Long, Integer> counterDeltas, Set<Long> recounts) {
+        if (counterDeltas == null) {
+            return;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            Long targetId = entries.get(i).getKey().targetId();
+            if (i >= counts.length || counts[i] == Statement.SUCCESS_NO_INFO) {
+                recounts.add(targetId);
+            } else if (counts[i] > 0) {
+                counterDeltas.merge(targetId, sign, Integer::sum);
+            }
+        }
+    }
+
+    private void batchUpdateCounters(String column, Map<Long, Integer> deltas) {
+        List<Map.Entry<Long, Integer>> changes = deltas.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .toList();
+        if (changes.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE " + postTable + " SET " + column + " = " + column + " + ? WHERE post_id = ?";
+        jdbcTemplate.batchUpdate(sql, changes, changes.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+        });
+    }
+
+    private void batchRecountCounters(String column, String table, Set<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(postIds);
+        String sql = "UPDATE " + postTable + " SET " + column + " = (SELECT COUNT(*) FROM " + table +
+                " WHERE " + table + ".post_id = ?) WHERE post_id = ?";
+        jdbcTemplate.batchUpdate(sql, ids, ids.size(), (ps, postId) -> {
+            ps.setLong(1, postId);
+            ps.setLong(2, postId);
+        });
+    }
+
+    private String tableFor(Type type) {
+        return switch (type) {
+            case POST_LIKE -> postLikeTable;
+            case POST_ECHO -> postEchoTable;
+            case COMMENT_LIKE -> commentLikeTable;
+        };
+    }
+
+    private static String targetColumnFor(Type type) {
+        return type == Type.COMMENT_LIKE ? "post_comment_id" : "post_id";
+    }
+
+    private Stripe stripeFor(Type type, Long targetId) {
+        return stripes[Math.floorMod(Objects.hash(type, targetId), stripes.length)];
+    }
+}
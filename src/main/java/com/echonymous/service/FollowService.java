@@ -0,0 +1,68 @@
+package com.echonymous.service;
+
+import com.echonymous.dto.FollowResultDTO;
+import com.echonymous.exception.NotFoundException;
+import com.echonymous.repository.UserFollowRepository;
+import com.echonymous.repository.UserRepository;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+@Slf4j
+public class FollowService {
+    private final UserFollowRepository userFollowRepository;
+    private final UserRepository userRepository;
+    private final HomeTimelineService homeTimelineService;
+
+    public FollowService(UserFollowRepository userFollowRepository, UserRepository userRepository, HomeTimelineService homeTimelineService) {
+        this.userFollowRepository = userFollowRepository;
+        this.userRepository = userRepository;
+        this.homeTimelineService = homeTimelineService;
+    }
+
+    // Idempotent follow: repeating it leaves the user followed and the counter unchanged
+    @Transactional
+    public FollowResultDTO follow(Long followerId, Long followeeId) {
+        validate(followerId, followeeId);
+        int inserted = userFollowRepository.insertIfAbsent(followerId, followeeId, LocalDateTime.now());
+        if (inserted > 0) {
+            userRepository.incrementFollowerCount(followeeId, 1);
+        }
+        int followerCount = findFollowerCount(followeeId);
+        if (inserted > 0) {
+            homeTimelineService.backfill(followerId, followeeId, followerCount);
+            log.info("User {} followed user {}", followerId, followeeId);
+        }
+        return new FollowResultDTO(true, followerCount);
+    }
+
+    // Idempotent unfollow: repeating it leaves the user unfollowed and the counter unchanged
+    @Transactional
+    public FollowResultDTO unfollow(Long followerId, Long followeeId) {
+        validate(followerId, followeeId);
+        if (userFollowRepository.deleteByFollowerIdAndFolloweeId(followerId, followeeId) > 0) {
+            userRepository.incrementFollowerCount(followeeId, -1);
+            homeTimelineService.removeAuthor(followerId, followeeId);
+            log.info("User {} unfollowed user {}", followerId, followeeId);
+        }
+        return new FollowResultDTO(false, findFollowerCount(followeeId));
+    }
+
+    private void validate(Long followerId, Long followeeId) {
+        if (followerId.equals(followeeId)) {
+            throw new ValidationException("Users cannot follow themselves.");
+        }
+        if (!userRepository.existsById(followeeId)) {
+            throw new NotFoundException("User not found.");
+        }
+    }
+
+    private int findFollowerCount(Long userId) {
+        return userRepository.findFollowerCount(userId)
+                .orElseThrow(() -> new NotFoundException("User not found."));
+    }
+}
@@ -0,0 +1,205 @@
+package com.echonymous.service;
+
+import com.echonymous.dto.TimelineEntryDTO;
+import com.echonymous.event.PostCreatedEvent;
+import com.echonymous.repository.HomeTimelineRepository;
+import com.echonymous.repository.TextPostRepository;
+import com.echonymous.repository.UserFollowRepository;
+import com.echonymous.repository.UserRepository;
+import com.echonymous.util.KeysetCursor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Fan-out-on-write home timelines. A new post is pushed, after its transaction commits and off the request
+ * thread, into the home_timeline rows of its author and every follower, so reading a home feed page is one
+ * index range scan. Each timeline is capped at max-entries by a periodic trim.
+ *
+ * Authors with more than push-max-followers followers are not pushed; their posts are pulled from the post
+ * table when a follower reads the feed and merged with the pushed entries. An author is classified by the
+ * follower count at the time of posting, so posts pushed before an author crossed the limit stay pushed.
+ */
+@Service
+@Slf4j
+public class HomeTimelineService {
+    private final HomeTimelineRepository homeTimelineRepository;
+    private final UserFollowRepository userFollowRepository;
+    private final UserRepository userRepository;
+    private final TextPostRepository textPostRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer fanOutTimer;
+
+    @Value("${echonymous.home-timeline.push-max-followers:10000}")
+    private int pushMaxFollowers = 10_000;
+
+    @Value("${echonymous.home-timeline.fan-out-chunk-size:1000}")
+    private int fanOutChunkSize = 1_000;
+
+    @Value("${echonymous.home-timeline.max-entries:800}")
+    private int maxEntries = 800;
+
+    @Value("${echonymous.home-timeline.backfill-size:50}")
+    private int backfillSize = 50;
+
+    public HomeTimelineService(HomeTimelineRepository homeTimelineRepository, UserFollowRepository userFollowRepository,
+                               UserRepository userRepository, TextPostRepository textPostRepository,
+                               TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.homeTimelineRepository = homeTimelineRepository;
+        this.userFollowRepository = userFollowRepository;
+        this.userRepository = userRepository;
+        this.textPostRepository = textPostRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.fanOutTimer = Timer.builder("echonymous.home-timeline.fan-out")
+                .description("Time taken to push a new post into its followers' home timelines")
+                .register(meterRegistry);
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        try {
+            fanOut(event.getPostId(), event.getAuthorId());
+        } catch (RuntimeException e) {
+            // Followers still see the post on its author's profile and in the global feeds
+            log.error("Fan-out of post {} to home timelines failed", event.getPostId(), e);
+        }
+    }
+
+    /**
+     * Pushes a post into its author's timeline and, unless the author is pulled, into every follower's, in
+     * chunks of fan-out-chunk-size followers with one transaction each.
+     */
+    public void fanOut(Long postId, Long authorId) {
+        fanOutTimer.record(() -> {
+            transactionTemplate.executeWithoutResult(status -> homeTimelineRepository.insertForAuthor(List.of(postId)));
+            int followers = userRepository.findFollowerCount(authorId).orElse(0);
+            if (followers > pushMaxFollowers) {
+                log.debug("Author {} has {} followers, post {} is pulled at read time", authorId, followers, postId);
+                return;
+            }
+            long afterId = 0L;
+            while (true) {
+                List<Long> followerIds = userFollowRepository.findFollowerIdsAfter(authorId, afterId,
+                        PageRequest.of(0, fanOutChunkSize));
+                if (followerIds.isEmpty()) {
+                    break;
+                }
+                long chunkStart = afterId;
+                long chunkEnd = followerIds.get(followerIds.size() - 1);
+                transactionTemplate.executeWithoutResult(status ->
+                        homeTimelineRepository.insertForFollowers(postId, chunkStart, chunkEnd));
+                afterId = chunkEnd;
+            }
+        });
+    }
+
+    /**
+     * Removes a deleted post from every timeline; runs in the caller's transaction.
+     */
+    public void removePost(Long postId) {
+        homeTimelineRepository.deleteByPostId(postId);
+    }
+
+    /**
+     * Copies the newest posts of a newly followed author into the follower's timeline, unless the author is
+     * pulled anyway. Runs in the caller's transaction, after the follow row has been written.
+     */
+    public void backfill(Long followerId, Long followeeId, int followeeFollowers) {
+        if (followeeFollowers > pushMaxFollowers) {
+            return;
+        }
+        List<Long> postIds = textPostRepository.findTimelineEntriesByAuthorIds(List.of(followeeId), PageRequest.of(0, backfillSize))
+                .stream()
+                .map(TimelineEntryDTO::getPostId)
+                .toList();
+        if (!postIds.isEmpty()) {
+            homeTimelineRepository.insertForFollower(followerId, postIds);
+        }
+    }
+
+    /**
+     * Drops an unfollowed author's posts from the follower's timeline; runs in the caller's transaction.
+     */
+    public void removeAuthor(Long followerId, Long followeeId) {
+        homeTimelineRepository.deleteByUserIdAndAuthorId(followerId, followeeId);
+    }
+
+    /**
+     * Returns the sort keys of up to count home feed posts following the cursor, newest first: the pushed
+     * timeline entries merged with the posts pulled from followed authors that are not pushed.
+     */
+    public List<TimelineEntryDTO> findEntries(Long userId, KeysetCursor after, int count) {
+        Pageable pageable = PageRequest.of(0, count);
+        List<TimelineEntryDTO> pushed = after == null
+                ? homeTimelineRepository.findEntries(userId, pageable)
+                : homeTimelineRepository.findEntriesAfterCursor(userId, after.getTimestamp(), after.getId(), pageable);
+
+        List<Long> pulledAuthorIds = userFollowRepository.findPulledFolloweeIds(userId, pushMaxFollowers);
+        if (pulledAuthorIds.isEmpty()) {
+            return pushed;
+        }
+        List<TimelineEntryDTO> pulled = after == null
+                ? textPostRepository.findTimelineEntriesByAuthorIds(pulledAuthorIds, pageable)
+                : textPostRepository.findTimelineEntriesByAuthorIdsAfterCursor(pulledAuthorIds, after.getTimestamp(),
+                after.getId(), pageable);
+        return merge(pushed, pulled, count);
+    }
+
+    @Scheduled(initialDelayString = "${echonymous.home-timeline.trim.initial-delay-ms:600000}",
+            fixedDelayString = "${echonymous.home-timeline.trim.interval-ms:600000}")
+    public void trim() {
+        int trimmed = 0;
+        for (Long userId : homeTimelineRepository.findUserIdsWithMoreEntriesThan(maxEntries)) {
+            trimmed += trimUser(userId);
+        }
+        if (trimmed > 0) {
+            log.info("Trimmed {} home timeline entries", trimmed);
+        }
+    }
+
+    // Keeps the newest max-entries entries of the user's timeline
+    private int trimUser(Long userId) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<TimelineEntryDTO> oldestKept = homeTimelineRepository.findEntries(userId, PageRequest.of(maxEntries, 1));
+            if (oldestKept.isEmpty()) {
+                return 0;
+            }
+            TimelineEntryDTO firstDropped = oldestKept.get(0);
+            return homeTimelineRepository.deleteFrom(userId, firstDropped.getCreatedAt(), firstDropped.getPostId());
+        });
+        return deleted != null ? deleted : 0;
+    }
+
+    // Merges two lists in feed order (createdAt DESC, postId DESC), dropping posts present in both
+    private static List<TimelineEntryDTO> merge(List<TimelineEntryDTO> first, List<TimelineEntryDTO> second, int count) {
+        Comparator<TimelineEntryDTO> feedOrder = Comparator.comparing(TimelineEntryDTO::getCreatedAt)
+                .thenComparing(TimelineEntryDTO::getPostId)
+                .reversed();
+        List<TimelineEntryDTO> merged = new ArrayList<>(first.size() + second.size());
+        merged.addAll(first);
+        merged.addAll(second);
+        merged.sort(feedOrder);
+        Set<Long> seen = new HashSet<>();
+        List<TimelineEntryDTO> page = new ArrayList<>(count);
+        for (TimelineEntryDTO entry : merged) {
+            if (page.size() == count) {
+                break;
+            }
+            if (seen.add(entry.getPostId())) {
+                page.add(entry);
+            }
+        }
+        return page;
+    }
+}
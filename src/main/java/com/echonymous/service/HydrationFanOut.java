@@ -0,0 +1,192 @@
+package com.echonymous.service;
+
+import com.echonymous.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent lookups that hydrate a page (viewer flags, grouped counts) concurrently on a bounded
+ * pool, each on its own connection, under one deadline per page. A lookup that misses the deadline or fails
+ * yields its fallback (e.g. no "liked" flags) so the page is still served with partial engagement.
+ *
+ * Every forked lookup takes a second connection while the caller still holds its own, so at most pool-size
+ * lookups run on the pool and nothing queues for it: a lookup that finds no free thread, or that is forked while
+ * the Hikari pool has no idle connection, runs inline on the caller's connection instead. Lookups also run
+ * inline, as before, when the fan-out is disabled or the caller is inside a read-write transaction, whose
+ * uncommitted rows other connections cannot see. Keep pool-size well below the connection pool.
+ *
+ * Callers should pass a fallback they can tell apart from real data (e.g. null) and mark the page as partial.
+ */
+@Component
+@Slf4j
+public class HydrationFanOut {
+    private final boolean enabled;
+    private final long timeoutNanos;
+    private final ThreadPoolExecutor executor;
+    private final HikariDataSource hikari;
+    private final MeterRegistry meterRegistry;
+    // Meters per (page, query) and (page, mode), registered on first use rather than on every fork
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> widths = new ConcurrentHashMap<>();
+
+    public HydrationFanOut(MeterRegistry meterRegistry,
+                           DataSource dataSource,
+                           @Value("${echonymous.hydration.fan-out.enabled:true}") boolean enabled,
+                           @Value("${echonymous.hydration.fan-out.pool-size:4}") int poolSize,
+                           @Value("${echonymous.hydration.fan-out.timeout-ms:250}") long timeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.hikari = unwrapHikari(dataSource);
+        this.enabled = enabled;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        AtomicInteger threadCount = new AtomicInteger();
+        // No queue: a lookup either gets a thread (and so a connection) now or runs on the caller's
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "hydration-fan-out-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts the lookups for one page; the deadline starts now.
+     *
+     * @param page names the page type in metrics, e.g. "post" or "comment"
+     */
+    public Batch begin(String page) {
+        boolean parallel = enabled && !(TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+        return new Batch(page, parallel, System.nanoTime() + timeoutNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // No idle connection: a forked lookup would wait for one while the caller holds its own
+    private boolean poolUnderPressure() {
+        HikariPoolMXBean pool = hikari == null ? null : hikari.getHikariPoolMXBean();
+        return pool != null && (pool.getIdleConnections() == 0 || pool.getThreadsAwaitingConnection() > 0);
+    }
+
+    private static HikariDataSource unwrapHikari(DataSource dataSource) {
+        try {
+            if (dataSource == null) {
+                return null;
+            }
+            // With read replicas, forked lookups run outside any read-only transaction and so use the primary's pool
+            if (dataSource.isWrapperFor(ReplicaRoutingDataSource.class)) {
+                dataSource = dataSource.unwrap(ReplicaRoutingDataSource.class).getPrimary();
+            }
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    public final class Batch implements AutoCloseable {
+        private final String page;
+        private final boolean parallel;
+        private final long deadline;
+        private final List<Future<?>> forks = new ArrayList<>();
+
+        private Batch(String page, boolean parallel, long deadline) {
+            this.page = page;
+            this.parallel = parallel;
+            this.deadline = deadline;
+        }
+
+        public <T> Future<T> fork(String query, Supplier<T> lookup) {
+            Timer timer = timers.computeIfAbsent(page + "/" + query, ignored -> Timer.builder("echonymous.hydration.query")
+                    .description("Latency of a page hydration lookup")
+                    .tags("page", page, "query", query)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+            Future<T> future;
+            if (parallel && !poolUnderPressure()) {
+                try {
+                    future = executor.submit(() -> timer.record(lookup));
+                } catch (RejectedExecutionException e) {
+                    // Every fan-out thread is busy; the caller does the work itself
+                    future = runInline(timer, lookup);
+                }
+            } else {
+                future = runInline(timer, lookup);
+            }
+            forks.add(future);
+            return future;
+        }
+
+        // A failing inline lookup is handed to join like a failed fork, so it also yields its fallback
+        private <T> Future<T> runInline(Timer timer, Supplier<T> lookup) {
+            try {
+                return CompletableFuture.completedFuture(timer.record(lookup));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        /**
+         * Waits for a forked lookup until the page deadline and returns the fallback if it is late or failed.
+         */
+        public <T> T join(Future<T> future, String query, T fallback) {
+            try {
+                long remaining = Math.max(deadline - System.nanoTime(), 0);
+                return future.get(remaining, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                degraded(query, "timeout");
+                log.warn("Hydration lookup {}/{} missed its deadline; serving the page without it", page, query);
+            } catch (ExecutionException e) {
+                degraded(query, "error");
+                log.warn("Hydration lookup {}/{} failed; serving the page without it", page, query, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                degraded(query, "interrupted");
+            }
+            return fallback;
+        }
+
+        // Records the fan-out width and drops lookups that have not started yet. Running queries are left to
+        // finish rather than interrupted, so their connections go back to the pool intact.
+        @Override
+        public void close() {
+            String mode = parallel ? "parallel" : "inline";
+            widths.computeIfAbsent(page + "/" + mode, ignored -> DistributionSummary.builder("echonymous.hydration.fan-out.width")
+                    .description("Lookups started concurrently to hydrate one page")
+                    .tags("page", page, "mode", mode)
+                    .register(meterRegistry))
+                    .record(forks.size());
+            for (Future<?> fork : forks) {
+                fork.cancel(false);
+            }
+        }
+
+        private void degraded(String query, String reason) {
+            Counter.builder("echonymous.hydration.degraded")
+                    .description("Hydration lookups replaced by their fallback")
+                    .tags("page", page, "query", query, "reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.echonymous.service;
+
+import com.echonymous.dto.ImportPostDTO;
+import com.echonymous.dto.ImportResultDTO;
+import com.echonymous.entity.PostComment;
+import com.echonymous.entity.TextPost;
+import com.echonymous.entity.User;
+import com.echonymous.event.PostCreatedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk import of text posts with their comments, all authored by the importing user. Posts and comments take
+ * pooled sequence ids, so Hibernate writes each flush as JDBC batches of hibernate.jdbc.batch_size inserts per
+ * table instead of one round trip per row. The persistence context is flushed and cleared every flush-interval
+ * posts, so it does not grow with the size of the import.
+ */
+@Service
+@Slf4j
+public class PostImportService {
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxPosts;
+    private final int maxCommentsPerPost;
+    private final int flushInterval;
+
+    public PostImportService(EntityManager entityManager, ApplicationEventPublisher eventPublisher,
+                             @Value("${echonymous.import.max-posts:1000}") int maxPosts,
+                             @Value("${echonymous.import.max-comments-per-post:100}") int maxCommentsPerPost,
+                             @Value("${echonymous.import.flush-interval:50}") int flushInterval) {
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.maxPosts = maxPosts;
+        this.maxCommentsPerPost = maxCommentsPerPost;
+        this.flushInterval = flushInterval;
+    }
+
+    // All or nothing: the whole request is one transaction
+    @Transactional
+    public ImportResultDTO importPosts(List<ImportPostDTO> posts, Long userId) {
+        validate(posts);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> postIds = new ArrayList<>(posts.size());
+        List<PostCreatedEvent> events = new ArrayList<>(posts.size());
+        int commentCount = 0;
+        User author = entityManager.getReference(User.class, userId);
+        for (ImportPostDTO imported : posts) {
+            List<String> comments = imported.getComments() == null ? List.of() : imported.getComments();
+            TextPost post = new TextPost();
+            post.setCategory(imported.getCategory());
+            post.setContent(imported.getContent());
+            post.setAuthorId(userId);
+            post.setCreatedAt(now);
+            // Set before persisting, so the hot score is computed with it
+            post.setCommentCount(comments.size());
+            entityManager.persist(post);
+
+            for (String text : comments) {
+                PostComment comment = new PostComment();
+                comment.setPost(post);
+                comment.setUser(author);
+                comment.setComment(text);
+                comment.setCreatedAt(post.getCreatedAt());
+                entityManager.persist(comment);
+            }
+            commentCount += comments.size();
+
+            // The id is already assigned: persist takes it from the current sequence block
+            postIds.add(post.getPostId());
+            events.add(new PostCreatedEvent(post.getPostId(), post.getCategory(), post.getCreatedAt(), userId));
+            if (postIds.size() % flushInterval == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                author = entityManager.getReference(User.class, userId);
+            }
+        }
+        entityManager.flush();
+
+        // Feeds, timelines and the search index pick the posts up as if they had been created one by one
+        events.forEach(eventPublisher::publishEvent);
+        log.info("Imported {} posts with {} comments for user {}", postIds.size(), commentCount, userId);
+        return new ImportResultDTO(postIds, commentCount);
+    }
+
+    private void validate(List<ImportPostDTO> posts) {
+        if (posts == null || posts.isEmpty()) {
+            throw new ValidationException("Nothing to import.");
+        }
+        if (posts.size() > maxPosts) {
+            throw new ValidationException("At most " + maxPosts + " posts can be imported at once.");
+        }
+        for (ImportPostDTO post : posts) {
+            if (post.getCategory() == null || post.getCategory().isBlank()) {
+                throw new ValidationException("Category is required.");
+            }
+            if (post.getContent() == null || post.getContent().isBlank()) {
+                throw new ValidationException("Content is required.");
+            }
+            if (post.getComments() != null) {
+                if (post.getComments().size() > maxCommentsPerPost) {
+                    throw new ValidationException("At most " + maxCommentsPerPost + " comments per post can be imported.");
+                }
+                if (post.getComments().stream().anyMatch(comment -> comment == null || comment.isBlank())) {
+                    throw new ValidationException("Comments cannot be blank.");
+                }
+            }
+        }
+    }
+}
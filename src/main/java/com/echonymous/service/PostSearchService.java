@@ -0,0 +1,404 @@
+package com.echonymous.service;
+
+import com.echonymous.dto.FeedResponseDTO;
+import com.echonymous.dto.PostCommentTextDTO;
+import com.echonymous.dto.TextPostSummaryDTO;
+import com.echonymous.event.CommentChangedEvent;
+import com.echonymous.event.PostCreatedEvent;
+import com.echonymous.event.PostDeletedEvent;
+import com.echonymous.event.PostUpdatedEvent;
+import com.echonymous.repository.PostCommentRepository;
+import com.echonymous.repository.TextPostRepository;
+import com.echonymous.util.CategoryUtils;
+import com.echonymous.util.SearchCursor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.*;
+import org.apache.lucene.queries.function.FunctionScoreQuery;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Full-text search over text posts and their comments, backed by an embedded Lucene index on local disk (or in
+ * memory when index-dir is blank, as in tests). Each post is one document holding its content and its newest
+ * max-comments-per-post comments.
+ *
+ * Post and comment events only mark a post dirty; every refresh-interval-ms the dirty posts are re-read by
+ * primary key in chunks and their documents replaced (or deleted, if the post is gone), then committed. An empty
+ * index is rebuilt at startup, and reindexAll() streams every post through the index in keyset chunks.
+ *
+ * Results are ordered by relevance times a recency boost, with the post id as a tie-breaker, and paged with a
+ * SearchCursor.
+ */
+@Service
+@Slf4j
+public class PostSearchService {
+    private static final String ID = "id";
+    private static final String POST_ID = "postId";
+    private static final String CATEGORY_KEY = "categoryKey";
+    private static final String CONTENT = "content";
+    private static final String COMMENTS = "comments";
+    private static final String CREATED_AT = "createdAt";
+    private static final String GENERATION = "generation";
+    private static final Sort RESULT_ORDER = new Sort(SortField.FIELD_SCORE, new SortField(POST_ID, SortField.Type.LONG, true));
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final TextPostRepository textPostRepository;
+    private final PostCommentRepository postCommentRepository;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Timer searchTimer;
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Serializes refreshes and reindexing, so a stale refresh cannot outlive a reindex's cleanup
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private final AtomicLong generation = new AtomicLong(System.currentTimeMillis());
+
+    @Value("${echonymous.search.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${echonymous.search.max-comments-per-post:100}")
+    private int maxCommentsPerPost = 100;
+
+    @Value("${echonymous.search.recency-boost:1.0}")
+    private double recencyBoost = 1.0;
+
+    @Value("${echonymous.search.recency-half-life-hours:168}")
+    private long recencyHalfLifeHours = 168;
+
+    public PostSearchService(TextPostRepository textPostRepository, PostCommentRepository postCommentRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${echonymous.search.index-dir:}") String indexDir) throws IOException {
+        this.textPostRepository = textPostRepository;
+        this.postCommentRepository = postCommentRepository;
+        this.directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+        this.searchTimer = Timer.builder("echonymous.search.query")
+                .description("Latency of a post search in the Lucene index")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the ids of up to count posts matching the query after the cursor, best match first.
+     *
+     * @param categoryKey normalized category, or CategoryUtils.ALL
+     * @param after       cursor of the previous page, or null for the first page
+     */
+    public FeedResponseDTO<Long> search(String queryText, String categoryKey, SearchCursor after, int count) {
+        if (queryText == null || queryText.isBlank()) {
+            throw new ValidationException("Search query must not be empty.");
+        }
+        if (queryText.length() > MAX_QUERY_LENGTH) {
+            throw new ValidationException("Search query must be at most " + MAX_QUERY_LENGTH + " characters.");
+        }
+        long asOf = after != null ? after.getAsOf() : Instant.now().getEpochSecond();
+        Query query = buildQuery(queryText, categoryKey, asOf);
+        return searchTimer.record(() -> {
+            try {
+                IndexSearcher searcher = searcherManager.acquire();
+                try {
+                    return page(searcher, query, after, count, asOf);
+                } finally {
+                    searcherManager.release(searcher);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Search index could not be read", e);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        dirty.add(event.getPostId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostUpdated(PostUpdatedEvent event) {
+        dirty.add(event.getPostId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostDeleted(PostDeletedEvent event) {
+        dirty.add(event.getPostId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        dirty.add(event.getPostId());
+    }
+
+    /**
+     * Re-indexes the posts changed since the last refresh and makes them searchable.
+     */
+    @Scheduled(fixedDelayString = "${echonymous.search.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        indexLock.lock();
+        try {
+            List<Long> postIds = new ArrayList<>(dirty);
+            dirty.removeAll(postIds);
+            for (int from = 0; from < postIds.size(); from += chunkSize) {
+                List<Long> chunk = postIds.subList(from, Math.min(postIds.size(), from + chunkSize));
+                try {
+                    List<TextPostSummaryDTO> posts = textPostRepository.findSummariesByIds(chunk);
+                    index(posts);
+                    Set<Long> deleted = new HashSet<>(chunk);
+                    posts.forEach(post -> deleted.remove(post.getPostId()));
+                    for (Long postId : deleted) {
+                        writer.deleteDocuments(idTerm(postId));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    dirty.addAll(chunk);
+                    log.warn("Could not index {} changed posts, retrying on the next run: {}", chunk.size(), e.getMessage());
+                }
+            }
+            commit();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Streams every text post through the index in keyset chunks of chunk-size posts, then drops documents of
+     * posts that no longer exist. The old documents stay searchable until their replacements are committed.
+     *
+     * @return the number of posts indexed
+     */
+    public long reindexAll() {
+        indexLock.lock();
+        try {
+            long reindexGeneration = generation.updateAndGet(current -> Math.max(current + 1, System.currentTimeMillis()));
+            long indexed = 0;
+            long afterId = 0L;
+            while (true) {
+                List<TextPostSummaryDTO> chunk = textPostRepository.findSummariesAfterId(afterId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                index(chunk);
+                indexed += chunk.size();
+                afterId = chunk.get(chunk.size() - 1).getPostId();
+            }
+            writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, reindexGeneration - 1));
+            commit();
+            log.info("Reindexed {} posts for search", indexed);
+            return indexed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search index could not be rebuilt", e);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            reindexAll();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Could not index pending post changes before shutdown; run a reindex if they are missing", e);
+        }
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private FeedResponseDTO<Long> page(IndexSearcher searcher, Query query, SearchCursor after, int count, long asOf)
+            throws IOException {
+        if (searcher.getIndexReader().maxDoc() == 0) {
+            return new FeedResponseDTO<>(List.of(), null, false);
+        }
+        // Request one extra result to determine if there's a next page. Results equal to the cursor on every
+        // sort field (only the cursor's own post) are tie-broken by doc id, so the highest one excludes it.
+        TopFieldDocs hits = after == null
+                ? searcher.search(query, count + 1, RESULT_ORDER, true)
+                : searcher.searchAfter(new FieldDoc(searcher.getIndexReader().maxDoc() - 1, after.getScore(),
+                new Object[]{after.getScore(), after.getId()}), query, count + 1, RESULT_ORDER, true);
+        boolean hasNext = hits.scoreDocs.length > count;
+        List<Long> postIds = new ArrayList<>(count);
+        FieldDoc last = null;
+        for (int i = 0; i < Math.min(count, hits.scoreDocs.length); i++) {
+            last = (FieldDoc) hits.scoreDocs[i];
+            postIds.add((Long) last.fields[1]);
+        }
+        String nextCursor = last == null ? null
+                : new SearchCursor((Float) last.fields[0], (Long) last.fields[1], asOf).encode();
+        return new FeedResponseDTO<>(postIds, nextCursor, hasNext);
+    }
+
+    // Every term has to match the content or a comment; content matches weigh double
+    private Query buildQuery(String queryText, String categoryKey, long asOf) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(CONTENT, 2f, COMMENTS, 1f));
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(parser.parse(queryText), BooleanClause.Occur.MUST);
+        if (categoryKey != null && !CategoryUtils.ALL.equals(categoryKey)) {
+            query.add(new TermQuery(new Term(CATEGORY_KEY, categoryKey)), BooleanClause.Occur.FILTER);
+        }
+        return FunctionScoreQuery.boostByValue(query.build(),
+                new RecencyBoost(asOf, recencyHalfLifeHours * 3600, recencyBoost));
+    }
+
+    private void index(List<TextPostSummaryDTO> posts) throws IOException {
+        if (posts.isEmpty()) {
+            return;
+        }
+        Map<Long, List<String>> comments = new HashMap<>();
+        for (PostCommentTextDTO comment : postCommentRepository.findTextsByPostIds(
+                posts.stream().map(TextPostSummaryDTO::getPostId).toList())) {
+            List<String> texts = comments.computeIfAbsent(comment.getPostId(), id -> new ArrayList<>());
+            if (texts.size() < maxCommentsPerPost) {
+                texts.add(comment.getComment());
+            }
+        }
+        long currentGeneration = generation.get();
+        for (TextPostSummaryDTO post : posts) {
+            writer.updateDocument(idTerm(post.getPostId()),
+                    document(post, comments.getOrDefault(post.getPostId(), List.of()), currentGeneration));
+        }
+    }
+
+    private static Document document(TextPostSummaryDTO post, List<String> comments, long generation) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(post.getPostId()), Field.Store.NO));
+        document.add(new NumericDocValuesField(POST_ID, post.getPostId()));
+        String categoryKey = CategoryUtils.normalize(post.getCategory());
+        if (categoryKey != null) {
+            document.add(new StringField(CATEGORY_KEY, categoryKey, Field.Store.NO));
+        }
+        if (post.getContent() != null) {
+            document.add(new TextField(CONTENT, post.getContent(), Field.Store.NO));
+        }
+        for (String comment : comments) {
+            if (comment != null) {
+                document.add(new TextField(COMMENTS, comment, Field.Store.NO));
+            }
+        }
+        if (post.getCreatedAt() != null) {
+            document.add(new NumericDocValuesField(CREATED_AT, post.getCreatedAt().toEpochSecond(ZoneOffset.UTC)));
+        }
+        document.add(new LongPoint(GENERATION, generation));
+        return document;
+    }
+
+    private void commit() {
+        try {
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search index could not be committed", e);
+        }
+    }
+
+    private static Term idTerm(Long postId) {
+        return new Term(ID, String.valueOf(postId));
+    }
+
+    /**
+     * Multiplies a match's relevance by 1 + weight * 2^(-age / halfLife), the age being taken as of the instant
+     * the first page was ranked at.
+     */
+    private static final class RecencyBoost extends DoubleValuesSource {
+        private final long asOf;
+        private final long halfLifeSeconds;
+        private final double weight;
+
+        private RecencyBoost(long asOf, long halfLifeSeconds, double weight) {
+            this.asOf = asOf;
+            this.halfLifeSeconds = halfLifeSeconds;
+            this.weight = weight;
+        }
+
+        @Override
+        public DoubleValues getValues(LeafReaderContext context, DoubleValues scores) throws IOException {
+            NumericDocValues createdAts = DocValues.getNumeric(context.reader(), CREATED_AT);
+            return new DoubleValues() {
+                private double value;
+
+                @Override
+                public double doubleValue() {
+                    return value;
+                }
+
+                @Override
+                public boolean advanceExact(int doc) throws IOException {
+                    value = 1;
+                    if (createdAts.advanceExact(doc)) {
+                        long age = Math.max(0, asOf - createdAts.longValue());
+                        value += weight * Math.pow(2, -(double) age / halfLifeSeconds);
+                    }
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        public boolean needsScores() {
+            return false;
+        }
+
+        @Override
+        public DoubleValuesSource rewrite(IndexSearcher searcher) {
+            return this;
+        }
+
+        @Override
+        public boolean isCacheable(LeafReaderContext context) {
+            return DocValues.isCacheable(context, CREATED_AT);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(asOf, halfLifeSeconds, weight);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RecencyBoost boost && boost.asOf == asOf
+                    && boost.halfLifeSeconds == halfLifeSeconds && boost.weight == weight;
+        }
+
+        @Override
+        public String toString() {
+            return "recency(asOf=" + asOf + ", halfLife=" + halfLifeSeconds + "s, weight=" + weight + ")";
+        }
+    }
+}
@@ -1,38 +1,82 @@
 package com.echonymous.service;
 
+import com.echonymous.cache.FeedPageCache;
+import com.echonymous.cache.FeedTimelineIndex;
+import com.echonymous.cache.HotFeedIndex;
+import com.echonymous.cache.SingleFlight;
 import com.echonymous.dto.*;
 import com.echonymous.entity.*;
+import com.echonymous.event.PostCreatedEvent;
+import com.echonymous.event.PostDeletedEvent;
+import com.echonymous.event.PostEngagementChangedEvent;
+import com.echonymous.event.PostReactionChangedEvent;
+import com.echonymous.event.PostUpdatedEvent;
 import com.echonymous.exception.NotFoundException;
 import com.echonymous.repository.*;
-import com.echonymous.util.DateTimeUtils;
-import jakarta.transaction.Transactional;
+import com.echonymous.util.CategoryUtils;
+import com.echonymous.util.KeysetCursor;
+import com.echonymous.util.ScoreCursor;
+import com.echonymous.util.SearchCursor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class PostService {
+    private record FeedPageKey(String category, String cursor, int limit) {
+    }
+
     private final PostRepository postRepository;
     private final TextPostRepository textPostRepository;
     private final PostLikeRepository postLikeRepository;
-    private final PostCommentRepository postCommentRepository;
     private final PostEchoRepository postEchoRepository;
-    private final UserRepository userRepository;
+    private final EngagementService engagementService;
+    private final EngagementWriteBuffer engagementWriteBuffer;
+    private final FeedPageCache feedPageCache;
+    private final SingleFlight singleFlight;
+    private final FeedTimelineIndex feedTimelineIndex;
+    private final HotFeedIndex hotFeedIndex;
+    private final HomeTimelineService homeTimelineService;
+    private final PostSearchService postSearchService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate separateTransaction;
 
-    public PostService(PostRepository postRepository, TextPostRepository textPostRepository, PostLikeRepository postLikeRepository, CommentLikeRepository commentLikeRepository, PostCommentRepository postCommentRepository, PostEchoRepository postEchoRepository, UserRepository userRepository) {
+    public PostService(PostRepository postRepository, TextPostRepository textPostRepository, PostLikeRepository postLikeRepository, PostEchoRepository postEchoRepository, EngagementService engagementService, EngagementWriteBuffer engagementWriteBuffer, FeedPageCache feedPageCache, SingleFlight singleFlight, FeedTimelineIndex feedTimelineIndex, HotFeedIndex hotFeedIndex, HomeTimelineService homeTimelineService, PostSearchService postSearchService, ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.postRepository = postRepository;
         this.textPostRepository = textPostRepository;
         this.postLikeRepository = postLikeRepository;
-        this.postCommentRepository = postCommentRepository;
         this.postEchoRepository = postEchoRepository;
-        this.userRepository = userRepository;
+        this.engagementService = engagementService;
+        this.engagementWriteBuffer = engagementWriteBuffer;
+        this.feedPageCache = feedPageCache;
+        this.singleFlight = singleFlight;
+        this.feedTimelineIndex = feedTimelineIndex;
+        this.hotFeedIndex = hotFeedIndex;
+        this.homeTimelineService = homeTimelineService;
+        this.postSearchService = postSearchService;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Transactional
@@ -43,38 +87,49 @@ public class PostService {
         post.setAuthorId(userId);
         post.setCreatedAt(LocalDateTime.now());
 
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        eventPublisher.publishEvent(new PostCreatedEvent(savedPost.getPostId(), savedPost.getCategory(), savedPost.getCreatedAt(), userId));
+        return savedPost;
     }
 
-    // Future method for handling audio posts (once implemented)
-    @Transactional
-    public Post createAudioPost(String category, String filePath, Long userId) {
-        AudioPost post = new AudioPost();
-        post.setCategory(category);
-        post.setFilePath(filePath);
-        post.setAuthorId(userId);
-        post.setCreatedAt(LocalDateTime.now());
-        return postRepository.save(post);
+    // Not transactional: requests waiting for a shared load must not hold a connection, so the load and the
+    // per-request part each run in their own read-only transaction
+    public FeedResponseDTO<TextPostDTO> getTextFeed(String cursor, int limit, Long currentUserId, String category) {
+        // The page itself is shared between users (cached, and loaded once for identical concurrent requests);
+        // only the personal flags are added per request
+        Supplier<FeedResponseDTO<TextPostSummaryDTO>> load =
+                () -> readOnlyTransaction.execute(status -> loadTextFeedPage(cursor, limit, category));
+        // A follower that gives up on the leader loads the page itself rather than wait on the leader's cache entry
+        FeedResponseDTO<TextPostSummaryDTO> page = singleFlight.load("feed-page", new FeedPageKey(category, cursor, limit),
+                () -> feedPageCache.get(category, cursor, limit, load), load);
+
+        return readOnlyTransaction.execute(status -> new FeedResponseDTO<>(
+                mapSummariesToDTOs(page.getContent(), currentUserId), page.getNextCursor(), page.isHasNext()));
     }
 
-    public FeedResponseDTO<TextPostDTO> getTextFeed(String cursor, int limit, Long currentUserId, String category) {
-        LocalDateTime cursorDate = DateTimeUtils.parseCursor(cursor);
+    private FeedResponseDTO<TextPostSummaryDTO> loadTextFeedPage(String cursor, int limit, String category) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
 
         // Request one extra record to determine if there's a next page
         Pageable pageable = PageRequest.of(0, limit + 1);
-        List<TextPost> posts;
+        List<TextPostSummaryDTO> posts;
 
-        if (!"all".equalsIgnoreCase(category)) {
-            if (cursorDate != null) {
-                posts = textPostRepository.findByCategoryIgnoreCaseAndCreatedAtBeforeOrderByCreatedAtDesc(category, cursorDate, pageable);
+        String categoryKey = CategoryUtils.normalize(category);
+        List<Long> postIds = feedTimelineIndex.page(categoryKey, after, limit + 1);
+        if (postIds != null) {
+            // The page lies inside the in-memory timeline; only its rows are read
+            posts = findSummariesInOrder(postIds);
+        } else if (!CategoryUtils.ALL.equals(categoryKey)) {
+            if (after != null) {
+                posts = textPostRepository.findSummariesByCategoryKeyAfterCursor(categoryKey, after.getTimestamp(), after.getId(), pageable);
             } else {
-                posts = textPostRepository.findByCategoryIgnoreCaseOrderByCreatedAtDesc(category, pageable);
+                posts = textPostRepository.findSummariesByCategoryKey(categoryKey, pageable);
             }
         } else {
-            if (cursorDate != null) {
-                posts = textPostRepository.findByCreatedAtBeforeOrderByCreatedAtDesc(cursorDate, pageable);
+            if (after != null) {
+                posts = textPostRepository.findSummariesAfterCursor(after.getTimestamp(), after.getId(), pageable);
             } else {
-                posts = textPostRepository.findAllByOrderByCreatedAtDesc(pageable);
+                posts = textPostRepository.findLatestSummaries(pageable);
             }
         }
 
@@ -82,48 +137,121 @@ public class PostService {
         if (hasNext) {
             posts = posts.subList(0, limit);
         }
-        // Next cursor is the createdAt of the last post in the list
-        String nextCursor = !posts.isEmpty() ? posts.get(posts.size() - 1).getCreatedAt().toString() : null;
+        String nextCursor = nextCursor(posts);
+
+        return new FeedResponseDTO<>(posts, nextCursor, hasNext);
+    }
+
+    // Text posts ranked by hot score (see HotScore); not page-cached, since every engagement reorders it
+    @Transactional(readOnly = true)
+    public FeedResponseDTO<TextPostDTO> getHotTextFeed(String cursor, int limit, Long currentUserId, String category) {
+        ScoreCursor after = ScoreCursor.decode(cursor);
+        String categoryKey = CategoryUtils.normalize(category);
+
+        // Request one extra record to determine if there's a next page
+        List<ScoredPostDTO> entries = hotFeedIndex.page(categoryKey, after, limit + 1);
+        if (entries == null) {
+            Pageable pageable = PageRequest.of(0, limit + 1);
+            if (!CategoryUtils.ALL.equals(categoryKey)) {
+                entries = after != null
+                        ? textPostRepository.findHotEntriesByCategoryKeyAfterCursor(categoryKey, after.getScore(), after.getId(), pageable)
+                        : textPostRepository.findHotEntriesByCategoryKey(categoryKey, pageable);
+            } else {
+                entries = after != null
+                        ? textPostRepository.findHotEntriesAfterCursor(after.getScore(), after.getId(), pageable)
+                        : textPostRepository.findHotEntries(pageable);
+            }
+        }
 
-        List<TextPostDTO> postDTOs = posts.stream()
-                .map(post -> mapTextPostToDTO(post, currentUserId))
+        boolean hasNext = entries.size() > limit;
+        if (hasNext) {
+            entries = entries.subList(0, limit);
+        }
+        String nextCursor = null;
+        if (!entries.isEmpty()) {
+            ScoredPostDTO last = entries.get(entries.size() - 1);
+            nextCursor = ScoreCursor.encode(last.getHotScore(), last.getPostId());
+        }
+        List<TextPostSummaryDTO> posts = findSummariesInOrder(entries.stream()
+                .map(ScoredPostDTO::getPostId)
+                .collect(Collectors.toList()));
+        List<TextPostDTO> postDTOs = mapSummariesToDTOs(posts, currentUserId);
+
+        return new FeedResponseDTO<>(postDTOs, nextCursor, hasNext);
+    }
+
+    // Full-text search over post content and comments, best match (boosted by recency) first
+    @Transactional(readOnly = true)
+    public FeedResponseDTO<TextPostDTO> searchTextPosts(String query, String category, String cursor, int limit, Long currentUserId) {
+        FeedResponseDTO<Long> page = postSearchService.search(query, CategoryUtils.normalize(category),
+                SearchCursor.decode(cursor), limit);
+        List<TextPostSummaryDTO> posts = findSummariesInOrder(page.getContent());
+        List<TextPostDTO> postDTOs = mapSummariesToDTOs(posts, currentUserId);
+
+        return new FeedResponseDTO<>(postDTOs, page.getNextCursor(), page.isHasNext());
+    }
+
+    private List<TextPostSummaryDTO> findSummariesInOrder(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TextPostSummaryDTO> summaries = textPostRepository.findSummariesByIds(postIds).stream()
+                .collect(Collectors.toMap(TextPostSummaryDTO::getPostId, Function.identity()));
+        // A post deleted since it was indexed is simply skipped
+        return postIds.stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+    }
+
+    // Posts of the users the current user follows, plus their own, newest first
+    @Transactional(readOnly = true)
+    public FeedResponseDTO<TextPostDTO> getHomeFeed(String cursor, int limit, Long currentUserId) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        // Request limit+1 to check for a next page
+        List<Long> postIds = homeTimelineService.findEntries(currentUserId, after, limit + 1).stream()
+                .map(TimelineEntryDTO::getPostId)
+                .collect(Collectors.toList());
+        boolean hasNext = postIds.size() > limit;
+        if (hasNext) {
+            postIds = postIds.subList(0, limit);
+        }
+        List<TextPostSummaryDTO> posts = findSummariesInOrder(postIds);
+        String nextCursor = nextCursor(posts);
+        List<TextPostDTO> postDTOs = mapSummariesToDTOs(posts, currentUserId);
 
         return new FeedResponseDTO<>(postDTOs, nextCursor, hasNext);
     }
 
     // Generic method to fetch a user's text posts (for both my-feed and other users' feed)
-    @Transactional
+    @Transactional(readOnly = true)
     public FeedResponseDTO<TextPostDTO> getUserTextPosts(String cursor, int limit, Long targetUserId, Long currentUserId) {
-        LocalDateTime cursorDate = DateTimeUtils.parseCursor(cursor);
+        KeysetCursor after = KeysetCursor.decode(cursor);
         // Request limit+1 to check for a next page
         Pageable pageable = PageRequest.of(0, limit + 1);
-        List<TextPost> posts;
-        if (cursorDate != null) {
-            posts = textPostRepository.findByAuthorIdAndCreatedAtBeforeOrderByCreatedAtDesc(targetUserId, cursorDate, pageable);
+        List<TextPostSummaryDTO> posts;
+        if (after != null) {
+            posts = textPostRepository.findSummariesByAuthorIdAfterCursor(targetUserId, after.getTimestamp(), after.getId(), pageable);
         } else {
-            posts = textPostRepository.findByAuthorIdOrderByCreatedAtDesc(targetUserId, pageable);
+            posts = textPostRepository.findSummariesByAuthorId(targetUserId, pageable);
         }
         boolean hasNext = posts.size() > limit;
         if (hasNext) {
             posts = posts.subList(0, limit);
         }
-        String nextCursor = posts.isEmpty() ? null : posts.get(posts.size() - 1).getCreatedAt().toString();
-        List<TextPostDTO> postDTOs = posts.stream()
-                .map(post -> mapTextPostToDTO(post, currentUserId))
-                .collect(Collectors.toList());
+        String nextCursor = nextCursor(posts);
+        List<TextPostDTO> postDTOs = mapSummariesToDTOs(posts, currentUserId);
 
         return new FeedResponseDTO<>(postDTOs, nextCursor, hasNext);
     }
 
+    // Not transactional, like getTextFeed
     public TextPostDTO getTextPostById(Long id, Long currentUserId) {
-        Optional<TextPost> optionalPost = textPostRepository.findById(id);
-        if (!optionalPost.isPresent()) {
-            throw new NotFoundException("Text post not found with id: " + id);
-        }
-
-        TextPost post = optionalPost.get();
-        return mapTextPostToDTO(post, currentUserId);
+        // A shared post is requested by many clients at once; they share one load
+        TextPostSummaryDTO post = singleFlight.load("post", id,
+                        () -> readOnlyTransaction.execute(status -> textPostRepository.findSummaryById(id)))
+                .orElseThrow(() -> new NotFoundException("Text post not found with id: " + id));
+        return readOnlyTransaction.execute(status -> mapSummariesToDTOs(List.of(post), currentUserId).get(0));
     }
 
     @Transactional
@@ -134,6 +262,7 @@ public class PostService {
         if (!post.getAuthorId().equals(currentUserId)) {
             throw new RuntimeException("User not authorized to edit this post.");
         }
+        String oldCategory = post.getCategory();
         if (newCategory != null && !newCategory.trim().isEmpty()) {
             post.setCategory(newCategory);
         }
@@ -141,6 +270,7 @@ public class PostService {
         post.setUpdatedAt(LocalDateTime.now());
 
         TextPost updatedPost = textPostRepository.save(post);
+        eventPublisher.publishEvent(new PostUpdatedEvent(postId, oldCategory, updatedPost.getCategory(), updatedPost.getCreatedAt()));
         return mapTextPostToDTO(updatedPost, currentUserId);
     }
 
@@ -151,76 +281,84 @@ public class PostService {
         if (!post.getAuthorId().equals(currentUserId)) {
             throw new RuntimeException("User not authorized to delete this post.");
         }
-        postRepository.delete(post);
+        // Hidden at once; PostPurgeJob deletes the row and its likes, comments and echoes in the background
+        postRepository.markDeleted(postId, LocalDateTime.now());
+        homeTimelineService.removePost(postId);
+        eventPublisher.publishEvent(new PostDeletedEvent(postId, post.getCategory()));
     }
 
+    // Toggles in place without loading the post or user: an unlike is tried first, and if there was
+    // nothing to delete the like is inserted. Concurrent taps are resolved by the unique constraint.
     @Transactional
     public ToggleLikeResultDTO toggleLike(Long postId, Long userId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found."));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found."));
-
-        boolean isLiked;
-
-        Optional<PostLike> existingLike = postLikeRepository.findByPostAndUser(post, user);
-        if (existingLike.isPresent()) {
-            // If the like exists, delete it (i.e. user unlikes)
-            postLikeRepository.delete(existingLike.get());
-            isLiked = false;
-            log.info("User {} unliked post {}", userId, postId);
-        } else {
-            // If no like exists, create a new like record
-            PostLike like = new PostLike();
-            like.setPost(post);
-            like.setUser(user);
-            like.setLikedAt(LocalDateTime.now());
-            postLikeRepository.save(like);
-            isLiked = true;
-            log.info("User {} liked post {}", userId, postId);
+        if (engagementWriteBuffer.isEnabled()) {
+            return bufferLikeChange(postId, userId, null);
+        }
+        if (postLikeRepository.deleteByPostIdAndUserId(postId, userId) > 0) {
+            return applyLikeChange(postId, userId, false, -1);
+        }
+        int inserted = insertReaction(postId, () -> postLikeRepository.insertIfAbsent(postId, userId, LocalDateTime.now()));
+        return applyLikeChange(postId, userId, true, inserted);
+    }
+
+    // Idempotent like (PUT): liking an already liked post changes nothing
+    @Transactional
+    public ToggleLikeResultDTO likePost(Long postId, Long userId) {
+        if (engagementWriteBuffer.isEnabled()) {
+            return bufferLikeChange(postId, userId, true);
+        }
+        int inserted = insertReaction(postId, () -> postLikeRepository.insertIfAbsent(postId, userId, LocalDateTime.now()));
+        return applyLikeChange(postId, userId, true, inserted);
+    }
+
+    // Idempotent unlike (DELETE): unliking a post that is not liked changes nothing
+    @Transactional
+    public ToggleLikeResultDTO unlikePost(Long postId, Long userId) {
+        if (engagementWriteBuffer.isEnabled()) {
+            return bufferLikeChange(postId, userId, false);
         }
-        // Return the updated like count and the like action
-        int updatedLikeCount = postLikeRepository.countByPost(post);
-        return new ToggleLikeResultDTO(isLiked, updatedLikeCount);
+        int deleted = postLikeRepository.deleteByPostIdAndUserId(postId, userId);
+        return applyLikeChange(postId, userId, false, -deleted);
     }
 
     @Transactional
     public ToggleEchoResultDTO toggleEcho(Long postId, Long userId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found."));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found."));
-
-        boolean isEchoed;
-
-        Optional<PostEcho> existingEcho = postEchoRepository.findByPostAndUser(post, user);
-        if (existingEcho.isPresent()) {
-            // If the echo exists, delete it (i.e. user unechoes)
-            postEchoRepository.delete(existingEcho.get());
-            isEchoed = false;
-            log.info("User {} unechoed post {}", userId, postId);
-        } else {
-            // If no echo exists, create a new echo record
-            PostEcho echo = new PostEcho();
-            echo.setPost(post);
-            echo.setUser(user);
-            echo.setEchoedAt(LocalDateTime.now());
-            postEchoRepository.save(echo);
-            isEchoed = true;
-            log.info("User {} echoed post {}", userId, postId);
+        if (engagementWriteBuffer.isEnabled()) {
+            return bufferEchoChange(postId, userId, null);
+        }
+        if (postEchoRepository.deleteByPostIdAndUserId(postId, userId) > 0) {
+            return applyEchoChange(postId, userId, false, -1);
+        }
+        int inserted = insertReaction(postId, () -> postEchoRepository.insertIfAbsent(postId, userId, LocalDateTime.now()));
+        return applyEchoChange(postId, userId, true, inserted);
+    }
+
+    @Transactional
+    public ToggleEchoResultDTO echoPost(Long postId, Long userId) {
+        if (engagementWriteBuffer.isEnabled()) {
+            return bufferEchoChange(postId, userId, true);
         }
-        // Return the updated echo count and the echo action
-        int updatedEchoCount = postEchoRepository.countByPost(post);
-        return new ToggleEchoResultDTO(isEchoed, updatedEchoCount);
+        int inserted = insertReaction(postId, () -> postEchoRepository.insertIfAbsent(postId, userId, LocalDateTime.now()));
+        return applyEchoChange(postId, userId, true, inserted);
     }
 
+    @Transactional
+    public ToggleEchoResultDTO unechoPost(Long postId, Long userId) {
+        if (engagementWriteBuffer.isEnabled()) {
+            return bufferEchoChange(postId, userId, false);
+        }
+        int deleted = postEchoRepository.deleteByPostIdAndUserId(postId, userId);
+        return applyEchoChange(postId, userId, false, -deleted);
+    }
+
+    @Transactional(readOnly = true)
     public FeedResponseDTO<TextPostDTO> getEchoedTextPosts(Long userId, int limit, String cursor) {
-        LocalDateTime cursorDate = DateTimeUtils.parseCursor(cursor);
+        KeysetCursor after = KeysetCursor.decode(cursor);
         // Request one extra record to determine if there's a next page.
         Pageable pageable = PageRequest.of(0, limit + 1);
-        List<PostEcho> echoes;
-        if (cursorDate != null) {
-            echoes = postEchoRepository.findTextPostEchoedByUserBefore(userId, cursorDate, pageable);
+        List<EchoedTextPostSummaryDTO> echoes;
+        if (after != null) {
+            echoes = postEchoRepository.findTextPostEchoedByUserAfterCursor(userId, after.getTimestamp(), after.getId(), pageable);
         } else {
             echoes = postEchoRepository.findTextPostEchoedByUser(userId, pageable);
         }
@@ -228,28 +366,114 @@ public class PostService {
         if (hasNext) {
             echoes = echoes.subList(0, limit);
         }
-        // The next cursor is the echoedAt of the last PostEcho.
-        String nextCursor = !echoes.isEmpty() ? echoes.get(echoes.size() - 1).getEchoedAt().toString() : null;
+        // The next cursor is the (echoedAt, postEchoId) of the last echo.
+        String nextCursor = null;
+        if (!echoes.isEmpty()) {
+            EchoedTextPostSummaryDTO last = echoes.get(echoes.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getEchoedAt(), last.getPostEchoId());
+        }
 
-        List<TextPostDTO> postDTOs = echoes.stream().map(echo -> {
-            TextPost textPost = (TextPost) echo.getPost();
-            return mapTextPostToDTO(textPost, userId);
-        }).collect(Collectors.toList());
+        List<TextPostDTO> postDTOs = mapSummariesToDTOs(echoes, userId);
         return new FeedResponseDTO<>(postDTOs, nextCursor, hasNext);
     }
 
     /**
-     * Maps a TextPost entity to TextPostDTO using engagement metrics.
+     * Applies the like counter delta (if the like row actually changed) and returns the new state.
      */
+    private ToggleLikeResultDTO applyLikeChange(Long postId, Long userId, boolean isLiked, int delta) {
+        if (delta != 0) {
+            postRepository.incrementLikeCount(postId, delta);
+            eventPublisher.publishEvent(new PostEngagementChangedEvent(postId));
+            eventPublisher.publishEvent(new PostReactionChangedEvent(postId, userId,
+                    PostReactionChangedEvent.Reaction.LIKE, isLiked));
+            log.info("User {} {} post {}", userId, isLiked ? "liked" : "unliked", postId);
+        }
+        int likesCount = postRepository.findLikeCount(postId)
+                .orElseThrow(() -> new NotFoundException("Post not found with id: " + postId));
+        return new ToggleLikeResultDTO(isLiked, likesCount);
+    }
+
+    private ToggleEchoResultDTO applyEchoChange(Long postId, Long userId, boolean isEchoed, int delta) {
+        if (delta != 0) {
+            postRepository.incrementEchoCount(postId, delta);
+            eventPublisher.publishEvent(new PostEngagementChangedEvent(postId));
+            eventPublisher.publishEvent(new PostReactionChangedEvent(postId, userId,
+                    PostReactionChangedEvent.Reaction.ECHO, isEchoed));
+            log.info("User {} {} post {}", userId, isEchoed ? "echoed" : "unechoed", postId);
+        }
+        int echoesCount = postRepository.findEchoCount(postId)
+                .orElseThrow(() -> new NotFoundException("Post not found with id: " + postId));
+        return new ToggleEchoResultDTO(isEchoed, echoesCount);
+    }
+
+    /**
+     * Write-behind variant: the change is buffered and the count includes buffered changes of all users.
+     * Passing null as the desired state toggles.
+     */
+    private ToggleLikeResultDTO bufferLikeChange(Long postId, Long userId, Boolean desired) {
+        int persistedCount = postRepository.findLikeCount(postId)
+                .orElseThrow(() -> new NotFoundException("Post not found with id: " + postId));
+        boolean isLiked = engagementWriteBuffer.apply(EngagementWriteBuffer.Type.POST_LIKE, postId, userId, desired,
+                () -> postLikeRepository.existsByPost_PostIdAndUser_UserId(postId, userId));
+        int likesCount = persistedCount + engagementWriteBuffer.pendingDelta(EngagementWriteBuffer.Type.POST_LIKE, postId);
+        eventPublisher.publishEvent(new PostEngagementChangedEvent(postId));
+        return new ToggleLikeResultDTO(isLiked, likesCount);
+    }
+
+    private ToggleEchoResultDTO bufferEchoChange(Long postId, Long userId, Boolean desired) {
+        int persistedCount = postRepository.findEchoCount(postId)
+                .orElseThrow(() -> new NotFoundException("Post not found with id: " + postId));
+        boolean isEchoed = engagementWriteBuffer.apply(EngagementWriteBuffer.Type.POST_ECHO, postId, userId, desired,
+                () -> postEchoRepository.existsByPost_PostIdAndUser_UserId(postId, userId));
+        int echoesCount = persistedCount + engagementWriteBuffer.pendingDelta(EngagementWriteBuffer.Type.POST_ECHO, postId);
+        eventPublisher.publishEvent(new PostEngagementChangedEvent(postId));
+        return new ToggleEchoResultDTO(isEchoed, echoesCount);
+    }
+
+    // Duplicates are absorbed by ON CONFLICT DO NOTHING, so a violation here is a foreign key. It is only a missing
+    // post if the post is gone; the check runs in its own transaction because the failed statement aborted ours.
+    private int insertReaction(Long postId, IntSupplier insert) {
+        try {
+            return insert.getAsInt();
+        } catch (DataIntegrityViolationException e) {
+            if (Boolean.FALSE.equals(separateTransaction.execute(status -> postRepository.existsById(postId)))) {
+                throw new NotFoundException("Text post not found with id: " + postId);
+            }
+            throw e;
+        }
+    }
+
+    // Next cursor is the (createdAt, postId) of the last post in the list
+    private String nextCursor(List<TextPostSummaryDTO> posts) {
+        if (posts.isEmpty()) {
+            return null;
+        }
+        TextPostSummaryDTO last = posts.get(posts.size() - 1);
+        return KeysetCursor.encode(last.getCreatedAt(), last.getPostId());
+    }
+
     private TextPostDTO mapTextPostToDTO(TextPost post, Long currentUserId) {
-        int likesCount = postLikeRepository.countByPost(post);
-        int commentsCount = postCommentRepository.countByPost(post);
-        int echoesCount = postEchoRepository.countByPost(post);
-        boolean isLiked = postLikeRepository.findByPostAndUser_UserId(post, currentUserId).isPresent();
-        boolean isEchoed = postEchoRepository.findByPostAndUser_UserId(post, currentUserId).isPresent();
+        return mapSummariesToDTOs(List.of(toSummary(post)), currentUserId).get(0);
+    }
+
+    /**
+     * Adds the viewer's personal flags to a page of shared post summaries. Engagement flags for the whole
+     * page are loaded in one batch, so the number of queries does not grow with the page size.
+     */
+    private List<TextPostDTO> mapSummariesToDTOs(List<? extends TextPostSummaryDTO> posts, Long currentUserId) {
+        Map<Long, EngagementDTO> engagements = engagementService.getPostEngagements(posts, currentUserId);
 
-        EngagementDTO engagement = new EngagementDTO(likesCount, commentsCount, echoesCount, isLiked, isEchoed);
+        return posts.stream()
+                .map(post -> mapSummaryToDTO(post, engagements.get(post.getPostId()), currentUserId))
+                .collect(Collectors.toList());
+    }
+
+    private TextPostSummaryDTO toSummary(TextPost post) {
+        return new TextPostSummaryDTO(post.getPostId(), post.getCategory(), post.getContent(), post.getAuthorId(),
+                post.getCreatedAt(), post.getUpdatedAt(), post.getLikeCount(), post.getCommentCount(), post.getEchoCount());
+    }
 
+    private TextPostDTO mapSummaryToDTO(TextPostSummaryDTO post, EngagementDTO engagement, Long currentUserId) {
         TextPostDTO textPostDTO = new TextPostDTO();
         textPostDTO.setPostId(post.getPostId());
         textPostDTO.setCategory(post.getCategory());
@@ -0,0 +1,30 @@
+package com.echonymous.storage;
+
+import com.echonymous.dto.StoredBlobDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Storage for uploaded files (audio) outside the database, addressed by key. Implementations stream in both
+ * directions and never hold a whole blob in memory.
+ */
+public interface BlobStore {
+
+    /**
+     * Copies the stream into a new blob under key, computing its checksum on the way. Fails with a
+     * ValidationException (and stores nothing) once more than maxBytes have been read.
+     */
+    StoredBlobDTO write(String key, InputStream in, long maxBytes) throws IOException;
+
+    /**
+     * Writes count bytes of the blob, starting at position, to the target. Throws NotFoundException if there
+     * is no blob under key.
+     */
+    void transferTo(String key, long position, long count, WritableByteChannel target) throws IOException;
+
+    boolean exists(String key);
+
+    void delete(String key) throws IOException;
+}
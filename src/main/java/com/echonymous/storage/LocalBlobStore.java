@@ -0,0 +1,110 @@
+package com.echonymous.storage;
+
+import com.echonymous.dto.StoredBlobDTO;
+import com.echonymous.exception.NotFoundException;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * BlobStore on the local filesystem under root-dir. A blob is written to a temporary file next to its final
+ * path and moved into place once complete, so readers never see a partial file. Reads use
+ * FileChannel.transferTo, which lets the JDK use sendfile when the target is a socket channel.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "echonymous.blob-store.type", havingValue = "local", matchIfMissing = true)
+public class LocalBlobStore implements BlobStore {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path root;
+
+    public LocalBlobStore(@Value("${echonymous.blob-store.local.root-dir:data/blobs}") String rootDir) {
+        this.root = Path.of(rootDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public StoredBlobDTO write(String key, InputStream in, long maxBytes) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        MessageDigest digest = sha256();
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new ValidationException("File exceeds the maximum size of " + maxBytes + " bytes.");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        log.debug("Stored blob {} ({} bytes)", key, size);
+        return new StoredBlobDTO(key, size, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    @Override
+    public void transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            long end = position + count;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    // Only happens when the file was truncated underneath us
+                    throw new IOException("Blob " + key + " ended before byte " + end);
+                }
+                position += transferred;
+            }
+        } catch (NoSuchFileException e) {
+            throw new NotFoundException("File not found.");
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    // Keys are generated by the application, but must never point outside the root all the same
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return path;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.echonymous.util;
+
+import java.util.Locale;
+
+public final class CategoryUtils {
+    // Feed filter value meaning "every category"
+    public static final String ALL = "all";
+
+    private CategoryUtils() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Returns the key a category is stored and looked up under: trimmed and lower-cased, so "Tech " and
+     * "tech" are the same feed. Null stays null.
+     */
+    public static String normalize(String category) {
+        return category == null ? null : category.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,53 @@
+package com.echonymous.util;
+
+import jakarta.validation.ValidationException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Shared encoding of the opaque pagination cursors: URL-safe base64 (no padding) of a fixed-size payload whose
+ * first byte is the cursor type's version, so a cursor of one type is rejected by the others.
+ */
+final class CursorCodec {
+
+    private CursorCodec() {
+    }
+
+    /**
+     * A buffer of the given size with the version byte already written.
+     */
+    static ByteBuffer allocate(byte version, int encodedBytes) {
+        return ByteBuffer.allocate(encodedBytes).put(version);
+    }
+
+    static String encode(ByteBuffer buffer) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes the cursor and checks its size and version.
+     *
+     * @return the payload positioned after the version byte, or null when no cursor was given (first page)
+     * @throws ValidationException if the cursor is malformed or of another version
+     */
+    static ByteBuffer decode(String cursor, byte version, int encodedBytes) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        if (bytes.length != encodedBytes || bytes[0] != version) {
+            throw invalid();
+        }
+        return ByteBuffer.wrap(bytes, 1, encodedBytes - 1);
+    }
+
+    static ValidationException invalid() {
+        return new ValidationException("Invalid cursor format.");
+    }
+}
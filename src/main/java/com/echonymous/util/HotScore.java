@@ -0,0 +1,33 @@
+package com.echonymous.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Score of a post in the "hot" feed: its weighted engagement decayed exponentially with the post's age,
+ * halving every HALF_LIFE_SECONDS. Scores are kept in log2 space,
+ *
+ *     score = log2(1 + likes + COMMENT_WEIGHT * comments + ECHO_WEIGHT * echoes) + createdAt / HALF_LIFE_SECONDS
+ *
+ * which orders posts exactly like engagement * 2^(-age / HALF_LIFE_SECONDS) at any instant, but does not change
+ * as time passes. Stored scores therefore never need rescoring; a score only changes with the post's counters.
+ * A post without engagement ranks by recency alone, and a post needs twice the engagement to rank with one
+ * HALF_LIFE_SECONDS newer.
+ *
+ * V6__post_hot_score.sql computes the same formula in SQL; keep them in sync.
+ */
+public final class HotScore {
+    public static final double COMMENT_WEIGHT = 2.0;
+    public static final double ECHO_WEIGHT = 3.0;
+    public static final long HALF_LIFE_SECONDS = 12 * 60 * 60;
+
+    private HotScore() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static double of(int likeCount, int commentCount, int echoCount, LocalDateTime createdAt) {
+        double engagement = 1 + Math.max(likeCount, 0) + COMMENT_WEIGHT * Math.max(commentCount, 0)
+                + ECHO_WEIGHT * Math.max(echoCount, 0);
+        return Math.log(engagement) / Math.log(2) + (double) createdAt.toEpochSecond(ZoneOffset.UTC) / HALF_LIFE_SECONDS;
+    }
+}
@@ -1,58 +1,106 @@
 package com.echonymous.util;
 
-import com.echonymous.dto.ApiResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
 public class JwtUtils {
-    @Value("${jwt.secret}")
-    private String secretKey;
+    // Verified token -> userId for the token's remaining lifetime
+    private record VerifiedToken(Long userId, long expiresAtMillis) {
+    }
+
+    private final long expirationTime;
+    // The key, parser and cache are thread-safe and shared by all requests
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtUtils(@Value("${jwt.secret}") String secretKey,
+                    @Value("${jwt.expiration}") long expirationTime,
+                    @Value("${jwt.claims-cache.max-size:10000}") long claimsCacheMaxSize) {
+        this.expirationTime = expirationTime;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
 
-    @Value("${jwt.expiration}")
-    private long expirationTime;
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
 
     public String generateToken(Long userId) {
         return Jwts.builder()
-                .setSubject(userId.toString())  // User ID as String
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(SignatureAlgorithm.HS256, secretKey)
+                .subject(userId.toString())  // User ID as String
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + expirationTime))
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
     public boolean validateToken(String token) {
         try {
-            JwtParser parser = Jwts.parser()
-                    .setSigningKey(secretKey)
-                    .build();
-            Claims claims = parser.parseClaimsJws(token).getBody();
-
-            Date expirationDate = claims.getExpiration();
-            if (expirationDate.before(new Date())) {
-                //return false; // Token is expired
-                throw new ExpiredJwtException(null, claims, "Token is expired");
-            }
+            verify(token);
             log.debug("Token in valid.");
             return true;
-        } catch (ExpiredJwtException e) {
+        } catch (JwtException | IllegalArgumentException e) {
             log.error("JWT token validation failed: {}", e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Returns the user id of a valid token.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
     public Long getUserIdFromToken(String token) {
-        JwtParser parser = Jwts.parser()
-                .setSigningKey(secretKey)
-                .build();
-        Claims claims = parser.parseClaimsJws(token).getBody();
-        return Long.parseLong(claims.getSubject());
+        return verify(token).userId();
+    }
+
+    /**
+     * Returns the id of the user authenticated by JwtAuthFilter for the current request, or null if the
+     * request carried no valid token.
+     */
+    public Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Long userId) {
+            return userId;
+        }
+        return null;
     }
 
     public String extractJwtFromRequest(HttpServletRequest request) {
@@ -62,4 +110,31 @@ public class JwtUtils {
         }
         return null;
     }
+
+    /**
+     * Verifies the token once and remembers the result until the token expires, so repeated requests with
+     * the same token skip the signature check. Entries are keyed by a hash of the token rather than the token.
+     */
+    private VerifiedToken verify(String token) {
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            return cached;
+        }
+
+        // parseSignedClaims also rejects expired tokens with ExpiredJwtException
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        VerifiedToken verified = new VerifiedToken(Long.parseLong(claims.getSubject()), claims.getExpiration().getTime());
+        verifiedTokens.put(key, verified);
+        return verified;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
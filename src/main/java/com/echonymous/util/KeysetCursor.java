@@ -0,0 +1,74 @@
+package com.echonymous.util;
+
+import jakarta.validation.ValidationException;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Opaque pagination cursor holding the sort key of the last row of a page: its timestamp plus its id as a
+ * tie-breaker, so rows sharing a timestamp are neither skipped nor repeated at page boundaries.
+ *
+ * Encoded as URL-safe base64 of [version byte][epoch seconds][nanos][id]. Bare ISO_LOCAL_DATE_TIME cursors
+ * issued before this format are rejected: without an id they would skip or repeat rows sharing the timestamp.
+ */
+public final class KeysetCursor {
+    private static final byte VERSION = 1;
+    private static final int ENCODED_BYTES = 1 + Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    public KeysetCursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        return CursorCodec.encode(CursorCodec.allocate(VERSION, ENCODED_BYTES)
+                .putLong(timestamp.toEpochSecond(ZoneOffset.UTC))
+                .putInt(timestamp.getNano())
+                .putLong(id));
+    }
+
+    public static String encode(LocalDateTime timestamp, Long id) {
+        return new KeysetCursor(timestamp, id).encode();
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     *
+     * @return the cursor, or null when none was given (first page)
+     * @throws ValidationException if the cursor is malformed, of an unknown version or a legacy timestamp cursor
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor != null && cursor.indexOf('T') > 0 && cursor.indexOf(':') > 0) {
+            throw new ValidationException("Cursor format is no longer supported. Restart from the first page.");
+        }
+        ByteBuffer buffer = CursorCodec.decode(cursor, VERSION, ENCODED_BYTES);
+        if (buffer == null) {
+            return null;
+        }
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        long id = buffer.getLong();
+        if (nanos < 0 || nanos > 999_999_999) {
+            throw CursorCodec.invalid();
+        }
+        try {
+            return new KeysetCursor(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC), id);
+        } catch (DateTimeException e) {
+            throw CursorCodec.invalid();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.echonymous.util;
+
+import jakarta.validation.ValidationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Opaque pagination cursor of the score-ordered ("hot") feed: the score of the last post of a page plus its id
+ * as a tie-breaker. The score is the one the post had when the page was served, so a post whose score changes
+ * between two pages may be skipped or shown twice, as in any live ranking.
+ *
+ * Encoded as URL-safe base64 of [version byte][score bits][id], distinct from {@link KeysetCursor}'s version.
+ */
+public final class ScoreCursor {
+    private static final byte VERSION = 2;
+    private static final int ENCODED_BYTES = 1 + Double.BYTES + Long.BYTES;
+
+    private final double score;
+    private final Long id;
+
+    public ScoreCursor(double score, Long id) {
+        this.score = score;
+        this.id = id;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        return CursorCodec.encode(CursorCodec.allocate(VERSION, ENCODED_BYTES)
+                .putDouble(score)
+                .putLong(id));
+    }
+
+    public static String encode(double score, Long id) {
+        return new ScoreCursor(score, id).encode();
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     *
+     * @return the cursor, or null when none was given (first page)
+     * @throws ValidationException if the cursor is malformed or of an unknown version
+     */
+    public static ScoreCursor decode(String cursor) {
+        ByteBuffer buffer = CursorCodec.decode(cursor, VERSION, ENCODED_BYTES);
+        if (buffer == null) {
+            return null;
+        }
+        double score = buffer.getDouble();
+        long id = buffer.getLong();
+        if (!Double.isFinite(score)) {
+            throw CursorCodec.invalid();
+        }
+        return new ScoreCursor(score, id);
+    }
+}
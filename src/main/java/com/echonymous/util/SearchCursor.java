@@ -0,0 +1,66 @@
+package com.echonymous.util;
+
+import jakarta.validation.ValidationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Opaque pagination cursor of search results: the relevance score and id of the last result of a page, plus
+ * the instant the first page was ranked at. Later pages compute the recency boost as of that instant, so a
+ * result's score, and with it the page boundaries, does not drift while the user pages through.
+ *
+ * Encoded as URL-safe base64 of [version byte][score bits][id][epoch seconds].
+ */
+public final class SearchCursor {
+    private static final byte VERSION = 3;
+    private static final int ENCODED_BYTES = 1 + Float.BYTES + Long.BYTES + Long.BYTES;
+
+    private final float score;
+    private final Long id;
+    private final long asOf;
+
+    public SearchCursor(float score, Long id, long asOf) {
+        this.score = score;
+        this.id = id;
+        this.asOf = asOf;
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getAsOf() {
+        return asOf;
+    }
+
+    public String encode() {
+        return CursorCodec.encode(CursorCodec.allocate(VERSION, ENCODED_BYTES)
+                .putFloat(score)
+                .putLong(id)
+                .putLong(asOf));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     *
+     * @return the cursor, or null when none was given (first page)
+     * @throws ValidationException if the cursor is malformed or of an unknown version
+     */
+    public static SearchCursor decode(String cursor) {
+        ByteBuffer buffer = CursorCodec.decode(cursor, VERSION, ENCODED_BYTES);
+        if (buffer == null) {
+            return null;
+        }
+        float score = buffer.getFloat();
+        long id = buffer.getLong();
+        long asOf = buffer.getLong();
+        if (!Float.isFinite(score)) {
+            throw CursorCodec.invalid();
+        }
+        return new SearchCursor(score, id, asOf);
+    }
+}
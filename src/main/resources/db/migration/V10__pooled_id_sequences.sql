@@ -0,0 +1,21 @@
+-- Posts, comments and users take their ids from sequences that Hibernate reserves in blocks of 50 (pooled-lo:
+-- each nextval is the first id of a block), which lets it batch inserts. The increment must match the
+-- allocationSize in the entities. Identity is dropped and the columns default to the sequence instead, so
+-- inserts written in plain SQL keep working; each of those uses up a whole block.
+create sequence if not exists users_seq increment by 50;
+select setval('users_seq', coalesce((select max(user_id) from users), 0) + 1, false);
+alter table users alter column user_id drop identity if exists;
+alter table users alter column user_id set default nextval('users_seq');
+alter sequence users_seq owned by users.user_id;
+
+create sequence if not exists post_seq increment by 50;
+select setval('post_seq', coalesce((select max(post_id) from post), 0) + 1, false);
+alter table post alter column post_id drop identity if exists;
+alter table post alter column post_id set default nextval('post_seq');
+alter sequence post_seq owned by post.post_id;
+
+create sequence if not exists post_comment_seq increment by 50;
+select setval('post_comment_seq', coalesce((select max(post_comment_id) from post_comment), 0) + 1, false);
+alter table post_comment alter column post_comment_id drop identity if exists;
+alter table post_comment alter column post_comment_id set default nextval('post_comment_seq');
+alter sequence post_comment_seq owned by post_comment.post_comment_id;
@@ -0,0 +1,74 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update). Existing databases are baselined at this
+-- version and skip this script.
+create table if not exists users (
+    user_id bigint generated by default as identity,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    username varchar(255) not null unique,
+    primary key (user_id)
+);
+
+create table if not exists roles (
+    role_id bigint generated by default as identity,
+    role varchar(255),
+    primary key (role_id)
+);
+
+create table if not exists user_role_junction (
+    role_id bigint not null references roles,
+    user_id bigint not null references users,
+    primary key (role_id, user_id)
+);
+
+create table if not exists post (
+    post_id bigint generated by default as identity,
+    post_type varchar(31) not null,
+    category varchar(255),
+    author_id bigint,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    like_count integer default 0 not null,
+    comment_count integer default 0 not null,
+    echo_count integer default 0 not null,
+    content oid,
+    file_path varchar(255),
+    primary key (post_id)
+);
+
+create table if not exists post_comment (
+    post_comment_id bigint generated by default as identity,
+    post_id bigint references post,
+    user_id bigint references users,
+    parent_comment_id bigint references post_comment,
+    comment varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (post_comment_id)
+);
+
+create table if not exists post_like (
+    post_like_id bigint generated by default as identity,
+    post_id bigint references post,
+    user_id bigint references users,
+    liked_at timestamp(6),
+    primary key (post_like_id),
+    constraint uk_post_like_post_user unique (post_id, user_id)
+);
+
+create table if not exists post_echo (
+    post_echo_id bigint generated by default as identity,
+    post_id bigint references post,
+    user_id bigint references users,
+    echoed_at timestamp(6),
+    primary key (post_echo_id),
+    constraint uk_post_echo_post_user unique (post_id, user_id)
+);
+
+create table if not exists comment_like (
+    comment_id bigint generated by default as identity,
+    post_comment_id bigint references post_comment,
+    user_id bigint references users,
+    liked_at timestamp(6),
+    primary key (comment_id),
+    constraint uk_comment_like_comment_user unique (post_comment_id, user_id)
+);
@@ -0,0 +1,20 @@
+-- Indexes matching the feed, profile, echo and comment queries. The same indexes are declared with @Index on
+-- the entities, except the expression index on lower(category) which JPA cannot express.
+
+-- Main feed: WHERE post_type = ? [AND created_at < ?] ORDER BY created_at DESC
+create index if not exists idx_post_type_created_at on post (post_type, created_at desc, post_id);
+
+-- Category feed: WHERE post_type = ? AND lower(category) = lower(?) [AND created_at < ?] ORDER BY created_at DESC
+create index if not exists idx_post_type_category_created_at on post (post_type, lower(category), created_at desc);
+
+-- Profile: WHERE author_id = ? [AND created_at < ?] ORDER BY created_at DESC
+create index if not exists idx_post_author_created_at on post (author_id, created_at desc);
+
+-- Top-level comments: WHERE post_id = ? AND parent_comment_id IS NULL [AND created_at < ?] ORDER BY created_at DESC
+create index if not exists idx_post_comment_post_parent_created_at on post_comment (post_id, parent_comment_id, created_at desc);
+
+-- Replies: WHERE parent_comment_id = ? [AND created_at < ?] ORDER BY created_at DESC
+create index if not exists idx_post_comment_parent_created_at on post_comment (parent_comment_id, created_at desc);
+
+-- Echoed posts: WHERE user_id = ? [AND echoed_at < ?] ORDER BY echoed_at DESC
+create index if not exists idx_post_echo_user_echoed_at on post_echo (user_id, echoed_at desc);
@@ -0,0 +1,20 @@
+-- Keyset pagination orders by (timestamp DESC, id DESC) and filters with (timestamp, id) < (?, ?). The id is
+-- added to every sort index, descending, so one index range scan serves both the predicate and the order.
+
+drop index if exists idx_post_type_created_at;
+create index if not exists idx_post_type_created_at_id on post (post_type, created_at desc, post_id desc);
+
+drop index if exists idx_post_type_category_created_at;
+create index if not exists idx_post_type_category_created_at_id on post (post_type, lower(category), created_at desc, post_id desc);
+
+drop index if exists idx_post_author_created_at;
+create index if not exists idx_post_author_created_at_id on post (author_id, created_at desc, post_id desc);
+
+drop index if exists idx_post_comment_post_parent_created_at;
+create index if not exists idx_post_comment_post_parent_created_at_id on post_comment (post_id, parent_comment_id, created_at desc, post_comment_id desc);
+
+drop index if exists idx_post_comment_parent_created_at;
+create index if not exists idx_post_comment_parent_created_at_id on post_comment (parent_comment_id, created_at desc, post_comment_id desc);
+
+drop index if exists idx_post_echo_user_echoed_at;
+create index if not exists idx_post_echo_user_echoed_at_id on post_echo (user_id, echoed_at desc, post_echo_id desc);
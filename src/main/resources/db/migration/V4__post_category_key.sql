@@ -0,0 +1,8 @@
+-- Category feeds filtered on lower(category), which had to be computed for every row and every query. The
+-- normalized key is now stored once at write time (see Post#normalizeCategory) and indexed directly.
+
+alter table post add column if not exists category_key varchar(255);
+update post set category_key = lower(trim(category)) where category is not null;
+
+drop index if exists idx_post_type_category_created_at_id;
+create index if not exists idx_post_type_category_key_created_at_id on post (post_type, category_key, created_at desc, post_id desc);
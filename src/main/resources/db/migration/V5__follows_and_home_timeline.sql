@@ -0,0 +1,22 @@
+-- Follow graph and the fan-out-on-write home timelines. users.follower_count is a denormalized counter that
+-- decides whether an author's posts are pushed to followers or pulled at read time.
+
+alter table users add column if not exists follower_count integer default 0 not null;
+
+create table if not exists user_follow (
+    user_follow_id bigint generated by default as identity,
+    follower_id bigint not null references users,
+    followee_id bigint not null references users,
+    followed_at timestamp(6),
+    primary key (user_follow_id),
+    constraint uk_user_follow_follower_followee unique (follower_id, followee_id)
+);
+create index if not exists idx_user_follow_followee_follower on user_follow (followee_id, follower_id);
+
+create table if not exists home_timeline (
+    user_id bigint not null,
+    post_id bigint not null,
+    created_at timestamp(6),
+    primary key (post_id, user_id)
+);
+create index if not exists idx_home_timeline_user_created_at_post on home_timeline (user_id, created_at desc, post_id desc);
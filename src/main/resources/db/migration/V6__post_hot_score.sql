@@ -0,0 +1,11 @@
+-- Score of the "hot" feed (see HotScore): log2 of the weighted engagement plus the post's age in half-lives,
+-- so ranking by it never needs a sort over the post table. Existing posts are scored as if all their
+-- engagement had arrived at once; the running application checkpoints the live scores from then on.
+
+alter table post add column if not exists hot_score double precision default 0 not null;
+update post set hot_score = ln(1 + greatest(like_count, 0) + 2.0 * greatest(comment_count, 0) + 3.0 * greatest(echo_count, 0)) / ln(2)
+        + extract(epoch from created_at) / 43200
+    where created_at is not null;
+
+create index if not exists idx_post_type_hot_score_id on post (post_type, hot_score desc, post_id desc);
+create index if not exists idx_post_type_category_key_hot_score_id on post (post_type, category_key, hot_score desc, post_id desc);
@@ -0,0 +1,5 @@
+-- Data export reads every comment and like of one user, newest first. Echoes already have
+-- idx_post_echo_user_echoed_at_id and posts idx_post_author_created_at_id.
+
+create index if not exists idx_post_comment_user_created_at_id on post_comment (user_id, created_at desc, post_comment_id desc);
+create index if not exists idx_post_like_user_liked_at_id on post_like (user_id, liked_at desc, post_like_id desc);
@@ -0,0 +1,10 @@
+-- Deleting a post only sets deleted_at, which hides it from every entity query (@SQLRestriction on Post).
+-- PostPurgeJob deletes the row and its likes, comments and echoes later in bounded batches, counting failed
+-- attempts in purge_attempts.
+
+alter table post add column if not exists deleted_at timestamp(6);
+alter table post add column if not exists purge_attempts integer default 0 not null;
+
+-- Purge queue: WHERE deleted_at IS NOT NULL AND purge_attempts < ? ORDER BY deleted_at. Partial, so it only
+-- holds posts waiting to be purged (JPA cannot express it, so it is not declared on the entity).
+create index if not exists idx_post_deleted_at on post (deleted_at, post_id) where deleted_at is not null;
@@ -0,0 +1,7 @@
+-- Audio uploads are streamed to the blob store; post.file_path holds the blob key and these columns the
+-- metadata recorded while the file was stored.
+
+alter table post add column if not exists content_type varchar(255);
+alter table post add column if not exists size_bytes bigint;
+alter table post add column if not exists duration_seconds integer;
+alter table post add column if not exists checksum varchar(255);
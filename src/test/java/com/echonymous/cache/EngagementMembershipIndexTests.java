@@ -0,0 +1,181 @@
+package com.echonymous.cache;
+
+import com.echonymous.dto.EngagementDTO;
+import com.echonymous.dto.TextPostSummaryDTO;
+import com.echonymous.entity.TextPost;
+import com.echonymous.entity.User;
+import com.echonymous.event.PostReactionChangedEvent;
+import com.echonymous.repository.PostEchoRepository;
+import com.echonymous.repository.PostLikeRepository;
+import com.echonymous.repository.PostRepository;
+import com.echonymous.repository.UserRepository;
+import com.echonymous.service.EngagementService;
+import com.echonymous.service.EngagementWriteBuffer;
+import com.echonymous.service.HomeTimelineService;
+import com.echonymous.service.HydrationFanOut;
+import com.echonymous.service.PostSearchService;
+import com.echonymous.service.PostService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({PostService.class, EngagementService.class, EngagementWriteBuffer.class, HydrationFanOut.class, FeedPageCache.class, SingleFlight.class, EngagementMembershipIndex.class, FeedTimelineIndex.class, HotFeedIndex.class, PostSearchService.class, HomeTimelineService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EngagementMembershipIndexTests {
+
+    @Autowired
+    private EngagementMembershipIndex membershipIndex;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private EngagementService engagementService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private PostEchoRepository postEchoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private TextPost post;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = saveUser("alice");
+        bob = saveUser("bob");
+
+        post = new TextPost();
+        post.setCategory("Test");
+        post.setContent("Indexed post");
+        post.setAuthorId(alice.getUserId());
+        post.setCreatedAt(LocalDateTime.now());
+        post = postRepository.save(post);
+    }
+
+    @AfterEach
+    void tearDown() {
+        postLikeRepository.deleteAll();
+        postEchoRepository.deleteAll();
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testLookup_ShouldAnswerFlagsAndCounts_FromLoadedPost() {
+        postService.likePost(post.getPostId(), alice.getUserId());
+        postService.echoPost(post.getPostId(), bob.getUserId());
+        membershipIndex.load(List.of(post.getPostId()));
+
+        EngagementMembershipIndex.Membership membership = lookup(alice);
+        assertTrue(membership.liked());
+        assertFalse(membership.echoed());
+        assertEquals(1, membership.likeCount());
+        assertEquals(1, membership.echoCount());
+
+        // Committed toggles are applied without reloading the post
+        postService.likePost(post.getPostId(), bob.getUserId());
+        postService.unlikePost(post.getPostId(), alice.getUserId());
+
+        assertFalse(lookup(alice).liked());
+        assertTrue(lookup(bob).liked());
+        assertEquals(1, lookup(bob).likeCount());
+    }
+
+    @Test
+    void testReactionChanged_ShouldIgnoreEvent_OlderThanTheLastOneApplied() {
+        membershipIndex.load(List.of(post.getPostId()));
+        PostReactionChangedEvent liked = new PostReactionChangedEvent(post.getPostId(), alice.getUserId(),
+                PostReactionChangedEvent.Reaction.LIKE, true);
+        PostReactionChangedEvent unliked = new PostReactionChangedEvent(post.getPostId(), alice.getUserId(),
+                PostReactionChangedEvent.Reaction.LIKE, false);
+
+        // The unlike committed last but its event is delivered first
+        membershipIndex.onPostReactionChanged(unliked);
+        membershipIndex.onPostReactionChanged(liked);
+
+        assertFalse(lookup(alice).liked());
+        assertEquals(0, lookup(alice).likeCount());
+    }
+
+    @Test
+    void testGetPostEngagements_ShouldNotQuery_ForIndexedPosts() {
+        postService.likePost(post.getPostId(), alice.getUserId());
+        membershipIndex.load(List.of(post.getPostId()));
+        TextPostSummaryDTO summary = new TextPostSummaryDTO(post.getPostId(), post.getCategory(), post.getContent(),
+                post.getAuthorId(), post.getCreatedAt(), post.getUpdatedAt(), 0, 0, 0);
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+        EngagementDTO engagement = engagementService.getPostEngagements(List.of(summary), alice.getUserId())
+                .get(post.getPostId());
+
+        assertEquals(before, statistics.getPrepareStatementCount());
+        assertTrue(engagement.isLiked());
+        // The count comes from the bitmap rather than the stale summary
+        assertEquals(1, engagement.getLikesCount());
+    }
+
+    @Test
+    void testLookup_ShouldBeBypassed_InsideReadWriteTransaction() {
+        membershipIndex.load(List.of(post.getPostId()));
+
+        Map<Long, EngagementMembershipIndex.Membership> found = new TransactionTemplate(transactionManager)
+                .execute(status -> membershipIndex.lookup(List.of(post.getPostId()), alice.getUserId()));
+
+        assertTrue(found.isEmpty());
+        assertTrue(membershipIndex.isIndexed(post.getPostId()));
+    }
+
+    private EngagementMembershipIndex.Membership lookup(User user) {
+        EngagementMembershipIndex.Membership membership = membershipIndex.lookup(List.of(post.getPostId()), user.getUserId())
+                .get(post.getPostId());
+        assertNotNull(membership);
+        return membership;
+    }
+
+    private User saveUser(String name) {
+        User user = new User();
+        user.setEmail(name + "@example.com");
+        user.setUsername(name);
+        user.setPassword("password123");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,98 @@
+package com.echonymous.cache;
+
+import com.echonymous.dto.FeedResponseDTO;
+import com.echonymous.dto.TextPostSummaryDTO;
+import com.echonymous.event.PostCreatedEvent;
+import com.echonymous.event.PostDeletedEvent;
+import com.echonymous.event.PostEngagementChangedEvent;
+import com.echonymous.event.PostUpdatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedPageCacheTests {
+
+    private FeedPageCache feedPageCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        feedPageCache = new FeedPageCache(new SimpleMeterRegistry(), true, 100, 60);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testGet_ShouldLoadOnce_ForRepeatedRequests() {
+        load("All", null, 10L);
+        load("all ", "", 10L);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testOnPostCreated_ShouldInvalidateFirstPagesOfCategoryAndAll() {
+        load("All", null, 10L);
+        load("Tech", null, 10L);
+        load("Tech", "2025-01-01T00:00", 5L);
+        load("Music", null, 20L);
+
+        feedPageCache.onPostCreated(new PostCreatedEvent(30L, "Tech", LocalDateTime.now(), 1L));
+        load("All", null, 10L);
+        load("Tech", null, 10L);
+        load("Tech", "2025-01-01T00:00", 5L);
+        load("Music", null, 20L);
+
+        assertEquals(6, loads.get());
+    }
+
+    @Test
+    void testOnPostEngagementChanged_ShouldInvalidateOnlyPagesContainingPost() {
+        load("All", null, 10L);
+        load("All", "2025-01-01T00:00", 5L);
+
+        feedPageCache.onPostEngagementChanged(new PostEngagementChangedEvent(5L));
+        load("All", null, 10L);
+        load("All", "2025-01-01T00:00", 5L);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testOnPostDeleted_ShouldInvalidateOnlyPagesContainingPost() {
+        load("All", null, 10L);
+        load("All", "2025-01-01T00:00", 5L);
+
+        feedPageCache.onPostDeleted(new PostDeletedEvent(5L, "All"));
+        load("All", null, 10L);
+        load("All", "2025-01-01T00:00", 5L);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testOnPostUpdated_ShouldInvalidateNewCategory_WhenCategoryChanges() {
+        load("Tech", "2025-01-01T00:00", 5L);
+        load("Music", "2025-01-01T00:00", 6L);
+
+        feedPageCache.onPostUpdated(new PostUpdatedEvent(10L, "Music", "Tech", LocalDateTime.now()));
+        load("Tech", "2025-01-01T00:00", 5L);
+        load("Music", "2025-01-01T00:00", 6L);
+
+        assertEquals(3, loads.get());
+    }
+
+    private void load(String category, String cursor, Long postId) {
+        feedPageCache.get(category, cursor, 10, () -> {
+            loads.incrementAndGet();
+            TextPostSummaryDTO post = new TextPostSummaryDTO(postId, category, "content", 1L,
+                    LocalDateTime.now(), null, 0, 0, 0);
+            return new FeedResponseDTO<>(List.of(post), null, false);
+        });
+    }
+}
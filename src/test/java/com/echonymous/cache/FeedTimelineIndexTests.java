@@ -0,0 +1,118 @@
+package com.echonymous.cache;
+
+import com.echonymous.dto.TimelineEntryDTO;
+import com.echonymous.event.PostCreatedEvent;
+import com.echonymous.event.PostDeletedEvent;
+import com.echonymous.event.PostUpdatedEvent;
+import com.echonymous.repository.TextPostRepository;
+import com.echonymous.util.KeysetCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FeedTimelineIndexTests {
+
+    private static final int WINDOW = 5;
+
+    private final LocalDateTime start = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private TextPostRepository textPostRepository;
+    private FeedTimelineIndex feedTimelineIndex;
+
+    @BeforeEach
+    void setUp() {
+        textPostRepository = mock(TextPostRepository.class);
+        feedTimelineIndex = new FeedTimelineIndex(textPostRepository, new SimpleMeterRegistry(), true, WINDOW, 10);
+    }
+
+    @Test
+    void testPage_ShouldFallBack_UntilRebuilt() {
+        assertNull(feedTimelineIndex.page("all", null, 2));
+
+        rebuild(List.of(entry(3), entry(2), entry(1)), List.of(entry(3), entry(1)));
+
+        assertEquals(List.of(3L, 2L), feedTimelineIndex.page("all", null, 2));
+        assertEquals(List.of(3L, 1L), feedTimelineIndex.page("tech", null, 3));
+        // Every post of the category is indexed, so a short last page is final
+        assertEquals(List.of(1L), feedTimelineIndex.page("tech", cursor(3), 3));
+        // Unknown categories are read from the repository
+        assertNull(feedTimelineIndex.page("music", null, 3));
+    }
+
+    @Test
+    void testOnPostCreated_ShouldPrependAndDropOldest_WhenWindowIsFull() {
+        rebuild(List.of(entry(5), entry(4), entry(3), entry(2), entry(1)), List.of());
+
+        feedTimelineIndex.onPostCreated(new PostCreatedEvent(6L, "Tech", at(6), 1L));
+
+        assertEquals(List.of(6L, 5L, 4L, 3L, 2L), feedTimelineIndex.page("all", null, 5));
+        assertEquals(List.of(6L), feedTimelineIndex.page("tech", null, 2));
+        // Post 1 fell out of the window, so the page after post 3 cannot be answered from memory
+        assertNull(feedTimelineIndex.page("all", cursor(3), 2));
+        assertEquals(List.of(2L), feedTimelineIndex.page("all", cursor(3), 1));
+    }
+
+    @Test
+    void testOnPostCreated_ShouldKeepFeedOrder_WhenTimestampsCollide() {
+        rebuild(List.of(), List.of());
+
+        LocalDateTime sameInstant = at(1);
+        feedTimelineIndex.onPostCreated(new PostCreatedEvent(2L, "Tech", sameInstant, 1L));
+        feedTimelineIndex.onPostCreated(new PostCreatedEvent(4L, "Tech", sameInstant, 1L));
+        feedTimelineIndex.onPostCreated(new PostCreatedEvent(3L, "Tech", sameInstant, 1L));
+        feedTimelineIndex.onPostCreated(new PostCreatedEvent(3L, "Tech", sameInstant, 1L));
+
+        assertEquals(List.of(4L, 3L, 2L), feedTimelineIndex.page("tech", null, 5));
+        assertEquals(List.of(2L), feedTimelineIndex.page("tech", new KeysetCursor(sameInstant, 3L), 5));
+    }
+
+    @Test
+    void testOnPostUpdated_ShouldMovePostBetweenCategories() {
+        rebuild(List.of(entry(2), entry(1)), List.of(entry(2), entry(1)));
+
+        feedTimelineIndex.onPostUpdated(new PostUpdatedEvent(1L, "Tech", " Music", at(1)));
+
+        assertEquals(List.of(2L), feedTimelineIndex.page("tech", null, 5));
+        assertEquals(List.of(1L), feedTimelineIndex.page("music", null, 5));
+        assertEquals(List.of(2L, 1L), feedTimelineIndex.page("all", null, 5));
+    }
+
+    @Test
+    void testOnPostDeleted_ShouldRemovePostFromTimelines() {
+        rebuild(List.of(entry(3), entry(2), entry(1)), List.of(entry(3), entry(2), entry(1)));
+
+        feedTimelineIndex.onPostDeleted(new PostDeletedEvent(2L, "Tech"));
+
+        assertEquals(List.of(3L, 1L), feedTimelineIndex.page("all", null, 5));
+        assertEquals(List.of(3L, 1L), feedTimelineIndex.page("tech", null, 5));
+    }
+
+    private void rebuild(List<TimelineEntryDTO> all, List<TimelineEntryDTO> tech) {
+        when(textPostRepository.findLatestTimelineEntries(any())).thenReturn(new ArrayList<>(all));
+        when(textPostRepository.findDistinctCategoryKeys()).thenReturn(tech.isEmpty() ? List.of() : List.of("tech"));
+        when(textPostRepository.findTimelineEntriesByCategoryKey(eq("tech"), any())).thenReturn(new ArrayList<>(tech));
+        feedTimelineIndex.rebuild();
+    }
+
+    private TimelineEntryDTO entry(long postId) {
+        return new TimelineEntryDTO(postId, at(postId));
+    }
+
+    private KeysetCursor cursor(long postId) {
+        return new KeysetCursor(at(postId), postId);
+    }
+
+    // Post n was created n minutes after the start, so higher ids are newer
+    private LocalDateTime at(long postId) {
+        return start.plusMinutes(postId);
+    }
+}
@@ -0,0 +1,137 @@
+package com.echonymous.cache;
+
+import com.echonymous.dto.ScoredPostDTO;
+import com.echonymous.dto.TextPostSummaryDTO;
+import com.echonymous.event.PostDeletedEvent;
+import com.echonymous.event.PostEngagementChangedEvent;
+import com.echonymous.repository.TextPostRepository;
+import com.echonymous.util.HotScore;
+import com.echonymous.util.ScoreCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class HotFeedIndexTests {
+
+    private static final int CAPACITY = 3;
+
+    private final LocalDateTime start = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private TextPostRepository textPostRepository;
+    private JdbcTemplate jdbcTemplate;
+    private HotFeedIndex hotFeedIndex;
+
+    @BeforeEach
+    void setUp() {
+        textPostRepository = mock(TextPostRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        hotFeedIndex = new HotFeedIndex(textPostRepository, jdbcTemplate, new SimpleMeterRegistry(), true, CAPACITY, 10, "");
+    }
+
+    @Test
+    void testHotScore_ShouldHalveWeightOfEngagementPerHalfLife() {
+        LocalDateTime older = start.minusSeconds(HotScore.HALF_LIFE_SECONDS);
+
+        // 3 likes (weight 4 with the base) one half-life earlier tie with one like (weight 2) now
+        assertEquals(HotScore.of(1, 0, 0, start), HotScore.of(3, 0, 0, older), 1e-9);
+        assertTrue(HotScore.of(0, 1, 0, start) > HotScore.of(1, 0, 0, start));
+        assertTrue(HotScore.of(0, 0, 1, start) > HotScore.of(0, 1, 0, start));
+    }
+
+    @Test
+    void testPage_ShouldFallBack_UntilRebuilt_AndBelowTheRanking() {
+        assertNull(hotFeedIndex.page("all", null, 2));
+
+        rebuild(List.of(scored(1, 30), scored(2, 20), scored(3, 10)));
+
+        assertEquals(List.of(1L, 2L), ids(hotFeedIndex.page("all", null, 2)));
+        assertEquals(List.of(3L), ids(hotFeedIndex.page("all", new ScoreCursor(20, 2L), 1)));
+        // The ranking is full, so posts may exist below it
+        assertNull(hotFeedIndex.page("all", new ScoreCursor(20, 2L), 2));
+    }
+
+    @Test
+    void testRefresh_ShouldRescoreChangedPosts_AndAdmitPostsThatBeatTheRanking() {
+        rebuild(List.of(scored(1, score(1)), scored(2, score(0)), scored(3, score(0))));
+        when(textPostRepository.findSummariesByIds(any())).thenReturn(List.of(summary(4, 5), summary(3, 2)));
+
+        hotFeedIndex.onPostEngagementChanged(new PostEngagementChangedEvent(4L));
+        hotFeedIndex.onPostEngagementChanged(new PostEngagementChangedEvent(3L));
+        hotFeedIndex.refresh();
+
+        assertEquals(List.of(4L, 3L, 1L), ids(hotFeedIndex.page("all", null, 3)));
+        assertEquals(List.of(4L, 3L, 1L), ids(hotFeedIndex.page("tech", null, 3)));
+    }
+
+    @Test
+    void testRefresh_ShouldDropRankedPost_WhenItFallsBelowTheRanking() {
+        rebuild(List.of(scored(1, score(3)), scored(2, score(2)), scored(3, score(1))));
+        when(textPostRepository.findSummariesByIds(any())).thenReturn(List.of(summary(1, 0)));
+
+        hotFeedIndex.onPostEngagementChanged(new PostEngagementChangedEvent(1L));
+        hotFeedIndex.refresh();
+
+        // Unranked posts may now score above post 1, so it leaves the ranking instead of moving to its end
+        assertEquals(List.of(2L, 3L), ids(hotFeedIndex.page("all", null, 2)));
+        assertNull(hotFeedIndex.page("all", null, 3));
+    }
+
+    @Test
+    void testCheckpoint_ShouldWriteEachRefreshedScoreOnce() {
+        rebuild(List.of());
+        when(textPostRepository.findSummariesByIds(any())).thenReturn(List.of(summary(1, 2)));
+
+        hotFeedIndex.onPostEngagementChanged(new PostEngagementChangedEvent(1L));
+        hotFeedIndex.refresh();
+        hotFeedIndex.checkpoint();
+        hotFeedIndex.checkpoint();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(eq("UPDATE post SET hot_score = ? WHERE post_id = ?"),
+                argThat((Collection<Map.Entry<Long, Double>> scores) -> scores.size() == 1
+                        && scores.iterator().next().getKey() == 1L),
+                eq(1), any());
+    }
+
+    @Test
+    void testOnPostDeleted_ShouldRemovePostFromRankings() {
+        rebuild(List.of(scored(1, 30), scored(2, 20)));
+
+        hotFeedIndex.onPostDeleted(new PostDeletedEvent(1L, "Tech"));
+
+        assertEquals(List.of(2L), ids(hotFeedIndex.page("all", null, 5)));
+        assertEquals(List.of(2L), ids(hotFeedIndex.page("tech", null, 5)));
+    }
+
+    private void rebuild(List<ScoredPostDTO> ranked) {
+        when(textPostRepository.findHotEntries(any())).thenReturn(new ArrayList<>(ranked));
+        when(textPostRepository.findDistinctCategoryKeys()).thenReturn(List.of("tech"));
+        when(textPostRepository.findHotEntriesByCategoryKey(eq("tech"), any())).thenReturn(new ArrayList<>(ranked));
+        hotFeedIndex.rebuild();
+    }
+
+    private double score(int likes) {
+        return HotScore.of(likes, 0, 0, start);
+    }
+
+    private ScoredPostDTO scored(long postId, double score) {
+        return new ScoredPostDTO(postId, score);
+    }
+
+    private TextPostSummaryDTO summary(long postId, int likes) {
+        return new TextPostSummaryDTO(postId, "Tech", "Post " + postId, 1L, start, start, likes, 0, 0);
+    }
+
+    private static List<Long> ids(List<ScoredPostDTO> page) {
+        return page.stream().map(ScoredPostDTO::getPostId).toList();
+    }
+}
@@ -0,0 +1,168 @@
+package com.echonymous.cache;
+
+import com.echonymous.exception.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService executor;
+    private AtomicInteger loads;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(8);
+        loads = new AtomicInteger();
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testLoad_ShouldRunOneLoad_ForConcurrentIdenticalCalls() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, 100, 5000);
+
+        List<Future<String>> calls = startCalls(singleFlight, 8, 42L);
+        waitFor(() -> loads.get() == 1);
+        waitForFollowers(7);
+        release.countDown();
+
+        for (Future<String> call : calls) {
+            assertEquals("post-42", call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1.0, calls("leader"));
+        assertEquals(7.0, calls("follower"));
+
+        // Nothing is kept once the load is done
+        assertEquals("reloaded", singleFlight.load("post", 42L, () -> "reloaded"));
+        assertEquals(2.0, calls("leader"));
+    }
+
+    @Test
+    void testLoad_ShouldRethrowLeadersException_ToFollowers() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, 100, 5000);
+        CountDownLatch leading = new CountDownLatch(1);
+
+        Future<Object> leader = executor.submit(() -> singleFlight.load("post", 7L, () -> {
+            leading.countDown();
+            await(release);
+            throw new NotFoundException("Text post not found with id: 7");
+        }));
+        leading.await(5, TimeUnit.SECONDS);
+        Future<Object> follower = executor.submit(() -> singleFlight.load("post", 7L, () -> "unexpected"));
+        waitForFollowers(1);
+        release.countDown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerError = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(NotFoundException.class, leaderError.getCause());
+        assertInstanceOf(NotFoundException.class, followerError.getCause());
+    }
+
+    @Test
+    void testLoad_ShouldLoadOnItsOwn_AfterTimeoutOrWhenTooManyKeysAreInFlight() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, 1, 50);
+
+        List<Future<String>> leader = startCalls(singleFlight, 1, 1L);
+        waitFor(() -> loads.get() == 1);
+
+        // Same key: waits 50 ms, then loads itself
+        assertEquals("mine", singleFlight.load("post", 1L, () -> "mine"));
+        assertEquals(1.0, calls("timeout"));
+        // Another key while the map is full
+        assertEquals("other", singleFlight.load("post", 2L, () -> "other"));
+        assertEquals(1.0, calls("bypass"));
+
+        release.countDown();
+        assertEquals("post-1", leader.get(0).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testLoad_ShouldRunFallback_WhenFollowerTimesOut() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, 100, 50);
+
+        List<Future<String>> leader = startCalls(singleFlight, 1, 3L);
+        waitFor(() -> loads.get() == 1);
+
+        assertEquals("fallback", singleFlight.load("post", 3L, () -> "unexpected", () -> "fallback"));
+        assertEquals(1.0, calls("timeout"));
+
+        release.countDown();
+        assertEquals("post-3", leader.get(0).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testLoad_ShouldNotCoalesce_WhenDisabled() {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, false, 100, 5000);
+
+        singleFlight.load("post", 1L, () -> loads.incrementAndGet());
+        singleFlight.load("post", 1L, () -> loads.incrementAndGet());
+
+        assertEquals(2, loads.get());
+        assertTrue(meterRegistry.find("echonymous.single-flight.calls").counters().isEmpty());
+    }
+
+    // Each call loads "post-<key>" once the test releases it
+    private List<Future<String>> startCalls(SingleFlight singleFlight, int count, Long key) {
+        List<Future<String>> calls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            calls.add(executor.submit(() -> singleFlight.load("post", key, () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "post-" + key;
+            })));
+        }
+        return calls;
+    }
+
+    private void waitForFollowers(int followers) throws InterruptedException {
+        waitFor(() -> {
+            Counter counter = meterRegistry.find("echonymous.single-flight.calls").tag("role", "follower").counter();
+            return counter != null && counter.count() >= followers;
+        });
+    }
+
+    private double calls(String role) {
+        return meterRegistry.get("echonymous.single-flight.calls").tag("role", role).counter().count();
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.echonymous.config;
+
+import com.echonymous.entity.User;
+import com.echonymous.repository.UserRepository;
+import com.echonymous.util.JwtUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The "replica" is a second pool on the test database, so the schema Hibernate creates is visible on both
+@DataJpaTest(properties = {
+        "echonymous.read-replicas.enabled=true",
+        "echonymous.read-replicas.urls=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "jwt.secret=88cd2108b5347d973cf39cdf9053d7dd42704876d8c9a9bd8e2d168259d3ddf7",
+        "jwt.expiration=3600000"})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReadReplicaConfig.class, JwtUtils.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReadReplicaConfigTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testReadOnlyTransaction_ShouldBeRoutedToReplica() {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+
+        User user = new User();
+        user.setEmail("replica@example.com");
+        user.setUsername("replicaUser");
+        user.setPassword("replicaPassword");
+        userRepository.save(user);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        double before = replicaReads();
+        assertTrue(readOnly.execute(status -> userRepository.findById(user.getUserId())).isPresent());
+
+        assertEquals(before + 1, replicaReads());
+        userRepository.delete(user);
+    }
+
+    private double replicaReads() {
+        return meterRegistry.get("echonymous.read-replicas.routed").tag("target", "replica").counter().count();
+    }
+}
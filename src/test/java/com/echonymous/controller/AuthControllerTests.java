@@ -60,7 +60,7 @@ public class AuthControllerTests {
         assertTrue(response.getBody().isSuccess());
         assertEquals("Sign up successful.", response.getBody().getDetails());
         assertNotNull(response.getBody().getToken());
-        assertNotNull(response.getBody().getUser());
+        assertNotNull(response.getBody().getResponseData());
     }
 
     @Test
@@ -87,7 +87,7 @@ public class AuthControllerTests {
         assertTrue(response.getBody().isSuccess());
         assertEquals("Login successful.", response.getBody().getDetails());
         assertNotNull(response.getBody().getToken());
-        assertNotNull(response.getBody().getUser());
+        assertNotNull(response.getBody().getResponseData());
     }
 
     @Test
@@ -100,7 +100,7 @@ public class AuthControllerTests {
         assertFalse(response.getBody().isSuccess());
         assertEquals("Invalid username or password.", response.getBody().getDetails());
         assertNull(response.getBody().getToken());
-        assertNull(response.getBody().getUser());
+        assertNull(response.getBody().getResponseData());
     }
 
     @Test
@@ -2,7 +2,9 @@ package com.echonymous.controller;
 
 import com.echonymous.dto.ApiResponseDTO;
 import com.echonymous.dto.PostRequestDTO;
+import com.echonymous.entity.AudioPost;
 import com.echonymous.entity.TextPost;
+import com.echonymous.service.AudioPostService;
 import com.echonymous.service.PostService;
 import com.echonymous.util.JwtUtils;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,8 +15,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +32,9 @@ public class PostControllerTests {
     @Mock
     private PostService postService;
 
+    @Mock
+    private AudioPostService audioPostService;
+
     @Mock
     private JwtUtils jwtUtils;
 
@@ -35,8 +47,6 @@ public class PostControllerTests {
     private PostRequestDTO validPostRequestDTO;
 
     private TextPost textPost;
-
-    private String validToken;
     private Long userId;
 
     @BeforeEach
@@ -49,16 +59,13 @@ public class PostControllerTests {
         textPost.setCategory("Test");
         textPost.setContent("This is a test post.");
         textPost.setAuthorId(userId);
-
-        validToken = "valid-jwt-token";
     }
 
     @Test
     void testUploadTextPost_ShouldReturnSuccess_WhenValidRequest() {
         // Arrange
-        when(jwtUtils.extractJwtFromRequest(request)).thenReturn(validToken);
-        when(jwtUtils.validateToken(validToken)).thenReturn(true);
-        when(jwtUtils.getUserIdFromToken(validToken)).thenReturn(userId);
+        // JwtAuthFilter has verified the token and put the userId in the SecurityContext
+        when(jwtUtils.getCurrentUserId()).thenReturn(userId);
         when(postService.createTextPost(validPostRequestDTO.getCategory(), validPostRequestDTO.getContent(), userId)).thenReturn(textPost);
 
         // Act
@@ -72,9 +79,8 @@ public class PostControllerTests {
 
     @Test
     void testUploadTextPost_ShouldReturnUnauthorized_WhenTokenIsInvalid() {
-        // Arrange
-        when(jwtUtils.extractJwtFromRequest(request)).thenReturn(validToken);
-        when(jwtUtils.validateToken(validToken)).thenReturn(false);
+        // Arrange: the filter rejected the token, so no user is authenticated
+        when(jwtUtils.getCurrentUserId()).thenReturn(null);
 
         // Act
         ResponseEntity<ApiResponseDTO> response = postController.uploadTextPost(validPostRequestDTO, request);
@@ -88,7 +94,7 @@ public class PostControllerTests {
     @Test
     void testUploadTextPost_ShouldReturnUnauthorized_WhenTokenIsMissing() {
         // Arrange
-        when(jwtUtils.extractJwtFromRequest(request)).thenReturn(null);
+        when(jwtUtils.getCurrentUserId()).thenReturn(null);
 
         // Act
         ResponseEntity<ApiResponseDTO> response = postController.uploadTextPost(validPostRequestDTO, request);
@@ -98,4 +104,71 @@ public class PostControllerTests {
         assertFalse(response.getBody().isSuccess());
         assertEquals("Invalid or missing JWT token.", response.getBody().getDetails());
     }
+
+    @Test
+    void testGetAudio_ShouldServeRequestedRange() throws IOException {
+        // Arrange: a ten byte file whose contents are its byte positions
+        when(jwtUtils.getCurrentUserId()).thenReturn(userId);
+        when(audioPostService.getAudioPost(7L)).thenReturn(audioPost(10));
+        doAnswer(invocation -> {
+            long position = invocation.getArgument(1);
+            long count = invocation.getArgument(2);
+            StringBuilder bytes = new StringBuilder();
+            for (long i = position; i < position + count; i++) {
+                bytes.append(i);
+            }
+            invocation.<WritableByteChannel>getArgument(3).write(ByteBuffer.wrap(bytes.toString().getBytes(StandardCharsets.US_ASCII)));
+            return null;
+        }).when(audioPostService).transferAudio(any(), anyLong(), anyLong(), any());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        postController.getAudio(7L, "bytes=2-5", response);
+
+        // Assert
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals(4, response.getContentLengthLong());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("audio/mpeg", response.getContentType());
+    }
+
+    @Test
+    void testGetAudio_ShouldServeWholeFile_WithoutRange_AndRejectUnsatisfiableRange() throws IOException {
+        when(jwtUtils.getCurrentUserId()).thenReturn(userId);
+        when(audioPostService.getAudioPost(7L)).thenReturn(audioPost(10));
+
+        MockHttpServletResponse whole = new MockHttpServletResponse();
+        postController.getAudio(7L, null, whole);
+        assertEquals(200, whole.getStatus());
+        assertEquals(10, whole.getContentLengthLong());
+        assertEquals("bytes", whole.getHeader("Accept-Ranges"));
+        verify(audioPostService).transferAudio(any(), eq(0L), eq(10L), any());
+
+        MockHttpServletResponse unsatisfiable = new MockHttpServletResponse();
+        postController.getAudio(7L, "bytes=20-30", unsatisfiable);
+        assertEquals(416, unsatisfiable.getStatus());
+        assertEquals("bytes */10", unsatisfiable.getHeader("Content-Range"));
+    }
+
+    @Test
+    void testGetAudio_ShouldReturnUnauthorized_WhenTokenIsMissing() throws IOException {
+        when(jwtUtils.getCurrentUserId()).thenReturn(null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        postController.getAudio(7L, null, response);
+
+        assertEquals(401, response.getStatus());
+        verifyNoInteractions(audioPostService);
+    }
+
+    private AudioPost audioPost(long sizeBytes) {
+        AudioPost post = new AudioPost();
+        post.setPostId(7L);
+        post.setFilePath("audio/clip");
+        post.setContentType("audio/mpeg");
+        post.setSizeBytes(sizeBytes);
+        post.setChecksum("abc");
+        return post;
+    }
 }
@@ -0,0 +1,118 @@
+package com.echonymous.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two embedded H2 databases stand in for the primary and the replica; each knows its own name
+public class ReplicaRoutingDataSourceTests {
+
+    private final AtomicReference<Long> currentUserId = new AtomicReference<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(database("primary"));
+        replica = new JdbcTemplate(database("replica"));
+        replica.execute("CREATE TABLE replica_lag (ms BIGINT)");
+        replica.execute("INSERT INTO replica_lag VALUES (0)");
+        start(replica.getDataSource());
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.execute("SHUTDOWN");
+        replica.execute("SHUTDOWN");
+    }
+
+    @Test
+    void testReadOnlyTransactions_ShouldUseReplica_AndEverythingElseThePrimary() {
+        assertEquals("replica", readOnly.execute(status -> databaseName()));
+        assertEquals("primary", readWrite.execute(status -> databaseName()));
+        assertEquals("primary", databaseName());
+    }
+
+    @Test
+    void testReads_ShouldStayOnPrimary_ForUserWhoJustWrote() {
+        currentUserId.set(7L);
+        readWrite.executeWithoutResult(status -> jdbc.update("UPDATE db SET name = name"));
+
+        assertEquals("primary", readOnly.execute(status -> databaseName()));
+
+        currentUserId.set(8L);
+        assertEquals("replica", readOnly.execute(status -> databaseName()));
+    }
+
+    @Test
+    void testReads_ShouldFallBackToPrimary_WhileReplicaLags() {
+        replica.update("UPDATE replica_lag SET ms = 5000");
+        routing.checkReplicas();
+
+        assertFalse(routing.isHealthy("replica-0"));
+        assertEquals("primary", readOnly.execute(status -> databaseName()));
+
+        replica.update("UPDATE replica_lag SET ms = 200");
+        routing.checkReplicas();
+
+        assertTrue(routing.isHealthy("replica-0"));
+        assertEquals("replica", readOnly.execute(status -> databaseName()));
+    }
+
+    @Test
+    void testReads_ShouldFallBackToPrimary_WhenReplicaIsDown() {
+        JdbcDataSource missing = new JdbcDataSource();
+        missing.setURL("jdbc:h2:mem:missing-" + UUID.randomUUID() + ";IFEXISTS=TRUE");
+        start(missing);
+
+        assertEquals("primary", readOnly.execute(status -> databaseName()));
+        assertFalse(routing.isHealthy("replica-0"));
+        assertEquals(1.0, meterRegistry.get("echonymous.read-replicas.routed").tag("reason", "fallback").counter().count());
+    }
+
+    private void start(DataSource replicaDataSource) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replicaDataSource);
+        routing = new ReplicaRoutingDataSource(primary.getDataSource(), replicas, currentUserId::get,
+                "SELECT ms FROM replica_lag", 1000, Duration.ofSeconds(5), meterRegistry);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String databaseName() {
+        return jdbc.queryForObject("SELECT name FROM db", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE db (name VARCHAR(20))");
+        jdbc.update("INSERT INTO db VALUES (?)", name);
+        return dataSource;
+    }
+}
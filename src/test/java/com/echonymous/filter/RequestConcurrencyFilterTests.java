@@ -0,0 +1,70 @@
+package com.echonymous.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestConcurrencyFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testFilter_ShouldAnswer503_WhenEverySlotIsTakenForTheWholeWait() throws Exception {
+        RequestConcurrencyFilter filter = new RequestConcurrencyFilter(meterRegistry, 1, 50);
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> first = executor.submit(() -> {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/posts/text-feed"), new MockHttpServletResponse(),
+                    (request, response) -> {
+                        inFlight.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+            return null;
+        });
+        assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/posts/text-feed"), rejected, new MockFilterChain());
+        assertEquals(503, rejected.getStatus());
+        assertEquals(1.0, meterRegistry.counter("echonymous.request-limit.rejected").count());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        // The slot is free again
+        MockHttpServletResponse served = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/posts/text-feed"), served, new MockFilterChain());
+        assertEquals(200, served.getStatus());
+    }
+
+    @Test
+    void testFilter_ShouldPassEverythingThrough_WhenDisabled() throws Exception {
+        RequestConcurrencyFilter filter = new RequestConcurrencyFilter(meterRegistry, 0, 50);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/posts/text-feed"), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+    }
+}
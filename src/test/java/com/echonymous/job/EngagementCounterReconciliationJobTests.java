@@ -0,0 +1,75 @@
+package com.echonymous.job;
+
+import com.echonymous.entity.Post;
+import com.echonymous.entity.PostLike;
+import com.echonymous.entity.TextPost;
+import com.echonymous.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "echonymous.engagement.reconcile.chunk-size=2")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import(EngagementCounterReconciliationJob.class)
+public class EngagementCounterReconciliationJobTests {
+
+    @Autowired
+    private EngagementCounterReconciliationJob reconciliationJob;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("reconcile@example.com");
+        user.setUsername("reconcileUser");
+        user.setPassword("reconcilePassword");
+        entityManager.persist(user);
+    }
+
+    @Test
+    void testReconcile_ShouldRepairDriftedCounters_AcrossChunks() {
+        Long driftedId = null;
+        for (int i = 0; i < 5; i++) {
+            TextPost post = new TextPost();
+            post.setCategory("Test");
+            post.setContent("Post " + i);
+            post.setAuthorId(user.getUserId());
+            post.setCreatedAt(LocalDateTime.now());
+            post.setLikeCount(i == 4 ? 7 : 1);
+            post.setEchoCount(i == 4 ? 3 : 0);
+            entityManager.persist(post);
+
+            PostLike like = new PostLike();
+            like.setPost(post);
+            like.setUser(user);
+            like.setLikedAt(LocalDateTime.now());
+            entityManager.persist(like);
+            driftedId = post.getPostId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        reconciliationJob.reconcile();
+        entityManager.clear();
+
+        Post repaired = entityManager.find(Post.class, driftedId);
+        assertEquals(1, repaired.getLikeCount());
+        assertEquals(0, repaired.getEchoCount());
+        assertEquals(0, repaired.getCommentCount());
+    }
+}
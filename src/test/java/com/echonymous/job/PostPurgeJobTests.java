@@ -0,0 +1,167 @@
+package com.echonymous.job;
+
+import com.echonymous.entity.CommentLike;
+import com.echonymous.entity.PostComment;
+import com.echonymous.entity.PostEcho;
+import com.echonymous.entity.PostLike;
+import com.echonymous.entity.TextPost;
+import com.echonymous.entity.User;
+import com.echonymous.repository.PostRepository;
+import com.echonymous.repository.TextPostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"echonymous.post-purge.batch-size=2", "echonymous.post-purge.max-attempts=2"})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({PostPurgeJob.class, SimpleMeterRegistry.class})
+public class PostPurgeJobTests {
+
+    @Autowired
+    private PostPurgeJob postPurgeJob;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TextPostRepository textPostRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("purge@example.com");
+        user.setUsername("purgeUser");
+        user.setPassword("purgePassword");
+        entityManager.persist(user);
+    }
+
+    @Test
+    void testMarkDeleted_ShouldHidePost_BeforeItIsPurged() {
+        TextPost post = persistPost("Soon gone");
+        entityManager.flush();
+
+        postRepository.markDeleted(post.getPostId(), LocalDateTime.now());
+        entityManager.clear();
+
+        assertTrue(textPostRepository.findById(post.getPostId()).isEmpty());
+        assertTrue(textPostRepository.findSummaryById(post.getPostId()).isEmpty());
+        assertEquals(List.of(post.getPostId()), postRepository.findPostIdsToPurge(2, 10));
+    }
+
+    @Test
+    void testPurge_ShouldDeleteCommentTreeAndEngagement_InBatches() {
+        TextPost deleted = persistPost("Popular post");
+        TextPost kept = persistPost("Quiet post");
+        // Three levels of replies, with likes on every comment
+        PostComment parent = null;
+        for (int depth = 0; depth < 3; depth++) {
+            for (int i = 0; i < 3; i++) {
+                PostComment comment = persistComment(deleted, parent);
+                persistCommentLike(comment);
+                if (i == 2) {
+                    parent = comment;
+                }
+            }
+        }
+        persistLike(deleted);
+        persistEcho(deleted);
+        persistComment(kept, null);
+        persistLike(kept);
+        entityManager.flush();
+
+        postRepository.markDeleted(deleted.getPostId(), LocalDateTime.now());
+        entityManager.clear();
+        postPurgeJob.purge();
+
+        // 9 comment likes, 9 comments, 1 like and 1 echo
+        assertEquals(0, count("SELECT COUNT(*) FROM post WHERE post_id = " + deleted.getPostId()));
+        assertEquals(0, count("SELECT COUNT(*) FROM comment_like"));
+        assertEquals(1, count("SELECT COUNT(*) FROM post_comment"));
+        assertEquals(1, count("SELECT COUNT(*) FROM post_like"));
+        assertEquals(0, count("SELECT COUNT(*) FROM post_echo"));
+        assertTrue(textPostRepository.findById(kept.getPostId()).isPresent());
+        assertEquals(List.of(), postRepository.findPostIdsToPurge(2, 10));
+    }
+
+    @Test
+    void testFindPostIdsToPurge_ShouldSkipPosts_AfterMaxAttempts() {
+        TextPost retried = persistPost("Failed once");
+        TextPost abandoned = persistPost("Failed twice");
+        entityManager.flush();
+        postRepository.markDeleted(retried.getPostId(), LocalDateTime.now());
+        postRepository.markDeleted(abandoned.getPostId(), LocalDateTime.now());
+
+        postRepository.incrementPurgeAttempts(retried.getPostId());
+        postRepository.incrementPurgeAttempts(abandoned.getPostId());
+        postRepository.incrementPurgeAttempts(abandoned.getPostId());
+
+        assertEquals(List.of(retried.getPostId()), postRepository.findPostIdsToPurge(2, 10));
+    }
+
+    private long count(String sql) {
+        return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+
+    private TextPost persistPost(String content) {
+        TextPost post = new TextPost();
+        post.setCategory("Test");
+        post.setContent(content);
+        post.setAuthorId(user.getUserId());
+        post.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(post);
+        return post;
+    }
+
+    private PostComment persistComment(TextPost post, PostComment parent) {
+        PostComment comment = new PostComment();
+        comment.setPost(post);
+        comment.setUser(user);
+        comment.setParentComment(parent);
+        comment.setComment("Comment");
+        comment.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(comment);
+        return comment;
+    }
+
+    private void persistCommentLike(PostComment comment) {
+        CommentLike like = new CommentLike();
+        like.setComment(comment);
+        like.setUser(user);
+        like.setLikedAt(LocalDateTime.now());
+        entityManager.persist(like);
+    }
+
+    private void persistLike(TextPost post) {
+        PostLike like = new PostLike();
+        like.setPost(post);
+        like.setUser(user);
+        like.setLikedAt(LocalDateTime.now());
+        entityManager.persist(like);
+    }
+
+    private void persistEcho(TextPost post) {
+        PostEcho echo = new PostEcho();
+        echo.setPost(post);
+        echo.setUser(user);
+        echo.setEchoedAt(LocalDateTime.now());
+        entityManager.persist(echo);
+    }
+}
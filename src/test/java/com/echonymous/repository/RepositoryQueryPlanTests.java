@@ -0,0 +1,144 @@
+package com.echonymous.repository;
+
+import com.echonymous.entity.PostComment;
+import com.echonymous.entity.TextPost;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs EXPLAIN on the SQL Hibernate generates for each feed, profile, echo and comment query and fails on table scans
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.echonymous.repository.RepositoryQueryPlanTests$CapturingStatementInspector")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class RepositoryQueryPlanTests {
+
+    private static final List<String> CAPTURED = new CopyOnWriteArrayList<>();
+
+    public static class CapturingStatementInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            CAPTURED.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TextPostRepository textPostRepository;
+
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+
+    @Autowired
+    private PostEchoRepository postEchoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Pageable page = PageRequest.of(0, 10);
+    private final LocalDateTime cursor = LocalDateTime.now();
+    private TextPost post;
+    private PostComment comment;
+
+    @BeforeEach
+    void setUp() {
+        post = new TextPost();
+        post.setCategory("Test");
+        post.setContent("Indexed post");
+        post.setAuthorId(1L);
+        post.setCreatedAt(LocalDateTime.now());
+        post = textPostRepository.save(post);
+
+        comment = new PostComment();
+        comment.setPost(post);
+        comment.setComment("Indexed comment");
+        comment.setCreatedAt(LocalDateTime.now());
+        comment = postCommentRepository.save(comment);
+    }
+
+    @Test
+    void testTextFeedQueries_ShouldUseIndexes() {
+        assertIndexed(() -> textPostRepository.findLatestSummaries(page));
+        assertIndexed(() -> textPostRepository.findSummariesAfterCursor(cursor, 1L, page));
+        assertIndexed(() -> textPostRepository.findSummariesByCategoryKey("test", page));
+        assertIndexed(() -> textPostRepository.findSummariesByCategoryKeyAfterCursor("test", cursor, 1L, page));
+    }
+
+    @Test
+    void testTimelineQueries_ShouldUseIndexes() {
+        assertIndexed(() -> textPostRepository.findSummariesByIds(List.of(post.getPostId())));
+        assertIndexed(() -> textPostRepository.findLatestTimelineEntries(page));
+        assertIndexed(() -> textPostRepository.findTimelineEntriesByCategoryKey("test", page));
+    }
+
+    @Test
+    void testHotFeedQueries_ShouldUseIndexes() {
+        assertIndexed(() -> textPostRepository.findHotEntries(page));
+        assertIndexed(() -> textPostRepository.findHotEntriesAfterCursor(1.0, 1L, page));
+        assertIndexed(() -> textPostRepository.findHotEntriesByCategoryKey("test", page));
+        assertIndexed(() -> textPostRepository.findHotEntriesByCategoryKeyAfterCursor("test", 1.0, 1L, page));
+    }
+
+    @Test
+    void testProfileQueries_ShouldUseIndexes() {
+        assertIndexed(() -> textPostRepository.findSummariesByAuthorId(1L, page));
+        assertIndexed(() -> textPostRepository.findSummariesByAuthorIdAfterCursor(1L, cursor, 1L, page));
+    }
+
+    @Test
+    void testEchoQueries_ShouldUseIndexes() {
+        assertIndexed(() -> postEchoRepository.findTextPostEchoedByUser(1L, page));
+        assertIndexed(() -> postEchoRepository.findTextPostEchoedByUserAfterCursor(1L, cursor, 1L, page));
+    }
+
+    @Test
+    void testCommentQueries_ShouldUseIndexes() {
+        assertIndexed(() -> postCommentRepository.findTopLevel(post.getPostId(), page));
+        assertIndexed(() -> postCommentRepository.findTopLevelAfterCursor(post.getPostId(), cursor, 1L, page));
+        assertIndexed(() -> postCommentRepository.findReplies(comment.getPostCommentId(), page));
+        assertIndexed(() -> postCommentRepository.findRepliesAfterCursor(comment.getPostCommentId(), cursor, 1L, page));
+    }
+
+    private void assertIndexed(Runnable query) {
+        CAPTURED.clear();
+        query.run();
+        assertFalse(CAPTURED.isEmpty());
+        for (String sql : CAPTURED) {
+            String plan = explain(sql);
+            assertFalse(plan.contains(".tableScan"), () -> "Query plans a table scan:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                // The plan does not depend on the bound values
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,175 @@
+package com.echonymous.service;
+
+import com.echonymous.cache.FeedPageCache;
+import com.echonymous.dto.CommentDTO;
+import com.echonymous.dto.FeedResponseDTO;
+import com.echonymous.entity.CommentLike;
+import com.echonymous.entity.PostComment;
+import com.echonymous.entity.TextPost;
+import com.echonymous.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({CommentService.class, EngagementWriteBuffer.class, HydrationFanOut.class, FeedPageCache.class, SimpleMeterRegistry.class})
+public class CommentThreadQueryCountTests {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private User user;
+    private TextPost post;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        user = new User();
+        user.setEmail("threaduser@example.com");
+        user.setUsername("threadUser");
+        user.setPassword("threadPassword");
+        entityManager.persist(user);
+
+        post = new TextPost();
+        post.setCategory("Test");
+        post.setContent("Busy thread");
+        post.setAuthorId(user.getUserId());
+        post.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(post);
+    }
+
+    @Test
+    void testGetCommentsForPost_ShouldUseSameNumberOfStatements_RegardlessOfPageSizeAndReplies() {
+        seedComments(20, 3);
+
+        long quietPage = countStatements(() -> commentService.getCommentsForPost(post.getPostId(), null, 2, user.getUserId()));
+        long busyPage = countStatements(() -> commentService.getCommentsForPost(post.getPostId(), null, 20, user.getUserId()));
+
+        assertEquals(quietPage, busyPage);
+    }
+
+    @Test
+    void testGetRepliesForComment_ShouldUseSameNumberOfStatements_RegardlessOfPageSize() {
+        PostComment parent = seedComments(1, 25);
+
+        long smallPage = countStatements(() -> commentService.getRepliesForComment(parent.getPostCommentId(), null, 2, user.getUserId()));
+        long largePage = countStatements(() -> commentService.getRepliesForComment(parent.getPostCommentId(), null, 25, user.getUserId()));
+
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void testGetCommentsForPost_ShouldHydrateCounts_ForEveryCommentOnThePage() {
+        seedComments(3, 4);
+
+        FeedResponseDTO<CommentDTO> comments = commentService.getCommentsForPost(post.getPostId(), null, 10, user.getUserId());
+
+        assertEquals(3, comments.getContent().size());
+        for (CommentDTO comment : comments.getContent()) {
+            assertEquals(4, comment.getReplyCount());
+            assertEquals(1, comment.getCommentLikesCount());
+            assertTrue(comment.isCommentLiked());
+            assertTrue(comment.getIsCurrentUserComment());
+        }
+    }
+
+    @Test
+    void testCommentReads_ShouldLoadOnlyTheCommentsOnThePage() {
+        PostComment parent = seedComments(3, 4);
+
+        assertNoLazyLoads(() -> commentService.getCommentsForPost(post.getPostId(), null, 10, user.getUserId()));
+        assertEquals(3, statistics.getEntityLoadCount());
+        assertNoLazyLoads(() -> commentService.getRepliesForComment(parent.getPostCommentId(), null, 10, user.getUserId()));
+        assertEquals(4, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testDeleteComment_ShouldRemoveWholeThread_WithSameNumberOfStatements() {
+        post.setCommentCount(13);
+        PostComment quiet = seedComments(1, 1);
+        PostComment busy = persistComment(null, LocalDateTime.now());
+        for (int i = 0; i < 5; i++) {
+            PostComment reply = persistComment(busy, LocalDateTime.now());
+            persistComment(reply, LocalDateTime.now());
+        }
+        entityManager.flush();
+
+        long quietDelete = countStatements(() -> commentService.deleteComment(quiet.getPostCommentId(), user.getUserId()));
+        long busyDelete = countStatements(() -> commentService.deleteComment(busy.getPostCommentId(), user.getUserId()));
+
+        assertEquals(quietDelete, busyDelete);
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(0L, entityManager.createQuery("SELECT COUNT(c) FROM PostComment c", Long.class).getSingleResult());
+        assertEquals(0L, entityManager.createQuery("SELECT COUNT(cl) FROM CommentLike cl", Long.class).getSingleResult());
+        assertEquals(0, entityManager.find(TextPost.class, post.getPostId()).getCommentCount());
+    }
+
+    // Creates top-level comments, each liked by the user and with the given number of replies; returns the last one
+    private PostComment seedComments(int count, int repliesEach) {
+        LocalDateTime now = LocalDateTime.now();
+        PostComment last = null;
+        for (int i = 0; i < count; i++) {
+            last = persistComment(null, now.minusMinutes(i));
+            for (int j = 0; j < repliesEach; j++) {
+                persistComment(last, now.minusSeconds(j));
+            }
+
+            CommentLike like = new CommentLike();
+            like.setComment(last);
+            like.setUser(user);
+            like.setLikedAt(now);
+            entityManager.persist(like);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return last;
+    }
+
+    private PostComment persistComment(PostComment parent, LocalDateTime createdAt) {
+        PostComment comment = new PostComment();
+        comment.setPost(post);
+        comment.setUser(user);
+        comment.setComment("Comment");
+        comment.setCreatedAt(createdAt);
+        comment.setParentComment(parent);
+        entityManager.persist(comment);
+        return comment;
+    }
+
+    // Lazy proxy or collection initializations mean a read path touched an association outside its fetch plan
+    private void assertNoLazyLoads(Runnable action) {
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        assertEquals(0, statistics.getEntityFetchCount(), "unplanned lazy entity loads");
+        assertEquals(0, statistics.getCollectionFetchCount(), "unplanned lazy collection loads");
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
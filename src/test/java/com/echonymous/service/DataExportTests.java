@@ -0,0 +1,158 @@
+package com.echonymous.service;
+
+import com.echonymous.entity.PostComment;
+import com.echonymous.entity.PostEcho;
+import com.echonymous.entity.PostLike;
+import com.echonymous.entity.TextPost;
+import com.echonymous.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "echonymous.export.flush-interval=2")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(DataExportService.class)
+public class DataExportTests {
+
+    @Autowired
+    private DataExportService dataExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private User exporter;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        exporter = persistUser("exporter");
+        other = persistUser("other");
+    }
+
+    @Test
+    void testExportUserData_ShouldWriteOneLinePerRow_OfTheUserOnly() throws IOException {
+        TextPost ownPost = persistPost(exporter, "My post", now.minusHours(2));
+        TextPost newerOwnPost = persistPost(exporter, "My newer post", now.minusHours(1));
+        TextPost otherPost = persistPost(other, "Someone else's post", now.minusHours(1));
+        PostComment comment = persistComment(exporter, otherPost, null, "Nice one");
+        persistComment(exporter, otherPost, comment, "Replying to myself");
+        persistComment(other, ownPost, null, "Not part of the export");
+        persistLike(exporter, otherPost);
+        persistLike(other, ownPost);
+        persistEcho(exporter, otherPost);
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = dataExportService.exportUserData(exporter.getUserId(), out);
+        List<JsonNode> lines = parse(out);
+
+        assertEquals(6, rows);
+        assertEquals(List.of("post", "post", "comment", "comment", "like", "echo"),
+                lines.stream().map(line -> line.get("type").asText()).toList());
+        assertEquals(newerOwnPost.getPostId(), lines.get(0).get("data").get("postId").asLong());
+        assertEquals(ownPost.getPostId(), lines.get(1).get("data").get("postId").asLong());
+        assertEquals("My post", lines.get(1).get("data").get("content").asText());
+
+        // Top-level comments are exported too, with a null parent
+        JsonNode reply = lines.get(2).get("data");
+        JsonNode topLevel = lines.get(3).get("data");
+        assertEquals(comment.getPostCommentId(), reply.get("parentCommentId").asLong());
+        assertTrue(topLevel.get("parentCommentId").isNull());
+        assertEquals(otherPost.getPostId(), topLevel.get("postId").asLong());
+
+        assertEquals(otherPost.getPostId(), lines.get(4).get("data").get("postId").asLong());
+        assertEquals(otherPost.getPostId(), lines.get(5).get("data").get("postId").asLong());
+    }
+
+    @Test
+    void testExportUserData_ShouldWriteNothing_ForUserWithoutData() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, dataExportService.exportUserData(exporter.getUserId(), out));
+        assertEquals(0, out.size());
+    }
+
+    private List<JsonNode> parse(ByteArrayOutputStream out) throws IOException {
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+        assertTrue(ndjson.endsWith("\n"));
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private User persistUser(String username) {
+        User user = new User();
+        user.setEmail(username + "@example.com");
+        user.setUsername(username);
+        user.setPassword(username + "Password");
+        entityManager.persist(user);
+        return user;
+    }
+
+    private TextPost persistPost(User author, String content, LocalDateTime createdAt) {
+        TextPost post = new TextPost();
+        post.setCategory("Tech");
+        post.setContent(content);
+        post.setAuthorId(author.getUserId());
+        post.setCreatedAt(createdAt);
+        entityManager.persist(post);
+        return post;
+    }
+
+    // Replies are newer than top-level comments, so the export order is fixed
+    private PostComment persistComment(User user, TextPost post, PostComment parent, String text) {
+        PostComment comment = new PostComment();
+        comment.setPost(post);
+        comment.setUser(user);
+        comment.setParentComment(parent);
+        comment.setComment(text);
+        comment.setCreatedAt(parent == null ? now.minusMinutes(10) : now.minusMinutes(5));
+        entityManager.persist(comment);
+        return comment;
+    }
+
+    private void persistLike(User user, TextPost post) {
+        PostLike like = new PostLike();
+        like.setPost(post);
+        like.setUser(user);
+        like.setLikedAt(now);
+        entityManager.persist(like);
+    }
+
+    private void persistEcho(User user, TextPost post) {
+        PostEcho echo = new PostEcho();
+        echo.setPost(post);
+        echo.setUser(user);
+        echo.setEchoedAt(now);
+        entityManager.persist(echo);
+    }
+}
@@ -0,0 +1,202 @@
+package com.echonymous.service;
+
+import com.echonymous.cache.EngagementMembershipIndex;
+import com.echonymous.cache.FeedPageCache;
+import com.echonymous.cache.FeedTimelineIndex;
+import com.echonymous.cache.HotFeedIndex;
+import com.echonymous.cache.SingleFlight;
+import com.echonymous.dto.EngagementDTO;
+import com.echonymous.dto.TextPostSummaryDTO;
+import com.echonymous.dto.ToggleLikeResultDTO;
+import com.echonymous.entity.Post;
+import com.echonymous.entity.TextPost;
+import com.echonymous.entity.User;
+import com.echonymous.repository.PostLikeRepository;
+import com.echonymous.repository.PostRepository;
+import com.echonymous.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "echonymous.engagement.write-behind.enabled=true",
+        "echonymous.engagement.write-behind.flush-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({PostService.class, EngagementService.class, EngagementWriteBuffer.class, HydrationFanOut.class, FeedPageCache.class, SingleFlight.class, EngagementMembershipIndex.class, FeedTimelineIndex.class, HotFeedIndex.class, PostSearchService.class, HomeTimelineService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EngagementWriteBufferTests {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private EngagementService engagementService;
+
+    @Autowired
+    private EngagementWriteBuffer engagementWriteBuffer;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private TextPost post;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("buffered@example.com");
+        user.setUsername("bufferedUser");
+        user.setPassword("password123");
+        user = userRepository.save(user);
+
+        post = new TextPost();
+        post.setCategory("Test");
+        post.setContent("Buffered post");
+        post.setAuthorId(user.getUserId());
+        post.setCreatedAt(LocalDateTime.now());
+        post = postRepository.save(post);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engagementWriteBuffer.flush();
+        postLikeRepository.deleteAll();
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testToggleLike_ShouldOverlayPendingLike_BeforeFlush() {
+        ToggleLikeResultDTO result = postService.toggleLike(post.getPostId(), user.getUserId());
+
+        assertTrue(result.isLiked());
+        assertEquals(1, result.getLikesCount());
+        assertEquals(0, postLikeRepository.count());
+
+        Post persisted = postRepository.findById(post.getPostId()).orElseThrow();
+        TextPostSummaryDTO summary = new TextPostSummaryDTO(persisted.getPostId(), persisted.getCategory(), post.getContent(),
+                persisted.getAuthorId(), persisted.getCreatedAt(), persisted.getUpdatedAt(),
+                persisted.getLikeCount(), persisted.getCommentCount(), persisted.getEchoCount());
+        EngagementDTO engagement = engagementService.getPostEngagements(List.of(summary), user.getUserId())
+                .get(post.getPostId());
+        assertTrue(engagement.isLiked());
+        assertEquals(1, engagement.getLikesCount());
+    }
+
+    @Test
+    void testFlush_ShouldPersistLikeAndCounter() {
+        postService.toggleLike(post.getPostId(), user.getUserId());
+
+        engagementWriteBuffer.flush();
+
+        assertEquals(0, engagementWriteBuffer.getDepth());
+        assertEquals(1, postLikeRepository.count());
+        assertEquals(1, postRepository.findLikeCount(post.getPostId()).orElseThrow());
+        assertEquals(1, postService.likePost(post.getPostId(), user.getUserId()).getLikesCount());
+    }
+
+    @Test
+    void testToggleLike_ShouldCollapseRepeatedToggles_BySameUser() {
+        for (int i = 0; i < 5; i++) {
+            postService.toggleLike(post.getPostId(), user.getUserId());
+        }
+        assertEquals(1, engagementWriteBuffer.getDepth());
+
+        ToggleLikeResultDTO result = postService.toggleLike(post.getPostId(), user.getUserId());
+
+        assertFalse(result.isLiked());
+        assertEquals(0, result.getLikesCount());
+        assertEquals(0, engagementWriteBuffer.getDepth());
+    }
+
+    @Test
+    void testUnlikePost_ShouldDeleteRowOnFlush_WhenLikeWasPersisted() {
+        postService.likePost(post.getPostId(), user.getUserId());
+        engagementWriteBuffer.flush();
+
+        ToggleLikeResultDTO result = postService.unlikePost(post.getPostId(), user.getUserId());
+        assertFalse(result.isLiked());
+        assertEquals(0, result.getLikesCount());
+
+        engagementWriteBuffer.flush();
+        assertEquals(0, postLikeRepository.count());
+        assertEquals(0, postRepository.findLikeCount(post.getPostId()).orElseThrow());
+    }
+
+    @Test
+    void testFlush_ShouldCountDroppedChanges_WhenRowCannotBeWritten() {
+        postService.toggleLike(post.getPostId(), user.getUserId());
+        // The post goes away before the buffered like is flushed
+        postRepository.deleteById(post.getPostId());
+
+        engagementWriteBuffer.flush();
+
+        assertEquals(0, postLikeRepository.count());
+        assertEquals(1.0, meterRegistry.counter("echonymous.engagement.buffer.dropped").count());
+        assertEquals(0, engagementWriteBuffer.pendingDelta(EngagementWriteBuffer.Type.POST_LIKE, post.getPostId()));
+        assertTrue(engagementWriteBuffer.pendingState(EngagementWriteBuffer.Type.POST_LIKE, post.getPostId(),
+                user.getUserId()).isEmpty());
+    }
+
+    @Test
+    void testFlush_ShouldRecountCounters_WhenDriverReportsSuccessNoInfo() {
+        // Some drivers (e.g. pgjdbc with reWriteBatchedInserts) report SUCCESS_NO_INFO instead of row counts
+        JdbcTemplate noInfoTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                           ParameterizedPreparedStatementSetter<T> pss) {
+                int[][] counts = super.batchUpdate(sql, batchArgs, batchSize, pss);
+                for (int[] batch : counts) {
+                    Arrays.fill(batch, Statement.SUCCESS_NO_INFO);
+                }
+                return counts;
+            }
+        };
+        EngagementWriteBuffer buffer = new EngagementWriteBuffer(noInfoTemplate, transactionTemplate,
+                new SimpleMeterRegistry(), event -> { }, true, 4, 1000, "");
+
+        buffer.apply(EngagementWriteBuffer.Type.POST_LIKE, post.getPostId(), user.getUserId(), true, () -> false);
+        buffer.flush();
+
+        assertEquals(1, postLikeRepository.count());
+        assertEquals(1, postRepository.findLikeCount(post.getPostId()).orElseThrow());
+    }
+}
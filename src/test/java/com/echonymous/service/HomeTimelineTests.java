@@ -0,0 +1,178 @@
+package com.echonymous.service;
+
+import com.echonymous.cache.EngagementMembershipIndex;
+import com.echonymous.cache.FeedPageCache;
+import com.echonymous.cache.FeedTimelineIndex;
+import com.echonymous.cache.HotFeedIndex;
+import com.echonymous.cache.SingleFlight;
+import com.echonymous.dto.FeedResponseDTO;
+import com.echonymous.dto.FollowResultDTO;
+import com.echonymous.dto.TextPostDTO;
+import com.echonymous.dto.TimelineEntryDTO;
+import com.echonymous.entity.TextPost;
+import com.echonymous.entity.User;
+import com.echonymous.exception.NotFoundException;
+import com.echonymous.repository.HomeTimelineRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Fan-out runs after commit in production; here it is called directly, since test transactions never commit.
+// With push-max-followers=2, an author with three followers is pulled at read time instead of pushed.
+@DataJpaTest(properties = {"echonymous.feed-cache.enabled=false", "echonymous.home-timeline.push-max-followers=2",
+        "echonymous.home-timeline.max-entries=3"})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({PostService.class, FollowService.class, HomeTimelineService.class, EngagementService.class, EngagementWriteBuffer.class,
+        HydrationFanOut.class, FeedPageCache.class, SingleFlight.class, EngagementMembershipIndex.class, FeedTimelineIndex.class, HotFeedIndex.class, PostSearchService.class, SimpleMeterRegistry.class})
+public class HomeTimelineTests {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private FollowService followService;
+
+    @Autowired
+    private HomeTimelineService homeTimelineService;
+
+    @Autowired
+    private HomeTimelineRepository homeTimelineRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).minusHours(1);
+    private int minutes;
+    private User reader;
+    private User author;
+    private User celebrity;
+
+    @BeforeEach
+    void setUp() {
+        reader = persistUser("reader");
+        author = persistUser("author");
+        celebrity = persistUser("celebrity");
+        followService.follow(reader.getUserId(), author.getUserId());
+        followService.follow(reader.getUserId(), celebrity.getUserId());
+        followService.follow(persistUser("fan1").getUserId(), celebrity.getUserId());
+        followService.follow(persistUser("fan2").getUserId(), celebrity.getUserId());
+    }
+
+    @Test
+    void testGetHomeFeed_ShouldMergePushedAndPulledPosts_InFeedOrder() {
+        List<Long> expected = new ArrayList<>();
+        for (User user : List.of(author, celebrity, reader, author, celebrity)) {
+            expected.add(0, publish(user));
+        }
+        // Only the pushed posts are stored in the reader's timeline
+        assertEquals(3, homeTimelineRepository.findEntries(reader.getUserId(), PageRequest.of(0, 10)).size());
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        boolean hasNext = true;
+        while (hasNext) {
+            FeedResponseDTO<TextPostDTO> page = postService.getHomeFeed(cursor, 2, reader.getUserId());
+            page.getContent().forEach(post -> seen.add(post.getPostId()));
+            cursor = page.getNextCursor();
+            hasNext = page.isHasNext();
+        }
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void testFollow_ShouldBeIdempotent_AndBackfillTimeline() {
+        User newcomer = persistUser("newcomer");
+        Long older = publish(author);
+        Long newer = publish(author);
+
+        FollowResultDTO first = followService.follow(newcomer.getUserId(), author.getUserId());
+        FollowResultDTO second = followService.follow(newcomer.getUserId(), author.getUserId());
+
+        assertTrue(second.isFollowing());
+        assertEquals(2, first.getFollowerCount());
+        assertEquals(2, second.getFollowerCount());
+        assertEquals(List.of(newer, older), entryIds(newcomer));
+    }
+
+    @Test
+    void testUnfollowAndDelete_ShouldRemoveEntries() {
+        Long authorPost = publish(author);
+        Long deletedPost = publish(author);
+        Long ownPost = publish(reader);
+
+        postService.deletePost(deletedPost, author.getUserId());
+        assertEquals(List.of(ownPost, authorPost), entryIds(reader));
+
+        FollowResultDTO result = followService.unfollow(reader.getUserId(), author.getUserId());
+        assertFalse(result.isFollowing());
+        assertEquals(0, result.getFollowerCount());
+        assertEquals(List.of(ownPost), entryIds(reader));
+        // Unfollowing again changes nothing
+        assertEquals(0, followService.unfollow(reader.getUserId(), author.getUserId()).getFollowerCount());
+    }
+
+    @Test
+    void testFollow_ShouldRejectSelfAndUnknownUsers() {
+        assertThrows(ValidationException.class, () -> followService.follow(reader.getUserId(), reader.getUserId()));
+        assertThrows(NotFoundException.class, () -> followService.follow(reader.getUserId(), Long.MAX_VALUE));
+    }
+
+    @Test
+    void testTrim_ShouldKeepNewestMaxEntries() {
+        List<Long> published = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            published.add(0, publish(author));
+        }
+
+        homeTimelineService.trim();
+
+        assertEquals(published.subList(0, 3), entryIds(reader));
+        assertEquals(published.subList(0, 3), entryIds(author));
+    }
+
+    // Persists a post one minute after the previous one and fans it out as the post-commit listener would
+    private Long publish(User user) {
+        TextPost post = new TextPost();
+        post.setCategory("Home");
+        post.setContent("Post by " + user.getUsername());
+        post.setAuthorId(user.getUserId());
+        post.setCreatedAt(start.plusMinutes(minutes++));
+        entityManager.persist(post);
+        entityManager.flush();
+        homeTimelineService.fanOut(post.getPostId(), user.getUserId());
+        return post.getPostId();
+    }
+
+    private List<Long> entryIds(User user) {
+        return homeTimelineRepository.findEntries(user.getUserId(), PageRequest.of(0, 10)).stream()
+                .map(TimelineEntryDTO::getPostId)
+                .toList();
+    }
+
+    private User persistUser(String username) {
+        User user = new User();
+        user.setEmail(username + "@example.com");
+        user.setUsername(username);
+        user.setPassword(username + "Password");
+        entityManager.persist(user);
+        entityManager.flush();
+        return user;
+    }
+}
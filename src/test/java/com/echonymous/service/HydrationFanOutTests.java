@@ -0,0 +1,177 @@
+package com.echonymous.service;
+
+import com.echonymous.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HydrationFanOutTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HydrationFanOut hydrationFanOut;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hydrationFanOut = new HydrationFanOut(meterRegistry, null, true, 4, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hydrationFanOut.shutdown();
+    }
+
+    @Test
+    void testFork_ShouldRunLookupsConcurrently() {
+        // A generous deadline: starting the threads of a cold pool can take longer than 100 ms
+        HydrationFanOut patient = new HydrationFanOut(meterRegistry, null, true, 4, 5000);
+        // Both lookups only finish once the other one has started
+        CountDownLatch started = new CountDownLatch(2);
+        try (HydrationFanOut.Batch batch = patient.begin("post")) {
+            Future<Set<Long>> liked = batch.fork("liked", () -> awaitOther(started, Set.of(1L)));
+            Future<Set<Long>> echoed = batch.fork("echoed", () -> awaitOther(started, Set.of(2L)));
+
+            assertEquals(Set.of(1L), batch.join(liked, "liked", Set.of()));
+            assertEquals(Set.of(2L), batch.join(echoed, "echoed", Set.of()));
+        } finally {
+            patient.shutdown();
+        }
+        assertEquals(2.0, meterRegistry.get("echonymous.hydration.fan-out.width").tag("mode", "parallel")
+                .summary().max());
+    }
+
+    @Test
+    void testJoin_ShouldReturnFallback_WhenLookupMissesDeadline() {
+        CountDownLatch release = new CountDownLatch(1);
+        long start = System.nanoTime();
+        try (HydrationFanOut.Batch batch = hydrationFanOut.begin("post")) {
+            Future<Set<Long>> liked = batch.fork("liked", () -> {
+                awaitRelease(release);
+                return Set.of(1L);
+            });
+            Future<Set<Long>> echoed = batch.fork("echoed", () -> Set.of(2L));
+
+            assertEquals(Set.of(), batch.join(liked, "liked", Set.of()));
+            assertEquals(Set.of(2L), batch.join(echoed, "echoed", Set.of()));
+        } finally {
+            release.countDown();
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+        assertEquals(1.0, meterRegistry.get("echonymous.hydration.degraded").tag("query", "liked")
+                .tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    void testJoin_ShouldReturnFallback_WhenLookupFails() {
+        try (HydrationFanOut.Batch batch = hydrationFanOut.begin("comment")) {
+            Future<Set<Long>> liked = batch.fork("liked", () -> {
+                throw new IllegalStateException("database unavailable");
+            });
+
+            assertEquals(Set.of(), batch.join(liked, "liked", Set.of()));
+        }
+        assertEquals(1.0, meterRegistry.get("echonymous.hydration.degraded").tag("reason", "error")
+                .counter().count());
+    }
+
+    @Test
+    void testJoin_ShouldReturnFallback_WhenInlineLookupFails() {
+        HydrationFanOut inline = new HydrationFanOut(meterRegistry, null, false, 4, 100);
+        try (HydrationFanOut.Batch batch = inline.begin("comment")) {
+            Future<Set<Long>> liked = batch.fork("liked", () -> {
+                throw new IllegalStateException("database unavailable");
+            });
+
+            assertEquals(Set.of(), batch.join(liked, "liked", Set.of()));
+        } finally {
+            inline.shutdown();
+        }
+        assertEquals(1.0, meterRegistry.get("echonymous.hydration.degraded").tag("reason", "error")
+                .counter().count());
+    }
+
+    @Test
+    void testFork_ShouldRunInline_WhenPrimaryPoolBehindReplicaRoutingHasNoIdleConnection() throws Exception {
+        HikariDataSource primary = new HikariDataSource();
+        primary.setJdbcUrl("jdbc:h2:mem:fan-out-primary");
+        primary.setMaximumPoolSize(1);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Map.of(), () -> null, "SELECT 0",
+                1000, Duration.ofSeconds(5), meterRegistry);
+        HydrationFanOut fanOut = new HydrationFanOut(meterRegistry, new LazyConnectionDataSourceProxy(routing),
+                true, 4, 1000);
+        Thread caller = Thread.currentThread();
+        try (Connection held = primary.getConnection();
+             HydrationFanOut.Batch batch = fanOut.begin("post")) {
+            Future<Thread> thread = batch.fork("liked", Thread::currentThread);
+
+            assertSame(caller, batch.join(thread, "liked", null));
+        } finally {
+            fanOut.shutdown();
+            primary.close();
+        }
+    }
+
+    @Test
+    void testFork_ShouldRunInline_WhenDisabled() {
+        HydrationFanOut inline = new HydrationFanOut(meterRegistry, null, false, 4, 100);
+        Thread caller = Thread.currentThread();
+        try (HydrationFanOut.Batch batch = inline.begin("post")) {
+            Future<Thread> thread = batch.fork("liked", Thread::currentThread);
+
+            assertSame(caller, batch.join(thread, "liked", null));
+        } finally {
+            inline.shutdown();
+        }
+    }
+
+    @Test
+    void testFork_ShouldRunInline_WhenEveryThreadIsBusy() {
+        HydrationFanOut single = new HydrationFanOut(meterRegistry, null, true, 1, 1000);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        try (HydrationFanOut.Batch batch = single.begin("post")) {
+            batch.fork("liked", () -> {
+                awaitRelease(release);
+                return Set.of();
+            });
+            // Nothing queues behind the busy thread; the caller runs the second lookup itself
+            Future<Thread> thread = batch.fork("echoed", Thread::currentThread);
+
+            assertSame(caller, batch.join(thread, "echoed", null));
+        } finally {
+            release.countDown();
+            single.shutdown();
+        }
+    }
+
+    private static void awaitRelease(CountDownLatch release) {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <T> T awaitOther(CountDownLatch latch, T result) {
+        latch.countDown();
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,188 @@
+package com.echonymous.service;
+
+import com.echonymous.cache.EngagementMembershipIndex;
+import com.echonymous.cache.FeedPageCache;
+import com.echonymous.cache.FeedTimelineIndex;
+import com.echonymous.cache.HotFeedIndex;
+import com.echonymous.cache.SingleFlight;
+import com.echonymous.dto.CommentDTO;
+import com.echonymous.dto.FeedResponseDTO;
+import com.echonymous.dto.TextPostDTO;
+import com.echonymous.entity.PostComment;
+import com.echonymous.entity.PostEcho;
+import com.echonymous.entity.TextPost;
+import com.echonymous.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Every row shares the same timestamp, so only the id tie-breaker keeps page boundaries stable
+// Feeds are served from timelines smaller than the data set, so the first pages come from memory and the
+// deeper ones fall back to the repository; the same holds for the hot feed rankings
+@DataJpaTest(properties = {"echonymous.feed-cache.enabled=false", "echonymous.feed-timeline.enabled=true",
+        "echonymous.feed-timeline.window-size=10", "echonymous.hot-feed.enabled=true", "echonymous.hot-feed.capacity=10"})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({PostService.class, CommentService.class, EngagementService.class, EngagementWriteBuffer.class, HydrationFanOut.class, FeedPageCache.class, SingleFlight.class, EngagementMembershipIndex.class, FeedTimelineIndex.class, HotFeedIndex.class, PostSearchService.class, HomeTimelineService.class, SimpleMeterRegistry.class})
+public class KeysetPaginationTests {
+
+    private static final int ROWS = 23;
+    private static final int PAGE_SIZE = 4;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private FeedTimelineIndex feedTimelineIndex;
+
+    @Autowired
+    private HotFeedIndex hotFeedIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDateTime sameInstant = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    private User user;
+    private TextPost commentedPost;
+    private PostComment parentComment;
+    private final List<Long> postIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("pager@example.com");
+        user.setUsername("pager");
+        user.setPassword("pagerPassword");
+        entityManager.persist(user);
+
+        for (int i = 0; i < ROWS; i++) {
+            TextPost post = new TextPost();
+            post.setCategory("Bulk");
+            post.setContent("Imported " + i);
+            post.setAuthorId(user.getUserId());
+            post.setCreatedAt(sameInstant);
+            entityManager.persist(post);
+            postIds.add(post.getPostId());
+
+            PostEcho echo = new PostEcho();
+            echo.setPost(post);
+            echo.setUser(user);
+            echo.setEchoedAt(sameInstant);
+            entityManager.persist(echo);
+            commentedPost = post;
+        }
+
+        parentComment = createComment(null);
+        for (int i = 0; i < ROWS - 1; i++) {
+            createComment(null);
+            createComment(parentComment);
+        }
+        createComment(parentComment);
+
+        entityManager.flush();
+        entityManager.clear();
+        feedTimelineIndex.rebuild();
+        hotFeedIndex.rebuild();
+    }
+
+    @Test
+    void testGetTextFeed_ShouldReturnEveryPostOnce_WhenTimestampsCollide() {
+        assertEveryRowOnce(cursor -> postService.getTextFeed(cursor, PAGE_SIZE, user.getUserId(), "All"), TextPostDTO::getPostId);
+        assertEveryRowOnce(cursor -> postService.getTextFeed(cursor, PAGE_SIZE, user.getUserId(), "bulk"), TextPostDTO::getPostId);
+    }
+
+    @Test
+    void testGetTextFeed_ShouldKeepFeedOrder_AcrossTimelineAndRepositoryPages() {
+        List<Long> newestFirst = postIds.stream().sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+
+        assertEquals(newestFirst, collectIds(cursor -> postService.getTextFeed(cursor, PAGE_SIZE, user.getUserId(), "Bulk "),
+                TextPostDTO::getPostId));
+        assertEquals(newestFirst, collectIds(cursor -> postService.getTextFeed(cursor, PAGE_SIZE, user.getUserId(), "All"),
+                TextPostDTO::getPostId));
+    }
+
+    @Test
+    void testGetHotTextFeed_ShouldKeepFeedOrder_AcrossRankingAndRepositoryPages() {
+        // Without engagement every post has the same score, so the id tie-breaker decides the order
+        List<Long> newestFirst = postIds.stream().sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+
+        assertEquals(newestFirst, collectIds(cursor -> postService.getHotTextFeed(cursor, PAGE_SIZE, user.getUserId(), "Bulk "),
+                TextPostDTO::getPostId));
+        assertEquals(newestFirst, collectIds(cursor -> postService.getHotTextFeed(cursor, PAGE_SIZE, user.getUserId(), "All"),
+                TextPostDTO::getPostId));
+    }
+
+    @Test
+    void testGetUserTextPosts_ShouldReturnEveryPostOnce_WhenTimestampsCollide() {
+        assertEveryRowOnce(cursor -> postService.getUserTextPosts(cursor, PAGE_SIZE, user.getUserId(), user.getUserId()),
+                TextPostDTO::getPostId);
+    }
+
+    @Test
+    void testGetEchoedTextPosts_ShouldReturnEveryPostOnce_WhenTimestampsCollide() {
+        assertEveryRowOnce(cursor -> postService.getEchoedTextPosts(user.getUserId(), PAGE_SIZE, cursor), TextPostDTO::getPostId);
+    }
+
+    @Test
+    void testGetCommentsForPost_ShouldReturnEveryCommentOnce_WhenTimestampsCollide() {
+        assertEveryRowOnce(cursor -> commentService.getCommentsForPost(commentedPost.getPostId(), cursor, PAGE_SIZE, user.getUserId()),
+                CommentDTO::getCommentId);
+    }
+
+    @Test
+    void testGetRepliesForComment_ShouldReturnEveryReplyOnce_WhenTimestampsCollide() {
+        assertEveryRowOnce(cursor -> commentService.getRepliesForComment(parentComment.getPostCommentId(), cursor, PAGE_SIZE, user.getUserId()),
+                CommentDTO::getCommentId);
+    }
+
+    private <T> void assertEveryRowOnce(Function<String, FeedResponseDTO<T>> fetchPage, Function<T, Long> idOf) {
+        List<Long> ids = collectIds(fetchPage, idOf);
+
+        assertEquals(ROWS, ids.size());
+        assertEquals(ROWS, new HashSet<>(ids).size());
+    }
+
+    private <T> List<Long> collectIds(Function<String, FeedResponseDTO<T>> fetchPage, Function<T, Long> idOf) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        FeedResponseDTO<T> page;
+        do {
+            page = fetchPage.apply(cursor);
+            page.getContent().forEach(row -> ids.add(idOf.apply(row)));
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+        return ids;
+    }
+
+    private PostComment createComment(PostComment parent) {
+        PostComment comment = new PostComment();
+        comment.setPost(commentedPost);
+        comment.setUser(user);
+        comment.setComment("Same instant");
+        comment.setCreatedAt(sameInstant);
+        comment.setParentComment(parent);
+        entityManager.persist(comment);
+        return comment;
+    }
+}
@@ -0,0 +1,155 @@
+package com.echonymous.service;
+
+import com.echonymous.cache.EngagementMembershipIndex;
+import com.echonymous.cache.FeedPageCache;
+import com.echonymous.cache.FeedTimelineIndex;
+import com.echonymous.cache.HotFeedIndex;
+import com.echonymous.cache.SingleFlight;
+import com.echonymous.entity.TextPost;
+import com.echonymous.entity.User;
+import com.echonymous.exception.NotFoundException;
+import com.echonymous.repository.PostLikeRepository;
+import com.echonymous.repository.PostRepository;
+import com.echonymous.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Concurrent-tap load test: runs without a test transaction so every call commits on its own connection
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({PostService.class, EngagementService.class, EngagementWriteBuffer.class, HydrationFanOut.class, FeedPageCache.class, SingleFlight.class, EngagementMembershipIndex.class, FeedTimelineIndex.class, HotFeedIndex.class, PostSearchService.class, HomeTimelineService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PostEngagementConcurrencyTests {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private ExecutorService executor;
+    private TextPost post;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+
+        post = new TextPost();
+        post.setCategory("Test");
+        post.setContent("Concurrent post");
+        post.setAuthorId(1L);
+        post.setCreatedAt(LocalDateTime.now());
+        post = postRepository.save(post);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        postLikeRepository.deleteAll();
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testLikePost_ShouldCreateSingleLike_WhenSameUserTapsConcurrently() throws Exception {
+        User user = createUser("tapper");
+
+        runConcurrently(100, i -> postService.likePost(post.getPostId(), user.getUserId()));
+
+        assertEquals(1, postLikeRepository.count());
+        assertEquals(1, postRepository.findLikeCount(post.getPostId()).orElseThrow());
+    }
+
+    @Test
+    void testToggleLike_ShouldKeepCounterInSyncWithRows_WhenSameUserTogglesConcurrently() throws Exception {
+        User user = createUser("toggler");
+
+        runConcurrently(101, i -> postService.toggleLike(post.getPostId(), user.getUserId()));
+
+        long rows = postLikeRepository.count();
+        assertTrue(rows <= 1);
+        assertEquals(rows, postRepository.findLikeCount(post.getPostId()).orElseThrow().longValue());
+    }
+
+    @Test
+    void testToggleLike_ShouldCountEveryUser_WhenManyUsersLikeConcurrently() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            users.add(createUser("fan" + i));
+        }
+
+        runConcurrently(users.size(), i -> postService.toggleLike(post.getPostId(), users.get(i).getUserId()));
+
+        assertEquals(50, postLikeRepository.count());
+        assertEquals(50, postRepository.findLikeCount(post.getPostId()).orElseThrow());
+    }
+
+    @Test
+    void testLikeAndEcho_ShouldThrowNotFound_WhenPostDoesNotExist() {
+        User user = createUser("lost");
+        Long missingPostId = post.getPostId() + 1000;
+
+        assertThrows(NotFoundException.class, () -> postService.likePost(missingPostId, user.getUserId()));
+        assertThrows(NotFoundException.class, () -> postService.toggleEcho(missingPostId, user.getUserId()));
+    }
+
+    @Test
+    void testLike_ShouldNotReportMissingPost_WhenUserDoesNotExist() {
+        Long missingUserId = createUser("gone").getUserId() + 1000;
+
+        assertThrows(DataIntegrityViolationException.class, () -> postService.likePost(post.getPostId(), missingUserId));
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setEmail(username + "@example.com");
+        user.setUsername(username);
+        user.setPassword("password123");
+        return userRepository.save(user);
+    }
+
+    private void runConcurrently(int taps, IntConsumer tap) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < taps; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                tap.accept(index);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.echonymous.service;
+
+import com.echonymous.cache.EngagementMembershipIndex;
+import com.echonymous.cache.FeedPageCache;
+import com.echonymous.cache.FeedTimelineIndex;
+import com.echonymous.cache.HotFeedIndex;
+import com.echonymous.cache.SingleFlight;
+import com.echonymous.dto.FeedResponseDTO;
+import com.echonymous.dto.TextPostDTO;
+import com.echonymous.entity.PostLike;
+import com.echonymous.entity.TextPost;
+import com.echonymous.entity.User;
+import com.echonymous.repository.TextPostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({PostService.class, EngagementService.class, EngagementWriteBuffer.class, HydrationFanOut.class, FeedPageCache.class, SingleFlight.class, EngagementMembershipIndex.class, FeedTimelineIndex.class, HotFeedIndex.class, PostSearchService.class, HomeTimelineService.class, SimpleMeterRegistry.class})
+public class PostFeedQueryCountTests {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private TextPostRepository textPostRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        user = new User();
+        user.setEmail("feeduser@example.com");
+        user.setUsername("feedUser");
+        user.setPassword("feedPassword");
+        entityManager.persist(user);
+    }
+
+    @Test
+    void testGetTextFeed_ShouldUseSameNumberOfStatements_RegardlessOfPageSize() {
+        seedPosts(30);
+
+        long smallPage = countStatements(() -> postService.getTextFeed(null, 2, user.getUserId(), "All"));
+        long largePage = countStatements(() -> postService.getTextFeed(null, 25, user.getUserId(), "All"));
+
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void testGetTextFeed_ShouldHydrateEngagement_ForEveryPostOnThePage() {
+        seedPosts(3);
+
+        FeedResponseDTO<TextPostDTO> feed = postService.getTextFeed(null, 10, user.getUserId(), "All");
+
+        assertEquals(3, feed.getContent().size());
+        for (TextPostDTO post : feed.getContent()) {
+            assertEquals(1, post.getEngagement().getLikesCount());
+            assertTrue(post.getEngagement().isLiked());
+            assertFalse(post.getEngagement().isEchoed());
+            assertTrue(post.getIsCurrentUserPost());
+        }
+    }
+
+    @Test
+    void testGetUserTextPosts_ShouldUseSameNumberOfStatements_RegardlessOfPageSize() {
+        seedPosts(30);
+
+        long smallPage = countStatements(() -> postService.getUserTextPosts(null, 2, user.getUserId(), user.getUserId()));
+        long largePage = countStatements(() -> postService.getUserTextPosts(null, 25, user.getUserId(), user.getUserId()));
+
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void testFeedReads_ShouldNotMaterializeEntities() {
+        seedPosts(5);
+
+        entityManager.clear();
+        statistics.clear();
+        postService.getTextFeed(null, 10, user.getUserId(), "All");
+        postService.getUserTextPosts(null, 10, user.getUserId(), user.getUserId());
+
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testReadPaths_ShouldNotLazyLoadAssociations() {
+        seedPosts(5);
+        Long postId = textPostRepository.findLatestSummaries(PageRequest.of(0, 1)).get(0).getPostId();
+        postService.echoPost(postId, user.getUserId());
+        entityManager.flush();
+
+        entityManager.clear();
+        statistics.clear();
+        postService.getTextFeed(null, 10, user.getUserId(), "All");
+        postService.getTextPostById(postId, user.getUserId());
+        postService.getEchoedTextPosts(user.getUserId(), 10, null);
+        postService.getHomeFeed(null, 10, user.getUserId());
+
+        assertEquals(0, statistics.getEntityFetchCount(), "unplanned lazy entity loads");
+        assertEquals(0, statistics.getCollectionFetchCount(), "unplanned lazy collection loads");
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private void seedPosts(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            TextPost post = new TextPost();
+            post.setCategory("Test");
+            post.setContent("Post " + i);
+            post.setAuthorId(user.getUserId());
+            post.setCreatedAt(now.minusMinutes(i));
+            post.setLikeCount(1);
+            entityManager.persist(post);
+
+            PostLike like = new PostLike();
+            like.setPost(post);
+            like.setUser(user);
+            like.setLikedAt(now);
+            entityManager.persist(like);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,104 @@
+package com.echonymous.service;
+
+import com.echonymous.dto.ImportPostDTO;
+import com.echonymous.dto.ImportResultDTO;
+import com.echonymous.entity.TextPost;
+import com.echonymous.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ValidationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "echonymous.import.max-posts=200", "echonymous.import.flush-interval=50"})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import(PostImportService.class)
+public class PostImportTests {
+
+    @Autowired
+    private PostImportService postImportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("importer@example.com");
+        user.setUsername("importer");
+        user.setPassword("importerPassword");
+        entityManager.persist(user);
+        entityManager.flush();
+    }
+
+    @Test
+    void testImportPosts_ShouldInsertPostsAndComments_InJdbcBatches() {
+        List<ImportPostDTO> posts = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            posts.add(new ImportPostDTO("Tech", "Imported post " + i, List.of("First", "Second")));
+        }
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ImportResultDTO result = postImportService.importPosts(posts, user.getUserId());
+
+        assertEquals(120, result.getPostIds().size());
+        assertEquals(120, new HashSet<>(result.getPostIds()).size());
+        assertEquals(240, result.getCommentCount());
+        assertEquals(120, count("SELECT COUNT(*) FROM post"));
+        assertEquals(240, count("SELECT COUNT(*) FROM post_comment"));
+        // 360 rows: with IDENTITY ids that took 360 inserts, plus a few sequence calls with pooled ids
+        assertTrue(statistics.getPrepareStatementCount() < 40,
+                "Expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void testImportPosts_ShouldDatePostsAtImportTime_AndKeepCommentCount() {
+        LocalDateTime before = LocalDateTime.now();
+
+        ImportResultDTO result = postImportService.importPosts(
+                List.of(new ImportPostDTO("Music", "Old post", List.of("Old comment"))), user.getUserId());
+        entityManager.clear();
+
+        TextPost post = entityManager.find(TextPost.class, result.getPostIds().get(0));
+        assertFalse(post.getCreatedAt().isBefore(before));
+        assertEquals(1, post.getCommentCount());
+        assertEquals("music", post.getCategoryKey());
+        assertEquals(user.getUserId(), post.getAuthorId());
+    }
+
+    @Test
+    void testImportPosts_ShouldRejectTooManyPostsOrBlankContent() {
+        List<ImportPostDTO> tooMany = new ArrayList<>();
+        for (int i = 0; i < 201; i++) {
+            tooMany.add(new ImportPostDTO("Tech", "Post " + i, null));
+        }
+
+        assertThrows(ValidationException.class, () -> postImportService.importPosts(tooMany, user.getUserId()));
+        assertThrows(ValidationException.class, () -> postImportService.importPosts(
+                List.of(new ImportPostDTO("Tech", " ", null)), user.getUserId()));
+        assertEquals(0, count("SELECT COUNT(*) FROM post"));
+    }
+
+    private long count(String sql) {
+        return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+}
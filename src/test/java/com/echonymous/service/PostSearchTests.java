@@ -0,0 +1,153 @@
+package com.echonymous.service;
+
+import com.echonymous.dto.FeedResponseDTO;
+import com.echonymous.entity.PostComment;
+import com.echonymous.entity.TextPost;
+import com.echonymous.entity.User;
+import com.echonymous.event.CommentChangedEvent;
+import com.echonymous.event.PostDeletedEvent;
+import com.echonymous.event.PostUpdatedEvent;
+import com.echonymous.util.SearchCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The index outlives each test's rolled-back transaction, so every test starts with a full reindex
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({PostSearchService.class, SimpleMeterRegistry.class})
+public class PostSearchTests {
+
+    @Autowired
+    private PostSearchService postSearchService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("searcher@example.com");
+        user.setUsername("searcher");
+        user.setPassword("searcherPassword");
+        entityManager.persist(user);
+    }
+
+    @Test
+    void testSearch_ShouldMatchContentAndComments_WithinCategory() {
+        TextPost inContent = persistPost("Tech", "Tuning the garbage collector", now.minusDays(1));
+        TextPost inComment = persistPost("Tech", "What slows my service down?", now.minusDays(1));
+        persistComment(inComment, "Probably the garbage collector");
+        TextPost otherCategory = persistPost("Music", "Garbage, the band", now.minusDays(1));
+        persistPost("Tech", "Unrelated post", now.minusDays(1));
+        postSearchService.reindexAll();
+
+        assertEquals(List.of(inContent.getPostId(), inComment.getPostId()), search("garbage collector", "tech"));
+        assertEquals(List.of(otherCategory.getPostId()), search("garbage", "music"));
+        assertEquals(3, search("GARBAGE", "all").size());
+        assertEquals(List.of(), search("nothing matches this", "all"));
+    }
+
+    @Test
+    void testSearch_ShouldRankNewerPostsFirst_WhenRelevanceIsEqual() {
+        TextPost old = persistPost("Tech", "Virtual threads explained", now.minusDays(30));
+        TextPost recent = persistPost("Tech", "Virtual threads explained", now.minusHours(1));
+        postSearchService.reindexAll();
+
+        assertEquals(List.of(recent.getPostId(), old.getPostId()), search("virtual threads", "all"));
+    }
+
+    @Test
+    void testSearch_ShouldReturnEveryMatchOnce_AcrossPages() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            // Same content and timestamp, so only the id tie-breaker orders the results
+            expected.add(0, persistPost("Tech", "Keyset pagination", now).getPostId());
+        }
+        postSearchService.reindexAll();
+
+        List<Long> seen = new ArrayList<>();
+        SearchCursor cursor = null;
+        FeedResponseDTO<Long> page;
+        do {
+            page = postSearchService.search("pagination", "all", cursor, 3);
+            seen.addAll(page.getContent());
+            cursor = SearchCursor.decode(page.getNextCursor());
+        } while (page.isHasNext());
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void testRefresh_ShouldApplyPostAndCommentChanges() {
+        TextPost post = persistPost("Tech", "Draft about caching", now);
+        postSearchService.reindexAll();
+
+        post.setContent("Final text about indexing");
+        PostComment comment = persistComment(post, "Great write-up on sharding");
+        entityManager.flush();
+        postSearchService.onPostUpdated(new PostUpdatedEvent(post.getPostId(), "Tech", "Tech", post.getCreatedAt()));
+        postSearchService.onCommentChanged(new CommentChangedEvent(post.getPostId()));
+        postSearchService.refresh();
+
+        assertEquals(List.of(), search("caching", "all"));
+        assertEquals(List.of(post.getPostId()), search("indexing", "all"));
+        assertEquals(List.of(post.getPostId()), search("sharding", "all"));
+
+        entityManager.remove(comment);
+        entityManager.remove(post);
+        entityManager.flush();
+        postSearchService.onPostDeleted(new PostDeletedEvent(post.getPostId(), "Tech"));
+        postSearchService.refresh();
+
+        assertEquals(List.of(), search("indexing", "all"));
+    }
+
+    @Test
+    void testSearch_ShouldRejectBlankQueries() {
+        assertThrows(ValidationException.class, () -> postSearchService.search("  ", "all", null, 10));
+        assertThrows(ValidationException.class, () -> postSearchService.search("x".repeat(201), "all", null, 10));
+    }
+
+    private List<Long> search(String query, String categoryKey) {
+        return postSearchService.search(query, categoryKey, null, 10).getContent();
+    }
+
+    private TextPost persistPost(String category, String content, LocalDateTime createdAt) {
+        TextPost post = new TextPost();
+        post.setCategory(category);
+        post.setContent(content);
+        post.setAuthorId(user.getUserId());
+        post.setCreatedAt(createdAt);
+        entityManager.persist(post);
+        return post;
+    }
+
+    private PostComment persistComment(TextPost post, String text) {
+        PostComment comment = new PostComment();
+        comment.setPost(post);
+        comment.setUser(user);
+        comment.setComment(text);
+        comment.setCreatedAt(now);
+        entityManager.persist(comment);
+        return comment;
+    }
+}
@@ -0,0 +1,76 @@
+package com.echonymous.storage;
+
+import com.echonymous.dto.StoredBlobDTO;
+import com.echonymous.exception.NotFoundException;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalBlobStoreTests {
+
+    @TempDir
+    Path root;
+
+    private LocalBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new LocalBlobStore(root.toString());
+    }
+
+    @Test
+    void testWrite_ShouldStoreFile_WithSizeAndChecksum() throws Exception {
+        byte[] audio = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+        StoredBlobDTO blob = blobStore.write("audio/clip", new ByteArrayInputStream(audio), 10);
+
+        assertEquals(10, blob.getSizeBytes());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(audio)), blob.getChecksum());
+        assertArrayEquals(audio, Files.readAllBytes(root.resolve("audio/clip")));
+    }
+
+    @Test
+    void testWrite_ShouldStoreNothing_WhenFileExceedsMaxBytes() throws IOException {
+        ByteArrayInputStream tooLarge = new ByteArrayInputStream(new byte[11]);
+
+        assertThrows(ValidationException.class, () -> blobStore.write("audio/clip", tooLarge, 10));
+
+        // Neither the blob nor its temporary file is left behind
+        try (var files = Files.list(root.resolve("audio"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testTransferTo_ShouldWriteRequestedRange() throws IOException {
+        blobStore.write("audio/clip", new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.US_ASCII)), 10);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        blobStore.transferTo("audio/clip", 3, 4, Channels.newChannel(out));
+
+        assertEquals("3456", out.toString(StandardCharsets.US_ASCII));
+        assertTrue(blobStore.exists("audio/clip"));
+    }
+
+    @Test
+    void testKeys_ShouldNotEscapeRoot_AndMissingBlobsAreNotFound() {
+        assertThrows(IllegalArgumentException.class,
+                () -> blobStore.write("../outside", new ByteArrayInputStream(new byte[1]), 10));
+        assertThrows(NotFoundException.class,
+                () -> blobStore.transferTo("audio/missing", 0, 1, Channels.newChannel(new ByteArrayOutputStream())));
+        assertFalse(blobStore.exists("audio/missing"));
+    }
+}
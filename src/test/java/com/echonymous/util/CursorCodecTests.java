@@ -0,0 +1,33 @@
+package com.echonymous.util;
+
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTests {
+
+    @Test
+    public void testDecode_ShouldRoundTripEveryCursorType() {
+        ScoreCursor score = ScoreCursor.decode(ScoreCursor.encode(12.5, 7L));
+        SearchCursor search = SearchCursor.decode(new SearchCursor(1.5f, 8L, 1_700_000_000L).encode());
+
+        assertEquals(12.5, score.getScore());
+        assertEquals(7L, score.getId());
+        assertEquals(1.5f, search.getScore());
+        assertEquals(8L, search.getId());
+        assertEquals(1_700_000_000L, search.getAsOf());
+    }
+
+    @Test
+    public void testDecode_ShouldThrowValidationException_WhenCursorIsOfAnotherType() {
+        String keyset = KeysetCursor.encode(LocalDateTime.of(2025, 3, 1, 12, 0), 1L);
+        String score = ScoreCursor.encode(1.0, 1L);
+
+        assertThrows(ValidationException.class, () -> ScoreCursor.decode(keyset));
+        assertThrows(ValidationException.class, () -> SearchCursor.decode(score));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(score));
+    }
+}
@@ -4,28 +4,19 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.lang.reflect.Field;
-
 import static org.junit.jupiter.api.Assertions.*;
 
 class JwtUtilsTests {
 
+    private static final String SECRET_KEY = "88cd2108b5347d973cf39cdf9053d7dd42704876d8c9a9bd8e2d168259d3ddf7";
+
     private JwtUtils jwtUtils;
 
     private Long userId = 2L;
 
     @BeforeEach
-    public void setUp() throws NoSuchFieldException, IllegalAccessException {
-        jwtUtils = new JwtUtils();
-
-        // Use reflection to inject values into private fields
-        Field secretKeyField = JwtUtils.class.getDeclaredField("secretKey");
-        secretKeyField.setAccessible(true);
-        secretKeyField.set(jwtUtils, "88cd2108b5347d973cf39cdf9053d7dd42704876d8c9a9bd8e2d168259d3ddf7");
-
-        Field expirationTimeField = JwtUtils.class.getDeclaredField("expirationTime");
-        expirationTimeField.setAccessible(true);
-        expirationTimeField.set(jwtUtils, 3600000L);  // 1 hour
+    public void setUp() {
+        jwtUtils = new JwtUtils(SECRET_KEY, 3600000L, 10_000);  // 1 hour
     }
 
     @Test
@@ -64,6 +55,33 @@ class JwtUtilsTests {
         });
     }
 
+    @Test
+    public void testValidateToken_ShouldReturnFalse_WhenSignatureIsTampered() {
+        String token = jwtUtils.generateToken(userId);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertTrue(jwtUtils.validateToken(token));
+        assertFalse(jwtUtils.validateToken(tampered));
+    }
+
+    @Test
+    public void testValidateToken_ShouldReturnFalse_WhenTokenIsExpired() {
+        jwtUtils = new JwtUtils(SECRET_KEY, -1000L, 10_000);
+
+        String expiredToken = jwtUtils.generateToken(userId);
+        assertFalse(jwtUtils.validateToken(expiredToken));
+    }
+
+    @Test
+    public void testGetUserIdFromToken_ShouldReturnSameUserId_WhenTokenIsVerifiedRepeatedly() {
+        String token = jwtUtils.generateToken(userId);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(userId, jwtUtils.getUserIdFromToken(token));
+        }
+        assertEquals(5L, jwtUtils.getUserIdFromToken(jwtUtils.generateToken(5L)));
+    }
+
     @Test
     public void testExtractJwtFromRequest_ShouldReturnToken_WhenAuthorizationHeaderContainsBearerToken() {
         // Simulate a HttpServletRequest with an Authorization header
@@ -0,0 +1,41 @@
+package com.echonymous.util;
+
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTests {
+
+    @Test
+    public void testDecode_ShouldReturnSameKey_WhenCursorWasEncoded() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123456000);
+
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode(createdAt, 42L));
+
+        assertEquals(createdAt, cursor.getTimestamp());
+        assertEquals(42L, cursor.getId());
+    }
+
+    @Test
+    public void testDecode_ShouldReturnNull_WhenCursorIsMissing() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+    }
+
+    @Test
+    public void testDecode_ShouldThrowValidationException_WhenCursorIsLegacyTimestamp() {
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> KeysetCursor.decode("2025-03-01T12:30:15"));
+
+        assertTrue(exception.getMessage().contains("first page"));
+    }
+
+    @Test
+    public void testDecode_ShouldThrowValidationException_WhenCursorIsMalformed() {
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode("not a cursor"));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode("AAAA"));
+    }
+}